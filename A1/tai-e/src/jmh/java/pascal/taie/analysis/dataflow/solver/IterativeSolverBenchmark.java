@@ -0,0 +1,100 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JClass;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Measures the throughput of {@link IterativeSolver} on live variable
+ * analysis. Each operation solves the CFGs of all application methods
+ * of the given program, whose CFGs are built in advance.
+ */
+@State(Scope.Benchmark)
+public class IterativeSolverBenchmark {
+
+    @Param({"src/test/resources/dataflow/livevar"})
+    public String classPath;
+
+    @Param({"BranchLoop", "Fibonacci", "Reference", "Synthetic"})
+    public String program;
+
+    /**
+     * Whether the solver visits the nodes in (reverse) postorder.
+     */
+    @Param({"true", "false"})
+    public boolean ordered;
+
+    /**
+     * Whether the live variables are represented by bit sets.
+     */
+    @Param({"false", "true"})
+    public boolean bitset;
+
+    private List<CFG<Stmt>> cfgs;
+
+    private Solver<Stmt, SetFact<Var>> solver;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String cp = program.equals("Synthetic") ? "../../benchmarks" : classPath;
+        Main.main(new String[]{
+                "-pp", "-cp", cp, "-m", program, "-a", CFGBuilder.ID});
+        cfgs = World.get().getClassHierarchy()
+                .applicationClasses()
+                .map(JClass::getDeclaredMethods)
+                .flatMap(Collection::stream)
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .map(m -> m.getIR().<CFG<Stmt>>getResult(CFGBuilder.ID))
+                .toList();
+        LiveVariableAnalysis analysis = new LiveVariableAnalysis(
+                new AnalysisConfig(LiveVariableAnalysis.ID,
+                        "strongly", false, "bitset", bitset));
+        solver = new IterativeSolver<>(analysis, ordered);
+    }
+
+    @Benchmark
+    public void solve(Blackhole bh) {
+        for (CFG<Stmt> cfg : cfgs) {
+            bh.consume(solver.solve(cfg));
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.util.Indexable;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * Represents set-like data-flow facts whose elements are {@link Indexable}.
+ * <p>
+ * Instead of hashing the elements, this fact stores them in a word-packed
+ * bit vector keyed by {@link Indexable#getIndex()}, thus the set operations
+ * between two such facts, e.g., {@link #union(SetFact)}, {@link #intersect(SetFact)}
+ * and {@link #equals(Object)}, are performed word by word.
+ * The indexes of the elements should be dense and should not conflict
+ * with each other, e.g., the indexes of {@link pascal.taie.ir.exp.Var}s
+ * in the same method.
+ *
+ * @param <E> type of elements
+ */
+public class BitSetFact<E extends Indexable> extends SetFact<E> {
+
+    /**
+     * @param elements maps indexes back to the corresponding elements,
+     *                 which is used to iterate the elements of this fact.
+     */
+    public BitSetFact(IntFunction<E> elements) {
+        super(new IndexBitSet<>(elements));
+    }
+
+    private BitSetFact(IndexBitSet<E> set) {
+        super(set);
+    }
+
+    @Override
+    public BitSetFact<E> copy() {
+        return new BitSetFact<>(((IndexBitSet<E>) set).copy());
+    }
+
+    /**
+     * A {@link java.util.Set} implementation backed by a bit vector.
+     * Bulk operations with another {@link IndexBitSet} are performed
+     * word by word; others fall back to the element-wise implementations
+     * in {@link AbstractSet}.
+     */
+    private static class IndexBitSet<E extends Indexable> extends AbstractSet<E> {
+
+        private static final long[] EMPTY_WORDS = {};
+
+        private final IntFunction<E> elements;
+
+        private long[] words;
+
+        private IndexBitSet(IntFunction<E> elements) {
+            this(elements, EMPTY_WORDS);
+        }
+
+        private IndexBitSet(IntFunction<E> elements, long[] words) {
+            this.elements = elements;
+            this.words = words;
+        }
+
+        private IndexBitSet<E> copy() {
+            return new IndexBitSet<>(elements,
+                    words.length == 0 ? EMPTY_WORDS : words.clone());
+        }
+
+        private static int wordIndex(int index) {
+            return index >>> 6;
+        }
+
+        private void ensureCapacity(int nWords) {
+            if (words.length < nWords) {
+                words = Arrays.copyOf(words, Math.max(words.length * 2, nWords));
+            }
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (o instanceof Indexable e) {
+                int index = e.getIndex();
+                int wi = wordIndex(index);
+                return wi < words.length && (words[wi] & (1L << index)) != 0;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean add(E e) {
+            int index = e.getIndex();
+            int wi = wordIndex(index);
+            ensureCapacity(wi + 1);
+            long old = words[wi];
+            words[wi] = old | (1L << index);
+            return words[wi] != old;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (o instanceof Indexable e) {
+                int index = e.getIndex();
+                int wi = wordIndex(index);
+                if (wi < words.length) {
+                    long old = words[wi];
+                    words[wi] = old & ~(1L << index);
+                    return words[wi] != old;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean containsAll(Collection<?> c) {
+            if (c instanceof IndexBitSet<?> other) {
+                long[] otherWords = other.words;
+                for (int i = 0; i < otherWords.length; ++i) {
+                    long w = i < words.length ? words[i] : 0;
+                    if ((otherWords[i] & ~w) != 0) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            return super.containsAll(c);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends E> c) {
+            if (c instanceof IndexBitSet<?> other) {
+                long[] otherWords = other.words;
+                int n = lastNonZero(otherWords) + 1;
+                ensureCapacity(n);
+                boolean changed = false;
+                for (int i = 0; i < n; ++i) {
+                    long old = words[i];
+                    words[i] = old | otherWords[i];
+                    changed |= words[i] != old;
+                }
+                return changed;
+            }
+            return super.addAll(c);
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> c) {
+            if (c instanceof IndexBitSet<?> other) {
+                long[] otherWords = other.words;
+                boolean changed = false;
+                for (int i = 0; i < words.length; ++i) {
+                    long old = words[i];
+                    words[i] = i < otherWords.length ? old & otherWords[i] : 0;
+                    changed |= words[i] != old;
+                }
+                return changed;
+            }
+            return super.retainAll(c);
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+            if (c instanceof IndexBitSet<?> other) {
+                long[] otherWords = other.words;
+                int n = Math.min(words.length, otherWords.length);
+                boolean changed = false;
+                for (int i = 0; i < n; ++i) {
+                    long old = words[i];
+                    words[i] = old & ~otherWords[i];
+                    changed |= words[i] != old;
+                }
+                return changed;
+            }
+            return super.removeAll(c);
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(words, 0);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return lastNonZero(words) < 0;
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (long w : words) {
+                size += Long.bitCount(w);
+            }
+            return size;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<>() {
+
+                private int next = nextSetBit(0);
+
+                private int last = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public E next() {
+                    if (next < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    last = next;
+                    next = nextSetBit(next + 1);
+                    return elements.apply(last);
+                }
+
+                @Override
+                public void remove() {
+                    if (last < 0) {
+                        throw new IllegalStateException();
+                    }
+                    int wi = wordIndex(last);
+                    if (wi >= words.length) {
+                        throw new ConcurrentModificationException();
+                    }
+                    words[wi] &= ~(1L << last);
+                    last = -1;
+                }
+            };
+        }
+
+        /**
+         * @return index of the first set bit starting from {@code from},
+         * or -1 if there is no such bit.
+         */
+        private int nextSetBit(int from) {
+            int wi = wordIndex(from);
+            if (wi >= words.length) {
+                return -1;
+            }
+            long w = words[wi] & (-1L << from);
+            while (true) {
+                if (w != 0) {
+                    return (wi << 6) + Long.numberOfTrailingZeros(w);
+                }
+                if (++wi == words.length) {
+                    return -1;
+                }
+                w = words[wi];
+            }
+        }
+
+        private static int lastNonZero(long[] words) {
+            int i = words.length - 1;
+            while (i >= 0 && words[i] == 0) {
+                --i;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o instanceof IndexBitSet<?> other) {
+                long[] otherWords = other.words;
+                int n = Math.max(words.length, otherWords.length);
+                for (int i = 0; i < n; ++i) {
+                    long w1 = i < words.length ? words[i] : 0;
+                    long w2 = i < otherWords.length ? otherWords[i] : 0;
+                    if (w1 != w2) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            return super.equals(o);
+        }
+    }
+}
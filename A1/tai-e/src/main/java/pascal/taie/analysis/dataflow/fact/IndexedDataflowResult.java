@@ -0,0 +1,86 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * A {@link DataflowResult} which stores the facts in arrays indexed by
+ * the nodes, e.g., the statements of a CFG, which are indexed densely
+ * by {@link pascal.taie.ir.stmt.Stmt#getIndex()}. This avoids hashing
+ * the nodes when accessing the facts. As the indexes are only unique
+ * within a CFG, a result of this class should hold the facts of
+ * the nodes of a single CFG.
+ *
+ * @param <Node> type of nodes
+ * @param <Fact> type of data-flow facts
+ */
+public class IndexedDataflowResult<Node, Fact> extends DataflowResult<Node, Fact> {
+
+    private final ToIntFunction<Node> indexer;
+
+    private final Object[] inFacts;
+
+    private final Object[] outFacts;
+
+    /**
+     * @param capacity number of the nodes, i.e., the indexes of the nodes
+     *                 must be in range [0, capacity).
+     * @param indexer  maps each node to its index.
+     */
+    public IndexedDataflowResult(int capacity, ToIntFunction<Node> indexer) {
+        this.indexer = indexer;
+        this.inFacts = new Object[capacity];
+        this.outFacts = new Object[capacity];
+    }
+
+    @Override
+    public Fact getInFact(Node node) {
+        return get(inFacts, node);
+    }
+
+    @Override
+    public void setInFact(Node node, Fact fact) {
+        inFacts[indexer.applyAsInt(node)] = fact;
+    }
+
+    @Override
+    public Fact getOutFact(Node node) {
+        return get(outFacts, node);
+    }
+
+    @Override
+    public void setOutFact(Node node, Fact fact) {
+        outFacts[indexer.applyAsInt(node)] = fact;
+    }
+
+    /**
+     * @return the fact of given node in given array, or null if the node
+     * is out of the range of this result.
+     */
+    @SuppressWarnings("unchecked")
+    private Fact get(Object[] facts, Node node) {
+        int index = indexer.applyAsInt(node);
+        return index >= 0 && index < facts.length ? (Fact) facts[index] : null;
+    }
+}
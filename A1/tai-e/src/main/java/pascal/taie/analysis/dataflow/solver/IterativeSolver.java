@@ -26,10 +26,32 @@ import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Round-robin iterative solver. In each round, the nodes are visited
+ * in postorder (for backward analyses), so that the facts of the nodes
+ * outside loops are propagated in a single round.
+ */
 class IterativeSolver<Node, Fact> extends Solver<Node, Fact> {
 
+    /**
+     * Whether visits the nodes in postorder. If this is false,
+     * the nodes are visited in the order given by {@link CFG#getNodes()},
+     * which is useful for measuring the effect of the node ordering.
+     */
+    private final boolean ordered;
+
     public IterativeSolver(DataflowAnalysis<Node, Fact> analysis) {
+        this(analysis, true);
+    }
+
+    IterativeSolver(DataflowAnalysis<Node, Fact> analysis, boolean ordered) {
         super(analysis);
+        this.ordered = ordered;
     }
 
     @Override
@@ -39,6 +61,45 @@ class IterativeSolver<Node, Fact> extends Solver<Node, Fact> {
 
     @Override
     protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        // TODO - finish me
+        solveBackward(cfg, result, ordered ?
+                NodeOrder.of(cfg, false).getNodes() : cfg.getNodes());
+    }
+
+    /**
+     * Visits only the given nodes in each round, as the facts of
+     * the other nodes are already at the fixed point.
+     */
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                                   Collection<Node> nodes) {
+        Set<Node> affected = nodes instanceof Set<Node> set ? set : Set.copyOf(nodes);
+        List<Node> order = new ArrayList<>(affected.size());
+        for (Node node : ordered ? NodeOrder.of(cfg, false).getNodes() : cfg.getNodes()) {
+            if (affected.contains(node)) {
+                order.add(node);
+            }
+        }
+        solveBackward(cfg, result, order);
+    }
+
+    private void solveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                               Iterable<Node> nodes) {
+        long visits = 0;
+        boolean changed;
+        do {
+            changed = false;
+            for (Node node : nodes) {
+                if (cfg.isExit(node)) {
+                    continue;
+                }
+                Fact out = result.getOutFact(node);
+                for (Node succ : cfg.getSuccsOf(node)) {
+                    analysis.meetInto(result.getInFact(succ), out);
+                }
+                changed |= analysis.transferNode(node, result.getInFact(node), out);
+                ++visits;
+            }
+        } while (changed);
+        recordNodeVisits(visits);
     }
 }
@@ -24,7 +24,17 @@ package pascal.taie.analysis.dataflow.solver;
 
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.IndexedDataflowResult;
+import pascal.taie.analysis.dataflow.fact.MapDataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Base class for data-flow analysis solver, which provides common
@@ -37,6 +47,18 @@ public abstract class Solver<Node, Fact> {
 
     protected final DataflowAnalysis<Node, Fact> analysis;
 
+    /**
+     * Number of CFGs solved by this solver.
+     */
+    private final LongAdder solvedCFGs = new LongAdder();
+
+    /**
+     * Number of node visits, i.e., applications of the node transfer
+     * function, performed by this solver. Together with {@link #solvedCFGs},
+     * this measures how well the solver schedules the nodes.
+     */
+    private final LongAdder nodeVisits = new LongAdder();
+
     protected Solver(DataflowAnalysis<Node, Fact> analysis) {
         this.analysis = analysis;
     }
@@ -58,16 +80,134 @@ public abstract class Solver<Node, Fact> {
     public DataflowResult<Node, Fact> solve(CFG<Node> cfg) {
         DataflowResult<Node, Fact> result = initialize(cfg);
         doSolve(cfg, result);
+        solvedCFGs.increment();
         return result;
     }
 
+    /**
+     * Re-solves the given CFG after it has been edited, starting from
+     * the result of solving the CFG before the edits.
+     * <p>
+     * The facts of the nodes which are not affected by the edits, i.e.,
+     * the nodes that cannot be reached from (for forward analyses) or
+     * cannot reach (for backward analyses) any changed node, are reused
+     * from the previous result. The other nodes are reset to their initial
+     * facts and re-solved, thus the result is the same as solving the CFG
+     * from scratch, while the cost is proportional to the affected part
+     * of the CFG rather than the whole CFG.
+     *
+     * @param cfg          the CFG after the edits
+     * @param previous     the result of solving the CFG before the edits.
+     *                     The facts of the unaffected nodes are shared by
+     *                     the previous and the returned results.
+     * @param changedNodes the nodes which are added or modified by the edits,
+     *                     including the nodes whose incoming or outgoing
+     *                     edges are changed. Note that if the statements
+     *                     are re-indexed by the edits, the re-indexed
+     *                     statements are also regarded as changed, as
+     *                     their facts are stored by their indexes.
+     * @return the analysis result
+     */
+    public DataflowResult<Node, Fact> solve(CFG<Node> cfg,
+                                            DataflowResult<Node, Fact> previous,
+                                            Collection<Node> changedNodes) {
+        DataflowResult<Node, Fact> result = newResult(cfg);
+        Set<Node> affected = getAffectedNodes(cfg, previous, changedNodes);
+        for (Node node : cfg) {
+            if (affected.contains(node)) {
+                initializeNode(cfg, result, node);
+            } else {
+                result.setInFact(node, previous.getInFact(node));
+                result.setOutFact(node, previous.getOutFact(node));
+            }
+        }
+        if (analysis.isForward()) {
+            doSolveForward(cfg, result, affected);
+        } else {
+            doSolveBackward(cfg, result, affected);
+        }
+        solvedCFGs.increment();
+        return result;
+    }
+
+    /**
+     * @return the nodes whose facts may be changed by the edits, i.e.,
+     * the changed nodes, the nodes absent in the previous result,
+     * and the nodes which the changes propagate to.
+     */
+    private Set<Node> getAffectedNodes(CFG<Node> cfg,
+                                       DataflowResult<Node, Fact> previous,
+                                       Collection<Node> changedNodes) {
+        Set<Node> affected = Sets.newSet();
+        Deque<Node> workList = new ArrayDeque<>();
+        for (Node node : changedNodes) {
+            if (cfg.hasNode(node) && affected.add(node)) {
+                workList.add(node);
+            }
+        }
+        for (Node node : cfg) {
+            if ((previous.getInFact(node) == null ||
+                    previous.getOutFact(node) == null) && affected.add(node)) {
+                workList.add(node);
+            }
+        }
+        boolean forward = analysis.isForward();
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            for (Node next : forward ? cfg.getSuccsOf(node) : cfg.getPredsOf(node)) {
+                if (affected.add(next)) {
+                    workList.add(next);
+                }
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * Resets the facts of given node to the initial ones.
+     */
+    private void initializeNode(CFG<Node> cfg, DataflowResult<Node, Fact> result, Node node) {
+        if (analysis.isForward() && cfg.isEntry(node)) {
+            result.setInFact(node, analysis.newInitialFact(cfg));
+            result.setOutFact(node, analysis.newBoundaryFact(cfg));
+        } else if (!analysis.isForward() && cfg.isExit(node)) {
+            result.setInFact(node, analysis.newBoundaryFact(cfg));
+            result.setOutFact(node, analysis.newInitialFact(cfg));
+        } else {
+            result.setInFact(node, analysis.newInitialFact(cfg));
+            result.setOutFact(node, analysis.newInitialFact(cfg));
+        }
+    }
+
+    /**
+     * @return the number of CFGs solved by this solver.
+     */
+    public long getSolvedCFGs() {
+        return solvedCFGs.sum();
+    }
+
+    /**
+     * @return the number of node visits (i.e., applications of the node
+     * transfer function) performed by this solver.
+     */
+    public long getNodeVisits() {
+        return nodeVisits.sum();
+    }
+
+    /**
+     * Records the node visits performed when solving a CFG.
+     */
+    protected void recordNodeVisits(long visits) {
+        nodeVisits.add(visits);
+    }
+
     /**
      * Creates and initializes a new data-flow result for given CFG.
      *
      * @return the initialized data-flow result
      */
     private DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
-        DataflowResult<Node, Fact> result = new DataflowResult<>();
+        DataflowResult<Node, Fact> result = newResult(cfg);
         if (analysis.isForward()) {
             initializeForward(cfg, result);
         } else {
@@ -76,12 +216,34 @@ public abstract class Solver<Node, Fact> {
         return result;
     }
 
+    /**
+     * @return a new empty data-flow result for given CFG. If the nodes
+     * are statements, the result stores the facts in arrays indexed by
+     * the statements, so that the solver does not need to hash the nodes.
+     */
+    private DataflowResult<Node, Fact> newResult(CFG<Node> cfg) {
+        if (cfg.getEntry() instanceof Stmt) {
+            return new IndexedDataflowResult<>(cfg.getNumberOfNodes(),
+                    node -> ((Stmt) node).getIndex());
+        } else {
+            return new MapDataflowResult<>();
+        }
+    }
+
     protected void initializeForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
         throw new UnsupportedOperationException();
     }
 
     protected void initializeBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        // TODO - finish me
+        Node exit = cfg.getExit();
+        result.setInFact(exit, analysis.newBoundaryFact(cfg));
+        result.setOutFact(exit, analysis.newInitialFact(cfg));
+        for (Node node : cfg) {
+            if (!cfg.isExit(node)) {
+                result.setInFact(node, analysis.newInitialFact(cfg));
+                result.setOutFact(node, analysis.newInitialFact(cfg));
+            }
+        }
     }
 
     /**
@@ -98,4 +260,24 @@ public abstract class Solver<Node, Fact> {
     protected abstract void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result);
 
     protected abstract void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result);
+
+    /**
+     * Solves the forward data-flow problem for given CFG, where only the facts
+     * of given nodes may not be at the fixed point. By default, this method
+     * ignores the given nodes and processes the whole CFG; the solvers which
+     * can start from a subset of the nodes should override this method.
+     */
+    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                                  Collection<Node> nodes) {
+        doSolveForward(cfg, result);
+    }
+
+    /**
+     * Backward counterpart of
+     * {@link #doSolveForward(CFG, DataflowResult, Collection)}.
+     */
+    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                                   Collection<Node> nodes) {
+        doSolveBackward(cfg, result);
+    }
 }
@@ -0,0 +1,81 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.ir;
+
+import pascal.taie.World;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Timer;
+
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Builds the IR of many methods in parallel before the analyses start,
+ * so that the analyses do not need to build IR on demand.
+ * <p>
+ * The IR is built via {@link JMethod#getIR()}, which ensures that each IR
+ * is built only once, thus it is safe to run this builder while other
+ * threads are accessing the IR of the same methods.
+ */
+public final class ParallelIRBuilder {
+
+    private ParallelIRBuilder() {
+    }
+
+    /**
+     * Builds IR for all non-abstract methods in the current world.
+     */
+    public static void buildAll() {
+        build(World.get().getClassHierarchy()
+                .allClasses()
+                .map(JClass::getDeclaredMethods)
+                .flatMap(Collection::stream)
+                .toList());
+    }
+
+    /**
+     * Builds IR for given methods with as many threads as available processors.
+     */
+    public static void build(Collection<JMethod> methods) {
+        build(methods, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Builds IR for given methods with given number of threads.
+     * Abstract methods (which have no IR) are skipped.
+     */
+    public static void build(Collection<JMethod> methods, int parallelism) {
+        Timer.runAndCount(() -> {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.submit(() -> methods.parallelStream()
+                        .filter(m -> !m.isAbstract())
+                        .forEach(JMethod::getIR))
+                        .join();
+            } finally {
+                pool.shutdown();
+            }
+        }, "Build IR for " + methods.size() + " methods");
+    }
+}
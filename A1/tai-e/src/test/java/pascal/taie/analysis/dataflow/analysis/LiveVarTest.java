@@ -32,6 +32,11 @@ public class LiveVarTest {
                 LiveVariableAnalysis.ID, "strongly:false");
     }
 
+    void testBitSetLV(String inputClass) {
+        Tests.test(inputClass, "src/test/resources/dataflow/livevar",
+                LiveVariableAnalysis.ID, "strongly:false;bitset:true");
+    }
+
     @Test
     public void testAssign() {
         testLV("Assign");
@@ -61,4 +66,11 @@ public class LiveVarTest {
     public void Reference() {
         testLV("Reference");
     }
+
+    @Test
+    public void testBitSet() {
+        testBitSetLV("BranchLoop");
+        testBitSetLV("Fibonacci");
+        testBitSetLV("Reference");
+    }
 }
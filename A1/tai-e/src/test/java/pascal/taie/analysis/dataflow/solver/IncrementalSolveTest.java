@@ -0,0 +1,109 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.MapDataflowResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JClass;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public class IncrementalSolveTest {
+
+    /**
+     * Re-solves live variable analysis for the methods of given class
+     * from previous results, and checks that the incremental solving
+     * gives the same results as solving from scratch, and visits only
+     * the nodes affected by the changes.
+     */
+    void testIncremental(String inputClass) {
+        Tests.test(inputClass, "src/test/resources/dataflow/livevar",
+                LiveVariableAnalysis.ID, "strongly:false");
+        LiveVariableAnalysis analysis = new LiveVariableAnalysis(
+                new AnalysisConfig(LiveVariableAnalysis.ID));
+        Solver<Stmt, SetFact<Var>> solver = Solver.makeSolver(analysis);
+        long[] sumVisits = new long[2]; // [full solving, incremental solving]
+        World.get().getClassHierarchy()
+                .applicationClasses()
+                .map(JClass::getDeclaredMethods)
+                .flatMap(Collection::stream)
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .forEach(m -> {
+                    CFG<Stmt> cfg = m.getIR().getResult(CFGBuilder.ID);
+                    DataflowResult<Stmt, SetFact<Var>> expected = solver.solve(cfg);
+                    List<Stmt> stmts = m.getIR().getStmts();
+                    // previous result is up-to-date except the changed nodes
+                    assertSameResult(cfg, expected, solver.solve(cfg,
+                            solver.solve(cfg), Set.of(stmts.get(stmts.size() - 1))));
+                    // previous result contains nothing
+                    assertSameResult(cfg, expected, solver.solve(cfg,
+                            new MapDataflowResult<>(), Set.of()));
+                    // nothing is changed, thus no nodes are visited
+                    long visits = solver.getNodeVisits();
+                    assertSameResult(cfg, expected,
+                            solver.solve(cfg, expected, Set.of()));
+                    Assert.assertEquals(visits, solver.getNodeVisits());
+                    // only the first statement and the nodes reaching it
+                    // are re-solved, which is cheaper than full solving
+                    solver.solve(cfg);
+                    long fullVisits = solver.getNodeVisits() - visits;
+                    assertSameResult(cfg, expected, solver.solve(cfg,
+                            solver.solve(cfg), Set.of(stmts.get(0))));
+                    sumVisits[0] += fullVisits;
+                    sumVisits[1] += solver.getNodeVisits() - visits - 2 * fullVisits;
+                });
+        Assert.assertTrue(sumVisits[1] < sumVisits[0]);
+    }
+
+    private static void assertSameResult(CFG<Stmt> cfg,
+                                         DataflowResult<Stmt, SetFact<Var>> expected,
+                                         DataflowResult<Stmt, SetFact<Var>> given) {
+        for (Stmt stmt : cfg) {
+            Assert.assertEquals(expected.getInFact(stmt), given.getInFact(stmt));
+            Assert.assertEquals(expected.getOutFact(stmt), given.getOutFact(stmt));
+        }
+    }
+
+    @Test
+    public void testBranchLoop() {
+        testIncremental("BranchLoop");
+    }
+
+    @Test
+    public void testFibonacci() {
+        testIncremental("Fibonacci");
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JClass;
+
+import java.util.Collection;
+
+public class NodeOrderTest {
+
+    /**
+     * Solves live variable analysis for the methods of given class with
+     * and without node ordering, and checks that the ordering gives the
+     * same results with no more node visits.
+     */
+    void testOrder(String inputClass) {
+        Tests.test(inputClass, "src/test/resources/dataflow/livevar",
+                LiveVariableAnalysis.ID, "strongly:false");
+        LiveVariableAnalysis analysis = new LiveVariableAnalysis(
+                new AnalysisConfig(LiveVariableAnalysis.ID));
+        Solver<Stmt, SetFact<Var>> ordered = new IterativeSolver<>(analysis, true);
+        Solver<Stmt, SetFact<Var>> unordered = new IterativeSolver<>(analysis, false);
+        World.get().getClassHierarchy()
+                .applicationClasses()
+                .map(JClass::getDeclaredMethods)
+                .flatMap(Collection::stream)
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .forEach(m -> {
+                    CFG<Stmt> cfg = m.getIR().getResult(CFGBuilder.ID);
+                    DataflowResult<Stmt, SetFact<Var>> r1 = ordered.solve(cfg);
+                    DataflowResult<Stmt, SetFact<Var>> r2 = unordered.solve(cfg);
+                    for (Stmt stmt : cfg) {
+                        Assert.assertEquals(r2.getInFact(stmt), r1.getInFact(stmt));
+                        Assert.assertEquals(r2.getOutFact(stmt), r1.getOutFact(stmt));
+                    }
+                });
+        Assert.assertEquals(unordered.getSolvedCFGs(), ordered.getSolvedCFGs());
+        Assert.assertTrue("ordered: " + ordered.getNodeVisits() +
+                        ", unordered: " + unordered.getNodeVisits(),
+                ordered.getNodeVisits() <= unordered.getNodeVisits());
+    }
+
+    @Test
+    public void testBranchLoop() {
+        testOrder("BranchLoop");
+    }
+
+    @Test
+    public void testFibonacci() {
+        testOrder("Fibonacci");
+    }
+}
@@ -31,6 +31,8 @@ import pascal.taie.analysis.graph.cfg.Edge;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
 
+import java.util.Collection;
+
 public abstract class AbstractDataflowAnalysis<Node, Fact>
         extends MethodAnalysis
         implements DataflowAnalysis<Node, Fact> {
@@ -48,6 +50,18 @@ public abstract class AbstractDataflowAnalysis<Node, Fact>
         return solver.solve(cfg);
     }
 
+    /**
+     * Re-analyzes the given IR after it has been edited, starting from
+     * the result of analyzing the IR before the edits.
+     *
+     * @see Solver#solve(CFG, DataflowResult, Collection)
+     */
+    public DataflowResult<Node, Fact> reanalyze(
+            IR ir, DataflowResult<Node, Fact> previous, Collection<Node> changedNodes) {
+        CFG<Node> cfg = ir.getResult(CFGBuilder.ID);
+        return solver.solve(cfg, previous, changedNodes);
+    }
+
     /**
      * By default, a data-flow analysis does not have edge transfer, i.e.,
      * does not need to perform transfer for any edges.
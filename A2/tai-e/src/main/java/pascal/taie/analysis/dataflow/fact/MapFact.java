@@ -22,8 +22,6 @@
 
 package pascal.taie.analysis.dataflow.fact;
 
-import pascal.taie.util.collection.Maps;
-
 import java.util.Comparator;
 import java.util.Map;
 import java.util.Objects;
@@ -34,6 +32,12 @@ import java.util.stream.Stream;
 
 /**
  * Represents map-like data-flow facts.
+ * <p>
+ * The mappings are stored in a {@link PersistentMap}, so that the facts
+ * copied from each other share the unchanged parts of their mappings.
+ * Thus, {@link #copy()} takes constant time, and the memory retained by
+ * the facts of a method grows with the number of the changes made by
+ * the analysis rather than the number of nodes times the number of keys.
  *
  * @param <K> type of keys
  * @param <V> type of values
@@ -51,7 +55,8 @@ public class MapFact<K, V> {
      * @param map the map whose mappings are to be placed in this map.
      */
     public MapFact(Map<K, V> map) {
-        this.map = Maps.newHybridMap(map);
+        this.map = map instanceof PersistentMap<K, V> persistentMap ?
+                persistentMap.copy() : new PersistentMap<>(map);
     }
 
     /**
@@ -87,11 +92,20 @@ public class MapFact<K, V> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean copyFrom(MapFact<K, V> fact) {
-        boolean changed = false;
-        for (Map.Entry<K, V> entry : fact.map.entrySet()) {
-            changed |= update(entry.getKey(), entry.getValue());
+        if (getClass() == fact.getClass() &&
+                map instanceof PersistentMap<K, V> mine &&
+                fact.map instanceof PersistentMap<K, V> theirs) {
+            // skips the mappings shared by the two facts
+            boolean[] changed = {false};
+            mine.forEachDifference(theirs,
+                    (key, value) -> changed[0] |= update(key, value));
+            return changed[0];
         }
-        return changed;
+        // the subclasses may not store their mappings in map,
+        // thus we access the mappings of the given fact via forEach()
+        boolean[] changed = {false};
+        fact.forEach((key, value) -> changed[0] |= update(key, value));
+        return changed[0];
     }
 
     /**
@@ -154,8 +168,7 @@ public class MapFact<K, V> {
         // Sort key-value pairs by key's string representation, so that the
         // fact representation is stable across executions. This is useful
         // for comparing expected results and the ones given by the analysis.
-        return "{" + map.entrySet()
-                .stream()
+        return "{" + entries()
                 .sorted(Comparator.comparing(e -> e.getKey().toString()))
                 .map(e -> e.getKey() + "=" + e.getValue())
                 .collect(Collectors.joining(", ")) + "}";
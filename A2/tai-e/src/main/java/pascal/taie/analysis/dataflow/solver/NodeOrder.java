@@ -0,0 +1,164 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Processing order of the nodes of a CFG for data-flow solvers.
+ * <p>
+ * The order is based on the depth-first postorder of the CFG, i.e.,
+ * except for back edges, every node is placed after all its successors.
+ * Forward analyses process the nodes in reverse postorder, and backward
+ * analyses process the nodes in postorder, so that a node is (mostly)
+ * processed after the nodes whose facts flow into it, which reduces
+ * re-evaluations of the nodes in loops.
+ *
+ * @param <Node> type of CFG nodes
+ */
+class NodeOrder<Node> {
+
+    /**
+     * The nodes sorted by processing order.
+     */
+    private final List<Node> nodes;
+
+    /**
+     * Map from each node to its position in {@link #nodes}.
+     */
+    private final Map<Node, Integer> positions;
+
+    private NodeOrder(List<Node> nodes) {
+        this.nodes = nodes;
+        this.positions = Maps.newMap(nodes.size());
+        for (int i = 0; i < nodes.size(); ++i) {
+            positions.put(nodes.get(i), i);
+        }
+    }
+
+    /**
+     * Computes the processing order of the nodes in given CFG.
+     *
+     * @param forward true for forward analyses, which uses reverse postorder;
+     *                false for backward analyses, which uses postorder.
+     */
+    static <Node> NodeOrder<Node> of(CFG<Node> cfg, boolean forward) {
+        List<Node> order = computePostOrder(cfg);
+        if (forward) {
+            Collections.reverse(order);
+        }
+        return new NodeOrder<>(order);
+    }
+
+    /**
+     * @return the order in which the nodes are returned by
+     * {@link CFG#getNodes()}, which is useful for measuring the effect
+     * of the node ordering.
+     */
+    static <Node> NodeOrder<Node> unordered(CFG<Node> cfg) {
+        return new NodeOrder<>(new ArrayList<>(cfg.getNodes()));
+    }
+
+    /**
+     * @return the position of given node in this order.
+     */
+    int getPosition(Node node) {
+        return positions.get(node);
+    }
+
+    /**
+     * @return the node at given position in this order.
+     */
+    Node getNode(int position) {
+        return nodes.get(position);
+    }
+
+    /**
+     * @return all nodes sorted by this order.
+     */
+    List<Node> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the number of nodes in this order.
+     */
+    int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Computes depth-first postorder of the nodes in given CFG.
+     * The depth-first traversal starts from the entry, and then from
+     * the nodes unreachable from the entry (if any), so that the result
+     * covers all nodes of the CFG.
+     */
+    private static <Node> List<Node> computePostOrder(CFG<Node> cfg) {
+        List<Node> postOrder = new ArrayList<>(cfg.getNumberOfNodes());
+        Set<Node> visited = Sets.newSet(cfg.getNumberOfNodes());
+        dfs(cfg, cfg.getEntry(), visited, postOrder);
+        for (Node node : cfg) {
+            if (!visited.contains(node)) {
+                dfs(cfg, node, visited, postOrder);
+            }
+        }
+        return postOrder;
+    }
+
+    /**
+     * Iterative depth-first traversal, which avoids stack overflow
+     * on large methods.
+     */
+    private static <Node> void dfs(CFG<Node> cfg, Node root,
+                                   Set<Node> visited, List<Node> postOrder) {
+        Deque<Node> stack = new ArrayDeque<>();
+        Deque<Iterator<Node>> succStack = new ArrayDeque<>();
+        visited.add(root);
+        stack.push(root);
+        succStack.push(cfg.getSuccsOf(root).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<Node> succs = succStack.peek();
+            if (succs.hasNext()) {
+                Node succ = succs.next();
+                if (visited.add(succ)) {
+                    stack.push(succ);
+                    succStack.push(cfg.getSuccsOf(succ).iterator());
+                }
+            } else {
+                postOrder.add(stack.pop());
+                succStack.pop();
+            }
+        }
+    }
+}
@@ -22,8 +22,16 @@
 
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
+import org.junit.Assert;
 import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
 
 public class CPTest {
 
@@ -32,6 +40,22 @@ public class CPTest {
                 ConstantPropagation.ID, "edge-refine:false");
     }
 
+    /**
+     * The sparse solver should give the same results as the dense one.
+     */
+    void testSparseCP(String inputClass) {
+        Tests.test(inputClass, "src/test/resources/dataflow/constprop/",
+                ConstantPropagation.ID, "edge-refine:false;sparse:true");
+    }
+
+    /**
+     * The packed facts should give the same results as the map-based ones.
+     */
+    void testPackedCP(String inputClass) {
+        Tests.test(inputClass, "src/test/resources/dataflow/constprop/",
+                ConstantPropagation.ID, "edge-refine:false;packed:true");
+    }
+
     @Test
     public void testAssign() {
         testCP("Assign");
@@ -66,4 +90,52 @@ public class CPTest {
     public void testInterprocedural() {
         testCP("Interprocedural");
     }
+
+    @Test
+    public void testSparse() {
+        testSparseCP("SimpleBinary");
+        testSparseCP("SimpleBranch");
+        testSparseCP("BranchConstant");
+    }
+
+    /**
+     * The sparse solver does not propagate the values defined in
+     * the branches which are not executable due to constant conditions,
+     * thus it is more precise than the dense solver on these methods.
+     */
+    @Test
+    public void testSparseConditional() {
+        Main.main(new String[]{"-pp", "-cp", "src/test/resources/dataflow/constprop/",
+                "-m", "ConstantCondition",
+                "-a", ConstantPropagation.ID + "=edge-refine:false;sparse:true"});
+        ConstantPropagation dense = new ConstantPropagation(
+                new AnalysisConfig(ConstantPropagation.ID));
+        testSparseConditional("constantIf", 1, dense);
+        testSparseConditional("constantSwitch", 20, dense);
+    }
+
+    private static void testSparseConditional(
+            String methodName, int expected, ConstantPropagation dense) {
+        IR ir = World.get().getClassHierarchy()
+                .getClass("ConstantCondition")
+                .getDeclaredMethod(methodName)
+                .getIR();
+        DataflowResult<Stmt, CPFact> sparseResult = ir.getResult(ConstantPropagation.ID);
+        DataflowResult<Stmt, CPFact> denseResult = dense.analyze(ir);
+        Return ret = (Return) ir.stmts()
+                .filter(s -> s instanceof Return)
+                .findFirst()
+                .orElseThrow();
+        Assert.assertEquals(Value.makeConstant(expected),
+                sparseResult.getInFact(ret).get(ret.getValue()));
+        Assert.assertEquals(Value.getNAC(),
+                denseResult.getInFact(ret).get(ret.getValue()));
+    }
+
+    @Test
+    public void testPacked() {
+        testPackedCP("SimpleBinary");
+        testPackedCP("SimpleBranch");
+        testPackedCP("BranchConstant");
+    }
 }
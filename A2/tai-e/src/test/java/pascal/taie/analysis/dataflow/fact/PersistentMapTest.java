@@ -0,0 +1,194 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class PersistentMapTest {
+
+    /**
+     * Key whose hash code is given explicitly, to make hash collisions.
+     */
+    private record Key(String name, int hash) {
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    @Test
+    public void testPutRemoveOverwrite() {
+        PersistentMap<String, Integer> map = new PersistentMap<>();
+        Assert.assertNull(map.put("a", 1));
+        Assert.assertNull(map.put("b", 2));
+        Assert.assertEquals(2, map.size());
+        Assert.assertEquals(1, (int) map.get("a"));
+        // overwrite
+        Assert.assertEquals(1, (int) map.put("a", 3));
+        Assert.assertEquals(2, map.size());
+        Assert.assertEquals(3, (int) map.get("a"));
+        // remove
+        Assert.assertEquals(3, (int) map.remove("a"));
+        Assert.assertNull(map.remove("a"));
+        Assert.assertFalse(map.containsKey("a"));
+        Assert.assertEquals(1, map.size());
+        Assert.assertEquals(2, (int) map.remove("b"));
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.get("b"));
+    }
+
+    /**
+     * Applies random updates to a persistent map and a hash map,
+     * and checks that they always have the same contents.
+     */
+    @Test
+    public void testRandomUpdates() {
+        Random random = new Random(0);
+        PersistentMap<Integer, Integer> map = new PersistentMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100000; ++i) {
+            // large keys spread over all levels of the trie
+            int key = random.nextInt(2000) * 0x9E3779B9;
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                Assert.assertEquals(expected.put(key, i), map.put(key, i));
+            }
+            Assert.assertEquals(expected.size(), map.size());
+        }
+        Assert.assertEquals(expected, map);
+    }
+
+    @Test
+    public void testHashCollisions() {
+        PersistentMap<Key, Integer> map = new PersistentMap<>();
+        Map<Key, Integer> expected = new HashMap<>();
+        // keys in two groups, whose hash codes are the same in each group,
+        // and share the bits of the first levels of the trie
+        for (int i = 0; i < 10; ++i) {
+            for (int hash : new int[]{ 7, 7 | (1 << 30) }) {
+                Key key = new Key("k" + i, hash);
+                Assert.assertNull(map.put(key, i));
+                expected.put(key, i);
+            }
+        }
+        Assert.assertEquals(expected, map);
+        Key k3 = new Key("k3", 7);
+        Assert.assertEquals(3, (int) map.put(k3, 33));
+        Assert.assertEquals(33, (int) map.get(k3));
+        Assert.assertNull(map.get(new Key("k10", 7)));
+        for (int i = 0; i < 10; ++i) {
+            Assert.assertNotNull(map.remove(new Key("k" + i, 7)));
+            Assert.assertNull(map.get(new Key("k" + i, 7)));
+            Assert.assertEquals(i < 9 ? 19 - i : 10, map.size());
+            Assert.assertEquals(i, (int) map.get(new Key("k" + i, 7 | (1 << 30))));
+        }
+        Assert.assertEquals(10, map.size());
+    }
+
+    /**
+     * Updates on a copy do not affect the original map, and vice versa.
+     */
+    @Test
+    public void testStructuralSharing() {
+        PersistentMap<Integer, Integer> map = new PersistentMap<>();
+        for (int i = 0; i < 1000; ++i) {
+            map.put(i, i);
+        }
+        Map<Integer, Integer> snapshot = new HashMap<>(map);
+        PersistentMap<Integer, Integer> copy = map.copy();
+        Assert.assertEquals(map, copy);
+        for (int i = 0; i < 1000; i += 3) {
+            copy.put(i, -i);
+            copy.remove(i + 1);
+        }
+        copy.put(1000, 1000);
+        Assert.assertEquals(snapshot, map);
+        Map<Integer, Integer> copySnapshot = new HashMap<>(copy);
+        map.put(0, 42);
+        map.remove(2);
+        Assert.assertEquals(copySnapshot, copy);
+        Assert.assertEquals(42, (int) map.get(0));
+        Assert.assertEquals(0, (int) copy.get(0));
+        // a copy of a copy
+        PersistentMap<Integer, Integer> copy2 = copy.copy();
+        copy2.clear();
+        Assert.assertEquals(copySnapshot, copy);
+    }
+
+    /**
+     * {@link PersistentMap#forEachDifference} reports all entries of the
+     * other map which are absent in (or differ from) this map, and skips
+     * the subtries shared by the two maps.
+     */
+    @Test
+    public void testForEachDifference() {
+        PersistentMap<Integer, Integer> base = new PersistentMap<>();
+        for (int i = 0; i < 1000; ++i) {
+            base.put(i, i);
+        }
+        PersistentMap<Integer, Integer> mine = base.copy();
+        PersistentMap<Integer, Integer> theirs = base.copy();
+        mine.put(1, -1);
+        theirs.put(2, -2);
+        theirs.put(2000, 2000);
+        Map<Integer, Integer> diff = new HashMap<>();
+        mine.forEachDifference(theirs, diff::put);
+        Assert.assertEquals(-2, (int) diff.get(2));
+        Assert.assertEquals(2000, (int) diff.get(2000));
+        Assert.assertTrue(diff.size() < base.size());
+        // every entry of theirs missing in mine is reported
+        theirs.forEach((k, v) -> {
+            if (!v.equals(mine.get(k))) {
+                Assert.assertTrue(diff.containsKey(k));
+            }
+        });
+    }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        PersistentMap<Object, Integer> map = new PersistentMap<>();
+        Map<Object, Integer> hashMap = new HashMap<>();
+        for (int i = 0; i < 500; ++i) {
+            Object key = i % 2 == 0 ? "s" + i : new Key("k" + i, i % 16);
+            map.put(key, i);
+            hashMap.put(key, i);
+        }
+        Assert.assertEquals(hashMap, map);
+        Assert.assertEquals(map, hashMap);
+        Assert.assertEquals(hashMap.hashCode(), map.hashCode());
+        Assert.assertEquals(map, new PersistentMap<>(hashMap));
+        Assert.assertEquals(hashMap.hashCode(), new PersistentMap<>(hashMap).hashCode());
+        map.put("s0", -1);
+        Assert.assertNotEquals(hashMap, map);
+        Assert.assertNotEquals(map, hashMap);
+        map.put("s0", 0);
+        Assert.assertEquals(hashMap, map);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.ir;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class ParallelIRBuilderTest {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/constprop";
+
+    /**
+     * Builds the IR of the application methods by multiple threads twice,
+     * and checks that each IR is built only once, i.e., the second build
+     * and the later calls to {@link JMethod#getIR()} return the same IR.
+     */
+    @Test
+    public void testBuildOnce() {
+        Main.main(new String[]{"-pp", "-cp", CLASS_PATH, "-m", "Assign"});
+        List<JMethod> methods = World.get().getClassHierarchy()
+                .applicationClasses()
+                .map(JClass::getDeclaredMethods)
+                .flatMap(Collection::stream)
+                .filter(m -> !m.isAbstract())
+                .toList();
+        Assert.assertFalse(methods.isEmpty());
+        ParallelIRBuilder.build(methods, 4);
+        Map<JMethod, IR> irs = Maps.newMap();
+        methods.forEach(m -> irs.put(m, m.getIR()));
+        ParallelIRBuilder.build(methods, 4);
+        methods.forEach(m -> Assert.assertSame(irs.get(m), m.getIR()));
+    }
+}
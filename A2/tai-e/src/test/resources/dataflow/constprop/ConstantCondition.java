@@ -0,0 +1,29 @@
+class ConstantCondition {
+
+    int constantIf() {
+        int x = 1;
+        int y;
+        if (x > 0) {
+            y = 1;
+        } else {
+            y = 2;
+        }
+        return y;
+    }
+
+    int constantSwitch() {
+        int x = 2;
+        int y;
+        switch (x) {
+            case 1:
+                y = 10;
+                break;
+            case 2:
+                y = 20;
+                break;
+            default:
+                y = 30;
+        }
+        return y;
+    }
+}
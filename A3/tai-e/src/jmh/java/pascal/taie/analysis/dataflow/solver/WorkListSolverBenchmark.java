@@ -0,0 +1,104 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.MethodAnalysis;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Measures the throughput of {@link WorkListSolver} on live variable
+ * analysis and constant propagation (with their fact representations).
+ * Each operation analyzes all application methods of the given program,
+ * whose CFGs are built in advance.
+ */
+@State(Scope.Benchmark)
+public class WorkListSolverBenchmark {
+
+    @Param({"src/test/resources/dataflow/deadcode"})
+    public String classPath;
+
+    @Param({"ControlFlowUnreachable", "DeadAssignment", "Loops",
+            "UnreachableIfBranch", "UnreachableSwitchBranch", "Synthetic"})
+    public String program;
+
+    @Param({"livevar", "livevar-bitset",
+            "constprop", "constprop-packed", "constprop-sparse"})
+    public String analysis;
+
+    private List<IR> irs;
+
+    private MethodAnalysis methodAnalysis;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String cp = program.equals("Synthetic") ? "../../benchmarks" : classPath;
+        Main.main(new String[]{
+                "-pp", "-cp", cp, "-m", program, "-a", CFGBuilder.ID});
+        irs = World.get().getClassHierarchy()
+                .applicationClasses()
+                .map(JClass::getDeclaredMethods)
+                .flatMap(Collection::stream)
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .map(JMethod::getIR)
+                .toList();
+        methodAnalysis = switch (analysis) {
+            case "livevar" -> new LiveVariableAnalysis(new AnalysisConfig(
+                    LiveVariableAnalysis.ID, "strongly", false));
+            case "livevar-bitset" -> new LiveVariableAnalysis(new AnalysisConfig(
+                    LiveVariableAnalysis.ID, "strongly", false, "bitset", true));
+            case "constprop" -> new ConstantPropagation(new AnalysisConfig(
+                    ConstantPropagation.ID));
+            case "constprop-packed" -> new ConstantPropagation(new AnalysisConfig(
+                    ConstantPropagation.ID, "packed", true));
+            case "constprop-sparse" -> new ConstantPropagation(new AnalysisConfig(
+                    ConstantPropagation.ID, "sparse", true));
+            default -> throw new IllegalArgumentException(
+                    "Unknown analysis: " + analysis);
+        };
+    }
+
+    @Benchmark
+    public void analyze(Blackhole bh) {
+        for (IR ir : irs) {
+            bh.consume(methodAnalysis.analyze(ir));
+        }
+    }
+}
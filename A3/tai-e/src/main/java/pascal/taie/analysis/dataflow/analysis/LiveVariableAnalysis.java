@@ -22,6 +22,7 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import pascal.taie.analysis.dataflow.fact.BitSetFact;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.config.AnalysisConfig;
@@ -30,14 +31,24 @@ import pascal.taie.ir.stmt.Stmt;
 
 /**
  * Implementation of classic live variable analysis.
+ * <p>
+ * If option {@code bitset} is enabled, the analysis represents the facts
+ * by {@link BitSetFact}s keyed by {@link Var#getIndex()}, so that meet and
+ * transfer are performed on bit vectors instead of hash sets.
  */
 public class LiveVariableAnalysis extends
         AbstractDataflowAnalysis<Stmt, SetFact<Var>> {
 
     public static final String ID = "livevar";
 
+    /**
+     * Whether represents the facts by {@link BitSetFact}.
+     */
+    private final boolean bitSet;
+
     public LiveVariableAnalysis(AnalysisConfig config) {
         super(config);
+        bitSet = getOptions().getBooleanOrDefault("bitset", false);
     }
 
     @Override
@@ -47,24 +58,41 @@ public class LiveVariableAnalysis extends
 
     @Override
     public SetFact<Var> newBoundaryFact(CFG<Stmt> cfg) {
-        // TODO - finish me
-        return null;
+        return newInitialFact(cfg);
     }
 
     @Override
     public SetFact<Var> newInitialFact() {
-        // TODO - finish me
-        return null;
+        return new SetFact<>();
+    }
+
+    @Override
+    public SetFact<Var> newInitialFact(CFG<Stmt> cfg) {
+        return bitSet ? new BitSetFact<>(cfg.getIR()::getVar) : newInitialFact();
     }
 
     @Override
     public void meetInto(SetFact<Var> fact, SetFact<Var> target) {
-        // TODO - finish me
+        target.union(fact);
     }
 
     @Override
     public boolean transferNode(Stmt stmt, SetFact<Var> in, SetFact<Var> out) {
-        // TODO - finish me
+        SetFact<Var> newIn = out.copy();
+        stmt.getDef().ifPresent(def -> {
+            if (def instanceof Var) {
+                newIn.remove((Var) def);
+            }
+        });
+        stmt.getUses().forEach(use -> {
+            if (use instanceof Var) {
+                newIn.add((Var) use);
+            }
+        });
+        if (!in.equals(newIn)) {
+            in.set(newIn);
+            return true;
+        }
         return false;
     }
 }
@@ -0,0 +1,436 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.IndexedDataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.SwitchStmt;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse conditional solver for {@link ConstantPropagation}.
+ * <p>
+ * Instead of copying a whole {@link CPFact} at every node in each iteration,
+ * this solver connects the definitions of the variables to their uses
+ * (def-use chains, given by reaching definitions computed with bit vectors),
+ * and propagates the {@link Value} of each definition only to the
+ * statements which use it. At the same time, the solver tracks the
+ * executable edges of the CFG: the branches of an {@link If} or
+ * a {@link SwitchStmt} whose condition is a constant are not executable,
+ * and definitions only reach the nodes along the executable edges.
+ * After reaching the fixed point, the solver builds the IN/OUT facts of
+ * every statement once, and the statements which do not change the facts
+ * share the {@link CPFact} objects, so that the result can be consumed
+ * as the one given by the dense solver.
+ * <p>
+ * If no branch condition is a constant, the result of this solver is
+ * the same as the one of the dense solver, as the value of a variable at
+ * a statement is the meet of the values of all definitions of the variable
+ * reaching the statement. Otherwise, the result is more precise: the facts
+ * of the unreachable nodes are the initial facts, and the definitions in
+ * the unreachable branches do not flow to the rest of the method.
+ */
+class SparseCPSolver {
+
+    private final ConstantPropagation cp;
+
+    private final CFG<Stmt> cfg;
+
+    private final IR ir;
+
+    /**
+     * The tracked definitions, i.e., the statements which define variables
+     * holding integer values. The entry node defines the parameters.
+     */
+    private final List<Stmt> defStmts = new ArrayList<>();
+
+    /**
+     * The variables defined by the definitions in {@link #defStmts}.
+     */
+    private final List<Var> defVars = new ArrayList<>();
+
+    /**
+     * Values of the definitions in {@link #defStmts}.
+     */
+    private final List<Value> defValues = new ArrayList<>();
+
+    /**
+     * Map from each statement to the definition it performs.
+     */
+    private final Map<Stmt, Integer> defOf = Maps.newMap();
+
+    /**
+     * Map from the index of each variable to all its definitions.
+     */
+    private final BitSet[] varDefs;
+
+    /**
+     * Definitions reaching the IN of each executable node.
+     * The nodes absent in this map are not executable.
+     */
+    private final Map<Stmt, BitSet> reachingDefs = Maps.newMap();
+
+    /**
+     * Definitions reaching the OUT of each executable node.
+     */
+    private final Map<Stmt, BitSet> outDefs = Maps.newMap();
+
+    /**
+     * The executable edges.
+     */
+    private final Set<Edge<Stmt>> executableEdges = Sets.newSet();
+
+    /**
+     * For each definition, the statements which use its value.
+     */
+    private final List<Set<Stmt>> defUses = new ArrayList<>();
+
+    /**
+     * Nodes whose reaching definitions need to be updated.
+     */
+    private final SetQueue<Stmt> flowWorkList = new SetQueue<>();
+
+    /**
+     * Nodes which need to be evaluated, i.e., the definitions whose values
+     * and the branches whose executable out edges may change.
+     */
+    private final SetQueue<Stmt> evalWorkList = new SetQueue<>();
+
+    /**
+     * Holds the values of the variables used by the evaluated statement.
+     */
+    private final CPFact useFact = new CPFact();
+
+    SparseCPSolver(ConstantPropagation cp, CFG<Stmt> cfg) {
+        this.cp = cp;
+        this.cfg = cfg;
+        this.ir = cfg.getIR();
+        this.varDefs = new BitSet[ir.getVars().size()];
+    }
+
+    DataflowResult<Stmt, CPFact> solve() {
+        collectDefs();
+        propagate();
+        return buildResult();
+    }
+
+    private void collectDefs() {
+        Stmt entry = cfg.getEntry();
+        for (Var param : ir.getParams()) {
+            if (ConstantPropagation.canHoldInt(param)) {
+                // parameters may hold any values
+                addDef(entry, param, Value.getNAC());
+            }
+        }
+        for (Stmt stmt : cfg) {
+            Var var = ConstantPropagation.getDefinedVar(stmt);
+            if (var != null) {
+                defOf.put(stmt, addDef(stmt, var, Value.getUndef()));
+            }
+        }
+    }
+
+    private int addDef(Stmt stmt, Var var, Value value) {
+        int def = defStmts.size();
+        defStmts.add(stmt);
+        defVars.add(var);
+        defValues.add(value);
+        defUses.add(Sets.newHybridSet());
+        getVarDefs(var).set(def);
+        return def;
+    }
+
+    private BitSet getVarDefs(Var var) {
+        BitSet defs = varDefs[var.getIndex()];
+        if (defs == null) {
+            defs = varDefs[var.getIndex()] = new BitSet();
+        }
+        return defs;
+    }
+
+    /**
+     * Computes the reaching definitions along the executable edges and
+     * propagates values along def-use chains until reaching the fixed point.
+     */
+    private void propagate() {
+        markExecutable(cfg.getEntry());
+        while (!flowWorkList.isEmpty() || !evalWorkList.isEmpty()) {
+            if (!flowWorkList.isEmpty()) {
+                updateReachingDefs(flowWorkList.poll());
+            } else {
+                evaluate(evalWorkList.poll());
+            }
+        }
+    }
+
+    private void markExecutable(Edge<Stmt> edge) {
+        if (executableEdges.add(edge)) {
+            Stmt target = edge.getTarget();
+            if (!markExecutable(target)) {
+                // the target is already executable, and now
+                // the definitions may reach it via the new edge
+                flowWorkList.add(target);
+            }
+        }
+    }
+
+    /**
+     * @return true if given node was not executable before.
+     */
+    private boolean markExecutable(Stmt node) {
+        if (reachingDefs.putIfAbsent(node, new BitSet()) == null) {
+            flowWorkList.add(node);
+            evalWorkList.add(node);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Updates the definitions reaching given node and the def-use chains
+     * of the statement, and the OUT of the node.
+     */
+    private void updateReachingDefs(Stmt node) {
+        BitSet in = reachingDefs.get(node);
+        for (Edge<Stmt> edge : cfg.getInEdgesOf(node)) {
+            BitSet predOut = outDefs.get(edge.getSource());
+            if (predOut != null && executableEdges.contains(edge)) {
+                in.or(predOut);
+            }
+        }
+        // connects the definitions newly reaching the node to the node
+        for (Var use : getUsedVars(node)) {
+            BitSet defs = getVarDefs(use);
+            for (int d = defs.nextSetBit(0); d >= 0; d = defs.nextSetBit(d + 1)) {
+                if (in.get(d) && defUses.get(d).add(node)) {
+                    evalWorkList.add(node);
+                }
+            }
+        }
+        BitSet out = (BitSet) in.clone();
+        if (cfg.isEntry(node)) {
+            // definitions of parameters
+            for (int def = 0; def < defStmts.size() &&
+                    defStmts.get(def) == node; ++def) {
+                out.set(def);
+            }
+        } else {
+            Integer def = defOf.get(node);
+            if (def != null) {
+                out.andNot(getVarDefs(defVars.get(def)));
+                out.set(def);
+            }
+        }
+        if (!out.equals(outDefs.get(node))) {
+            outDefs.put(node, out);
+            for (Edge<Stmt> edge : cfg.getOutEdgesOf(node)) {
+                if (executableEdges.contains(edge)) {
+                    flowWorkList.add(edge.getTarget());
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluates the value defined by given node, and the out edges of
+     * the node which are executable.
+     */
+    private void evaluate(Stmt node) {
+        // collects the values of the variables used by the statement
+        useFact.clear();
+        BitSet in = reachingDefs.get(node);
+        for (Var use : getUsedVars(node)) {
+            useFact.update(use, getValue(use, in));
+        }
+        Integer def = defOf.get(node);
+        if (def != null) {
+            Value value = ConstantPropagation.evaluate(
+                    ((DefinitionStmt<?, ?>) node).getRValue(), useFact);
+            if (!value.equals(defValues.get(def))) {
+                defValues.set(def, value);
+                evalWorkList.addAll(defUses.get(def));
+            }
+        }
+        Value cond = null;
+        if (node instanceof If ifStmt) {
+            cond = evaluateCondition(ifStmt.getCondition());
+        } else if (node instanceof SwitchStmt switchStmt) {
+            cond = ConstantPropagation.evaluate(switchStmt.getVar(), useFact);
+        }
+        for (Edge<Stmt> edge : cfg.getOutEdgesOf(node)) {
+            if (cond == null || edge.isExceptional() ||
+                    isExecutable(edge, cond, node)) {
+                markExecutable(edge);
+            }
+        }
+    }
+
+    private Value evaluateCondition(ConditionExp condition) {
+        return ConstantPropagation.canHoldInt(condition.getOperand1()) &&
+                ConstantPropagation.canHoldInt(condition.getOperand2()) ?
+                ConstantPropagation.evaluate(condition, useFact) :
+                // e.g., comparison of references
+                Value.getNAC();
+    }
+
+    /**
+     * @return true if given out edge of a branch is executable
+     * when the condition of the branch has value {@code cond}.
+     */
+    private boolean isExecutable(Edge<Stmt> edge, Value cond, Stmt branch) {
+        if (cond.isNAC()) {
+            return true;
+        } else if (cond.isUndef()) {
+            return false;
+        }
+        int c = cond.getConstant();
+        return switch (edge.getKind()) {
+            case IF_TRUE -> c != 0;
+            case IF_FALSE -> c == 0;
+            case SWITCH_CASE -> edge.getCaseValue() == c;
+            case SWITCH_DEFAULT ->
+                    !((SwitchStmt) branch).getCaseValues().contains(c);
+            default -> true;
+        };
+    }
+
+    /**
+     * @return the variables which can hold integer values
+     * and are used by given statement.
+     */
+    private static List<Var> getUsedVars(Stmt stmt) {
+        List<Var> vars = new ArrayList<>(2);
+        stmt.getUses().forEach(use -> {
+            if (use instanceof Var var && ConstantPropagation.canHoldInt(var)) {
+                vars.add(var);
+            }
+        });
+        return vars;
+    }
+
+    /**
+     * @return meet of the values of the definitions of given variable
+     * which are contained in given reaching definitions.
+     */
+    private Value getValue(Var var, BitSet reachingDefs) {
+        Value value = Value.getUndef();
+        BitSet defs = getVarDefs(var);
+        for (int def = defs.nextSetBit(0); def >= 0; def = defs.nextSetBit(def + 1)) {
+            if (reachingDefs.get(def)) {
+                value = cp.meetValue(value, defValues.get(def));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Builds the IN/OUT facts of all nodes. A node whose IN fact equals
+     * the OUT fact of its only predecessor shares the fact object with
+     * the predecessor, and a node which does not define tracked variables
+     * shares the same fact object as its IN and OUT facts. The only
+     * in edge of an executable node is executable, thus the sharing is
+     * also valid for the sparse conditional results.
+     */
+    private DataflowResult<Stmt, CPFact> buildResult() {
+        DataflowResult<Stmt, CPFact> result = new IndexedDataflowResult<>(
+                cfg.getNumberOfNodes(), Stmt::getIndex);
+        Set<Stmt> pending = Sets.newSet();
+        Deque<Stmt> chain = new ArrayDeque<>();
+        for (Stmt node : cfg) {
+            // collects the nodes along the chain of the only predecessors,
+            // and then builds their facts from the first one
+            Stmt curr = node;
+            while (result.getOutFact(curr) == null && pending.add(curr)) {
+                chain.push(curr);
+                if (cfg.getInDegreeOf(curr) != 1) {
+                    break;
+                }
+                curr = cfg.getPredsOf(curr).iterator().next();
+            }
+            while (!chain.isEmpty()) {
+                buildFacts(chain.pop(), result);
+            }
+            pending.clear();
+        }
+        return result;
+    }
+
+    private void buildFacts(Stmt node, DataflowResult<Stmt, CPFact> result) {
+        if (!reachingDefs.containsKey(node)) {
+            // unreachable node
+            CPFact fact = cp.newInitialFact();
+            result.setInFact(node, fact);
+            result.setOutFact(node, fact);
+            return;
+        }
+        CPFact in;
+        if (cfg.getInDegreeOf(node) == 1 &&
+                result.getOutFact(cfg.getPredsOf(node).iterator().next()) != null) {
+            in = result.getOutFact(cfg.getPredsOf(node).iterator().next());
+        } else {
+            in = newFact(reachingDefs.get(node));
+        }
+        CPFact out;
+        if (cfg.isEntry(node)) {
+            out = cp.newBoundaryFact(cfg);
+        } else if (defOf.containsKey(node)) {
+            int def = defOf.get(node);
+            out = in.copy();
+            out.update(defVars.get(def), defValues.get(def));
+        } else {
+            out = in;
+        }
+        result.setInFact(node, in);
+        result.setOutFact(node, out);
+    }
+
+    /**
+     * @return a new fact which holds the values of given definitions.
+     */
+    private CPFact newFact(BitSet defs) {
+        CPFact fact = cp.newInitialFact();
+        defs.stream().forEach(def -> {
+            Var var = defVars.get(def);
+            fact.update(var, cp.meetValue(fact.get(var), defValues.get(def)));
+        });
+        return fact;
+    }
+}
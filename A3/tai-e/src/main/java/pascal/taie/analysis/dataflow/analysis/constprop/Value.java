@@ -127,6 +127,87 @@ public class Value {
         return value;
     }
 
+    /*
+     * Values can also be packed into longs, so that the clients (e.g.,
+     * PackedCPFact) can store and compute values without allocating
+     * Value objects. The kind is stored in the high 32 bits (its ordinal),
+     * and the constant (if any) is stored in the low 32 bits.
+     * In particular, the packed UNDEF is 0.
+     */
+
+    /**
+     * The packed UNDEF.
+     */
+    public static final long PACKED_UNDEF = 0L;
+
+    /**
+     * The packed NAC.
+     */
+    public static final long PACKED_NAC = (long) Kind.NAC.ordinal() << 32;
+
+    private static final long PACKED_CONSTANT_TAG = (long) Kind.CONSTANT.ordinal() << 32;
+
+    /**
+     * @return the packed constant for given value.
+     */
+    public static long packConstant(int value) {
+        return PACKED_CONSTANT_TAG | (value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return true if given packed value represents a constant, otherwise false.
+     */
+    public static boolean isPackedConstant(long packed) {
+        return (packed & ~0xFFFFFFFFL) == PACKED_CONSTANT_TAG;
+    }
+
+    /**
+     * @return the integer of given packed constant. The client code should
+     * call {@link #isPackedConstant(long)} before calling this method.
+     */
+    public static int unpackConstant(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * @return the packed representation of given value.
+     */
+    public static long pack(Value value) {
+        return switch (value.kind) {
+            case UNDEF -> PACKED_UNDEF;
+            case NAC -> PACKED_NAC;
+            case CONSTANT -> packConstant(value.value);
+        };
+    }
+
+    /**
+     * @return the value represented by given packed value.
+     */
+    public static Value unpack(long packed) {
+        if (packed == PACKED_UNDEF) {
+            return UNDEF;
+        } else if (packed == PACKED_NAC) {
+            return NAC;
+        } else {
+            return makeConstant(unpackConstant(packed));
+        }
+    }
+
+    /**
+     * Meets two packed values.
+     */
+    public static long meetPacked(long v1, long v2) {
+        if (v1 == PACKED_NAC || v2 == PACKED_NAC) {
+            return PACKED_NAC;
+        } else if (v1 == PACKED_UNDEF) {
+            return v2;
+        } else if (v2 == PACKED_UNDEF) {
+            return v1;
+        } else {
+            return v1 == v2 ? v1 : PACKED_NAC;
+        }
+    }
+
     @Override
     public int hashCode() {
         return value;
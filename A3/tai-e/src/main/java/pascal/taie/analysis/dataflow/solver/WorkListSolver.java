@@ -25,20 +25,100 @@ package pascal.taie.analysis.dataflow.solver;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
 
+import java.util.Collection;
+
+/**
+ * Work-list solver which schedules the nodes by a priority work-list,
+ * i.e., the pending nodes are processed in reverse postorder (for forward
+ * analyses) or postorder (for backward analyses) of the CFG.
+ */
 class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
 
+    /**
+     * Whether schedules the nodes by (reverse) postorder. If this is false,
+     * the nodes are scheduled by the order given by {@link CFG#getNodes()},
+     * which is useful for measuring the effect of the node ordering.
+     */
+    private final boolean ordered;
+
     WorkListSolver(DataflowAnalysis<Node, Fact> analysis) {
+        this(analysis, true);
+    }
+
+    WorkListSolver(DataflowAnalysis<Node, Fact> analysis, boolean ordered) {
         super(analysis);
+        this.ordered = ordered;
     }
 
     @Override
     protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        // TODO - finish me
+        doSolveForward(cfg, result, cfg.getNodes());
+    }
+
+    @Override
+    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                                  Collection<Node> nodes) {
+        PriorityWorkList<Node> workList = newWorkList(cfg, true, nodes);
+        long visits = 0;
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            if (cfg.isEntry(node)) {
+                continue;
+            }
+            Fact in = result.getInFact(node);
+            for (Edge<Node> inEdge : cfg.getInEdgesOf(node)) {
+                Fact predOut = result.getOutFact(inEdge.getSource());
+                if (analysis.needTransferEdge(inEdge)) {
+                    predOut = analysis.transferEdge(inEdge, predOut);
+                }
+                analysis.meetInto(predOut, in);
+            }
+            ++visits;
+            if (analysis.transferNode(node, in, result.getOutFact(node))) {
+                workList.addAll(cfg.getSuccsOf(node));
+            }
+        }
+        recordNodeVisits(visits);
     }
 
     @Override
     protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        // TODO - finish me
+        doSolveBackward(cfg, result, cfg.getNodes());
+    }
+
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                                   Collection<Node> nodes) {
+        PriorityWorkList<Node> workList = newWorkList(cfg, false, nodes);
+        long visits = 0;
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            if (cfg.isExit(node)) {
+                continue;
+            }
+            Fact out = result.getOutFact(node);
+            for (Node succ : cfg.getSuccsOf(node)) {
+                analysis.meetInto(result.getInFact(succ), out);
+            }
+            ++visits;
+            if (analysis.transferNode(node, result.getInFact(node), out)) {
+                workList.addAll(cfg.getPredsOf(node));
+            }
+        }
+        recordNodeVisits(visits);
+    }
+
+    /**
+     * Creates a work-list for given CFG which initially contains given nodes.
+     */
+    private PriorityWorkList<Node> newWorkList(
+            CFG<Node> cfg, boolean forward, Collection<Node> nodes) {
+        NodeOrder<Node> order = ordered ?
+                NodeOrder.of(cfg, forward) : NodeOrder.unordered(cfg);
+        PriorityWorkList<Node> workList = new PriorityWorkList<>(order);
+        workList.addAll(nodes);
+        return workList;
     }
 }
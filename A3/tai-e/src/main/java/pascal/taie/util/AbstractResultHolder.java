@@ -0,0 +1,89 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util;
+
+import pascal.taie.util.collection.Maps;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Base class of the classes which hold the results of analyses,
+ * e.g., {@link pascal.taie.ir.IR}.
+ * <p>
+ * This class is thread-safe. The method analyses are run on many methods
+ * in parallel, and an analysis may query the results of other methods
+ * (which are being stored by other threads), thus all accesses to
+ * the results are guarded by this holder. Each holder uses its own lock,
+ * so the threads working on different methods never contend.
+ */
+public abstract class AbstractResultHolder implements ResultHolder {
+
+    /**
+     * Map from analysis ID to the result. Guarded by this.
+     */
+    private final Map<String, Object> results = Maps.newHybridMap();
+
+    @Override
+    public synchronized <R> void storeResult(String id, R result) {
+        results.put(id, result);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized <R> R getResult(String id) {
+        return (R) results.get(id);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized <R> R getResult(String id, R defaultResult) {
+        return (R) results.getOrDefault(id, defaultResult);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized <R> R getResult(String id, Supplier<R> supplier) {
+        return (R) results.computeIfAbsent(id, unused -> supplier.get());
+    }
+
+    /**
+     * @return a snapshot of the IDs of the stored results.
+     */
+    @Override
+    public synchronized Collection<String> getKeys() {
+        return List.copyOf(results.keySet());
+    }
+
+    @Override
+    public synchronized void clearResult(String id) {
+        results.remove(id);
+    }
+
+    @Override
+    public synchronized void clearAll() {
+        results.clear();
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.MapDataflowResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+public class WorkListSolverIncrementalTest {
+
+    /**
+     * Solves live variable analysis for the methods of given class,
+     * then marks a statement in the middle of each method as changed,
+     * and replaces its facts in the previous result by stale ones.
+     * Re-solving from the previous result must give the same result
+     * as solving from scratch, visit only the statements which can reach
+     * the changed one (i.e., the affected region of a backward analysis),
+     * and reuse the facts of the other statements.
+     */
+    void testIncremental(String inputClass) {
+        // builds the world and the CFGs of the methods, without checking
+        // the results of dead code detection, which is not the subject here
+        Main.main(new String[]{"-pp",
+                "-cp", "src/test/resources/dataflow/deadcode/",
+                "-m", inputClass,
+                "-a", LiveVariableAnalysis.ID + "=strongly:false"});
+        VisitRecorder analysis = new VisitRecorder(new LiveVariableAnalysis(
+                new AnalysisConfig(LiveVariableAnalysis.ID)));
+        WorkListSolver<Stmt, SetFact<Var>> solver = new WorkListSolver<>(analysis);
+        int[] sizes = new int[2]; // [#nodes, #affected nodes]
+        World.get().getClassHierarchy()
+                .applicationClasses()
+                .map(JClass::getDeclaredMethods)
+                .flatMap(Collection::stream)
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .forEach(m -> {
+                    CFG<Stmt> cfg = m.getIR().getResult(CFGBuilder.ID);
+                    DataflowResult<Stmt, SetFact<Var>> expected = solver.solve(cfg);
+                    List<Stmt> stmts = m.getIR().getStmts();
+                    Stmt changed = stmts.get(stmts.size() / 2);
+                    DataflowResult<Stmt, SetFact<Var>> previous = new MapDataflowResult<>();
+                    for (Stmt stmt : cfg) {
+                        previous.setInFact(stmt, expected.getInFact(stmt).copy());
+                        previous.setOutFact(stmt, expected.getOutFact(stmt).copy());
+                    }
+                    previous.setInFact(changed, new SetFact<>());
+                    previous.setOutFact(changed, new SetFact<>());
+                    Set<Stmt> affected = getNodesReaching(cfg, changed);
+                    sizes[0] += cfg.getNumberOfNodes();
+                    sizes[1] += affected.size();
+
+                    analysis.visited.clear();
+                    DataflowResult<Stmt, SetFact<Var>> given =
+                            solver.solve(cfg, previous, Set.of(changed));
+                    for (Stmt stmt : cfg) {
+                        Assert.assertEquals(expected.getInFact(stmt), given.getInFact(stmt));
+                        Assert.assertEquals(expected.getOutFact(stmt), given.getOutFact(stmt));
+                        if (!affected.contains(stmt)) {
+                            Assert.assertSame(previous.getInFact(stmt), given.getInFact(stmt));
+                            Assert.assertSame(previous.getOutFact(stmt), given.getOutFact(stmt));
+                        }
+                    }
+                    Assert.assertTrue(m + " visits " + analysis.visited +
+                                    " out of the affected nodes " + affected,
+                            affected.containsAll(analysis.visited));
+                    if (!cfg.isExit(changed)) {
+                        Assert.assertTrue(analysis.visited.contains(changed));
+                    }
+                });
+        // the affected regions are smaller than the whole CFGs
+        Assert.assertTrue(sizes[1] < sizes[0]);
+    }
+
+    /**
+     * @return given node and the nodes which can reach it.
+     */
+    private static Set<Stmt> getNodesReaching(CFG<Stmt> cfg, Stmt node) {
+        Set<Stmt> result = Sets.newSet();
+        Deque<Stmt> workList = new ArrayDeque<>();
+        result.add(node);
+        workList.add(node);
+        while (!workList.isEmpty()) {
+            for (Stmt pred : cfg.getPredsOf(workList.poll())) {
+                if (result.add(pred)) {
+                    workList.add(pred);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testLoops() {
+        testIncremental("Loops");
+    }
+
+    @Test
+    public void testDeadAssignment() {
+        testIncremental("DeadAssignment");
+    }
+
+    @Test
+    public void testUnreachableIfBranch() {
+        testIncremental("UnreachableIfBranch");
+    }
+
+    /**
+     * Delegates to another analysis, and records the nodes
+     * to which the node transfer function is applied.
+     */
+    private static class VisitRecorder
+            implements DataflowAnalysis<Stmt, SetFact<Var>> {
+
+        private final DataflowAnalysis<Stmt, SetFact<Var>> analysis;
+
+        private final Set<Stmt> visited = Sets.newSet();
+
+        private VisitRecorder(DataflowAnalysis<Stmt, SetFact<Var>> analysis) {
+            this.analysis = analysis;
+        }
+
+        @Override
+        public boolean isForward() {
+            return analysis.isForward();
+        }
+
+        @Override
+        public SetFact<Var> newBoundaryFact(CFG<Stmt> cfg) {
+            return analysis.newBoundaryFact(cfg);
+        }
+
+        @Override
+        public SetFact<Var> newInitialFact() {
+            return analysis.newInitialFact();
+        }
+
+        @Override
+        public SetFact<Var> newInitialFact(CFG<Stmt> cfg) {
+            return analysis.newInitialFact(cfg);
+        }
+
+        @Override
+        public void meetInto(SetFact<Var> fact, SetFact<Var> target) {
+            analysis.meetInto(fact, target);
+        }
+
+        @Override
+        public boolean transferNode(Stmt stmt, SetFact<Var> in, SetFact<Var> out) {
+            visited.add(stmt);
+            return analysis.transferNode(stmt, in, out);
+        }
+
+        @Override
+        public boolean needTransferEdge(Edge<Stmt> edge) {
+            return analysis.needTransferEdge(edge);
+        }
+
+        @Override
+        public SetFact<Var> transferEdge(Edge<Stmt> edge, SetFact<Var> nodeFact) {
+            return analysis.transferEdge(edge, nodeFact);
+        }
+    }
+}
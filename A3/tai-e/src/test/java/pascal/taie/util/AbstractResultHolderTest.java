@@ -0,0 +1,87 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+public class AbstractResultHolderTest {
+
+    private static final int THREADS = 4;
+
+    private static final int N = 100000;
+
+    private static class Holder extends AbstractResultHolder {
+    }
+
+    /**
+     * Runs given action on 0, 1, ..., N - 1 by {@link #THREADS} threads,
+     * regardless of the processors of the machine.
+     */
+    private static void runInThreads(IntConsumer action) {
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; ++t) {
+            int first = t;
+            threads[t] = new Thread(() -> {
+                for (int i = first; i < N; i += THREADS) {
+                    action.accept(i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentStore() {
+        Holder holder = new Holder();
+        runInThreads(i -> holder.storeResult("r" + i, i));
+        Assert.assertEquals(N, holder.getKeys().size());
+        for (int i = 0; i < N; ++i) {
+            Assert.assertEquals(Integer.valueOf(i), holder.getResult("r" + i));
+        }
+    }
+
+    @Test
+    public void testComputeOnce() {
+        Holder holder = new Holder();
+        AtomicInteger computed = new AtomicInteger();
+        Object[] results = new Object[N];
+        runInThreads(i -> results[i] = holder.getResult("r", () -> {
+            computed.incrementAndGet();
+            return new Object();
+        }));
+        Assert.assertEquals(1, computed.get());
+        Assert.assertEquals(1, Arrays.stream(results).distinct().count());
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pascal.taie.Main;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+
+/**
+ * Measures the throughput of {@link CHABuilder#build()}. The call graph
+ * is built once in advance, which builds the IRs of the reachable methods,
+ * so that each operation only measures the construction of the call graph.
+ */
+@State(Scope.Benchmark)
+public class CHABenchmark {
+
+    @Param({"src/test/resources/cha"})
+    public String classPath;
+
+    @Param({"AbstractMethod", "Interface", "StaticCall", "VirtualCall", "Synthetic"})
+    public String program;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String cp = program.equals("Synthetic") ? "../../benchmarks" : classPath;
+        Main.buildWorld("-pp", "-cp", cp, "-m", program);
+        new CHABuilder().build();
+    }
+
+    @Benchmark
+    public CallGraph<Invoke, JMethod> build() {
+        return new CHABuilder().build();
+    }
+}
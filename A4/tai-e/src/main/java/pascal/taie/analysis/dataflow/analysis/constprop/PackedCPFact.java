@@ -0,0 +1,195 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.util.collection.Sets;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A {@link CPFact} which stores the values of the variables of a method
+ * in an array of packed values indexed by {@link Var#getIndex()}
+ * (see {@link Value#pack(Value)}). The operations between two such facts,
+ * e.g., {@link #copyFrom(MapFact)} and {@link #meet(PackedCPFact)},
+ * work on the packed values directly, and do not allocate any objects.
+ */
+public class PackedCPFact extends CPFact {
+
+    private final IR ir;
+
+    /**
+     * Packed values of the variables. UNDEF is packed to 0,
+     * thus a new array represents a fact in which all variables are UNDEF.
+     */
+    private final long[] values;
+
+    public PackedCPFact(IR ir) {
+        this(ir, new long[ir.getVars().size()]);
+    }
+
+    private PackedCPFact(IR ir, long[] values) {
+        this.ir = ir;
+        this.values = values;
+    }
+
+    /**
+     * @return the packed value of given variable in this fact.
+     */
+    public long getPacked(Var var) {
+        int i = var.getIndex();
+        return i < values.length ? values[i] : Value.PACKED_UNDEF;
+    }
+
+    /**
+     * Updates the packed value of given variable in this fact.
+     *
+     * @return if the update changes this fact.
+     */
+    public boolean updatePacked(Var var, long value) {
+        int i = var.getIndex();
+        long old = values[i];
+        values[i] = value;
+        return old != value;
+    }
+
+    @Override
+    public Value get(Var key) {
+        return Value.unpack(getPacked(key));
+    }
+
+    @Override
+    public boolean update(Var key, Value value) {
+        return updatePacked(key, Value.pack(value));
+    }
+
+    @Override
+    public Value remove(Var key) {
+        long old = getPacked(key);
+        if (old == Value.PACKED_UNDEF) {
+            return null;
+        }
+        values[key.getIndex()] = Value.PACKED_UNDEF;
+        return Value.unpack(old);
+    }
+
+    @Override
+    public boolean copyFrom(MapFact<Var, Value> fact) {
+        if (fact instanceof PackedCPFact other) {
+            return copyFrom(other, null, Value.PACKED_UNDEF);
+        }
+        return super.copyFrom(fact);
+    }
+
+    /**
+     * Copies the content from given fact to this fact, except that
+     * the value of {@code var} (if not null) is replaced by {@code value}.
+     * As {@link #copyFrom(MapFact)}, the variables which are UNDEF
+     * in the given fact are unaffected.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    boolean copyFrom(PackedCPFact fact, Var var, long value) {
+        long[] src = fact.values;
+        int skipped = var == null ? -1 : var.getIndex();
+        boolean changed = false;
+        for (int i = 0; i < src.length; ++i) {
+            long v = i == skipped ? value : src[i];
+            if (v != Value.PACKED_UNDEF && values[i] != v) {
+                values[i] = v;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Meets given fact into this fact.
+     */
+    void meet(PackedCPFact fact) {
+        long[] src = fact.values;
+        for (int i = 0; i < src.length; ++i) {
+            if (src[i] != Value.PACKED_UNDEF) {
+                values[i] = Value.meetPacked(src[i], values[i]);
+            }
+        }
+    }
+
+    @Override
+    public PackedCPFact copy() {
+        return new PackedCPFact(ir, values.clone());
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, Value.PACKED_UNDEF);
+    }
+
+    @Override
+    public Set<Var> keySet() {
+        Set<Var> keys = Sets.newHybridSet();
+        forEach((var, value) -> keys.add(var));
+        return keys;
+    }
+
+    @Override
+    public Stream<Map.Entry<Var, Value>> entries() {
+        return IntStream.range(0, values.length)
+                .filter(i -> values[i] != Value.PACKED_UNDEF)
+                .mapToObj(i -> new AbstractMap.SimpleImmutableEntry<>(
+                        ir.getVar(i), Value.unpack(values[i])));
+    }
+
+    @Override
+    public void forEach(BiConsumer<Var, Value> action) {
+        for (int i = 0; i < values.length; ++i) {
+            if (values[i] != Value.PACKED_UNDEF) {
+                action.accept(ir.getVar(i), Value.unpack(values[i]));
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(values, ((PackedCPFact) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.IndexedDataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse solver for {@link ConstantPropagation}.
+ * <p>
+ * Instead of copying a whole {@link CPFact} at every node in each iteration,
+ * this solver first connects the definitions of the variables to their uses
+ * (def-use chains, given by reaching definitions computed with bit vectors),
+ * and then propagates the {@link Value} of each definition only to the
+ * definitions which use it. After reaching the fixed point, the solver
+ * builds the IN/OUT facts of every statement once, and the statements
+ * which do not change the facts share the {@link CPFact} objects, so that
+ * the result can be consumed as the one given by the dense solver.
+ * <p>
+ * The result of this solver is the same as the one of the dense solver,
+ * as the value of a variable at a statement is the meet of the values
+ * of all definitions of the variable reaching the statement.
+ */
+class SparseCPSolver {
+
+    private final ConstantPropagation cp;
+
+    private final CFG<Stmt> cfg;
+
+    private final IR ir;
+
+    /**
+     * The tracked definitions, i.e., the statements which define variables
+     * holding integer values. The entry node defines the parameters.
+     */
+    private final List<Stmt> defStmts = new ArrayList<>();
+
+    /**
+     * The variables defined by the definitions in {@link #defStmts}.
+     */
+    private final List<Var> defVars = new ArrayList<>();
+
+    /**
+     * Values of the definitions in {@link #defStmts}.
+     */
+    private final List<Value> defValues = new ArrayList<>();
+
+    /**
+     * Map from each statement to the definition it performs.
+     */
+    private final Map<Stmt, Integer> defOf = Maps.newMap();
+
+    /**
+     * Map from the index of each variable to all its definitions.
+     */
+    private final BitSet[] varDefs;
+
+    /**
+     * Definitions reaching the IN of each node.
+     */
+    private final Map<Stmt, BitSet> reachingDefs = Maps.newMap();
+
+    /**
+     * For each definition, the definitions which use its value.
+     */
+    private final List<Set<Integer>> defUses = new ArrayList<>();
+
+    SparseCPSolver(ConstantPropagation cp, CFG<Stmt> cfg) {
+        this.cp = cp;
+        this.cfg = cfg;
+        this.ir = cfg.getIR();
+        this.varDefs = new BitSet[ir.getVars().size()];
+    }
+
+    DataflowResult<Stmt, CPFact> solve() {
+        collectDefs();
+        computeReachingDefs();
+        buildDefUseChains();
+        propagate();
+        return buildResult();
+    }
+
+    private void collectDefs() {
+        Stmt entry = cfg.getEntry();
+        for (Var param : ir.getParams()) {
+            if (ConstantPropagation.canHoldInt(param)) {
+                // parameters may hold any values
+                addDef(entry, param, Value.getNAC());
+            }
+        }
+        for (Stmt stmt : cfg) {
+            Var var = ConstantPropagation.getDefinedVar(stmt);
+            if (var != null) {
+                defOf.put(stmt, addDef(stmt, var, Value.getUndef()));
+            }
+        }
+    }
+
+    private int addDef(Stmt stmt, Var var, Value value) {
+        int def = defStmts.size();
+        defStmts.add(stmt);
+        defVars.add(var);
+        defValues.add(value);
+        defUses.add(Sets.newHybridSet());
+        getVarDefs(var).set(def);
+        return def;
+    }
+
+    private BitSet getVarDefs(Var var) {
+        BitSet defs = varDefs[var.getIndex()];
+        if (defs == null) {
+            defs = varDefs[var.getIndex()] = new BitSet();
+        }
+        return defs;
+    }
+
+    /**
+     * Computes the definitions reaching the IN of each node.
+     */
+    private void computeReachingDefs() {
+        Map<Stmt, BitSet> outDefs = Maps.newMap(cfg.getNumberOfNodes());
+        for (Stmt node : cfg) {
+            reachingDefs.put(node, new BitSet());
+            outDefs.put(node, new BitSet());
+        }
+        SetQueue<Stmt> workList = new SetQueue<>();
+        cfg.forEach(workList::add);
+        while (!workList.isEmpty()) {
+            Stmt node = workList.poll();
+            BitSet in = reachingDefs.get(node);
+            for (Stmt pred : cfg.getPredsOf(node)) {
+                in.or(outDefs.get(pred));
+            }
+            BitSet out = (BitSet) in.clone();
+            if (cfg.isEntry(node)) {
+                // definitions of parameters
+                for (int def = 0; def < defStmts.size() &&
+                        defStmts.get(def) == node; ++def) {
+                    out.set(def);
+                }
+            } else {
+                Integer def = defOf.get(node);
+                if (def != null) {
+                    out.andNot(getVarDefs(defVars.get(def)));
+                    out.set(def);
+                }
+            }
+            if (!out.equals(outDefs.get(node))) {
+                outDefs.put(node, out);
+                cfg.getSuccsOf(node).forEach(workList::add);
+            }
+        }
+    }
+
+    /**
+     * Connects each definition to the definitions using its value.
+     */
+    private void buildDefUseChains() {
+        defOf.forEach((stmt, def) -> {
+            BitSet in = reachingDefs.get(stmt);
+            for (Var use : getUsedVars(stmt)) {
+                BitSet defs = (BitSet) getVarDefs(use).clone();
+                defs.and(in);
+                defs.stream().forEach(d -> defUses.get(d).add(def));
+            }
+        });
+    }
+
+    /**
+     * Propagates values along def-use chains until reaching the fixed point.
+     */
+    private void propagate() {
+        CPFact useFact = new CPFact();
+        SetQueue<Integer> workList = new SetQueue<>();
+        workList.addAll(defOf.values());
+        while (!workList.isEmpty()) {
+            int def = workList.poll();
+            Stmt stmt = defStmts.get(def);
+            // collects the values of the variables used by the statement
+            useFact.clear();
+            BitSet in = reachingDefs.get(stmt);
+            for (Var use : getUsedVars(stmt)) {
+                useFact.update(use, getValue(use, in));
+            }
+            Value value = ConstantPropagation.evaluate(
+                    ((DefinitionStmt<?, ?>) stmt).getRValue(), useFact);
+            if (!value.equals(defValues.get(def))) {
+                defValues.set(def, value);
+                workList.addAll(defUses.get(def));
+            }
+        }
+    }
+
+    /**
+     * @return the variables which can hold integer values
+     * and are used by given statement.
+     */
+    private static List<Var> getUsedVars(Stmt stmt) {
+        List<Var> vars = new ArrayList<>(2);
+        stmt.getUses().forEach(use -> {
+            if (use instanceof Var var && ConstantPropagation.canHoldInt(var)) {
+                vars.add(var);
+            }
+        });
+        return vars;
+    }
+
+    /**
+     * @return meet of the values of the definitions of given variable
+     * which are contained in given reaching definitions.
+     */
+    private Value getValue(Var var, BitSet reachingDefs) {
+        Value value = Value.getUndef();
+        BitSet defs = getVarDefs(var);
+        for (int def = defs.nextSetBit(0); def >= 0; def = defs.nextSetBit(def + 1)) {
+            if (reachingDefs.get(def)) {
+                value = cp.meetValue(value, defValues.get(def));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Builds the IN/OUT facts of all nodes. A node whose IN fact equals
+     * the OUT fact of its only predecessor shares the fact object with
+     * the predecessor, and a node which does not define tracked variables
+     * shares the same fact object as its IN and OUT facts.
+     */
+    private DataflowResult<Stmt, CPFact> buildResult() {
+        DataflowResult<Stmt, CPFact> result = new IndexedDataflowResult<>(
+                cfg.getNumberOfNodes(), Stmt::getIndex);
+        Set<Stmt> pending = Sets.newSet();
+        Deque<Stmt> chain = new ArrayDeque<>();
+        for (Stmt node : cfg) {
+            // collects the nodes along the chain of the only predecessors,
+            // and then builds their facts from the first one
+            Stmt curr = node;
+            while (result.getOutFact(curr) == null && pending.add(curr)) {
+                chain.push(curr);
+                if (cfg.getInDegreeOf(curr) != 1) {
+                    break;
+                }
+                curr = cfg.getPredsOf(curr).iterator().next();
+            }
+            while (!chain.isEmpty()) {
+                buildFacts(chain.pop(), result);
+            }
+            pending.clear();
+        }
+        return result;
+    }
+
+    private void buildFacts(Stmt node, DataflowResult<Stmt, CPFact> result) {
+        CPFact in;
+        if (cfg.getInDegreeOf(node) == 1 &&
+                result.getOutFact(cfg.getPredsOf(node).iterator().next()) != null) {
+            in = result.getOutFact(cfg.getPredsOf(node).iterator().next());
+        } else {
+            in = newFact(reachingDefs.get(node));
+        }
+        CPFact out;
+        if (cfg.isEntry(node)) {
+            out = cp.newBoundaryFact(cfg);
+        } else if (defOf.containsKey(node)) {
+            int def = defOf.get(node);
+            out = in.copy();
+            out.update(defVars.get(def), defValues.get(def));
+        } else {
+            out = in;
+        }
+        result.setInFact(node, in);
+        result.setOutFact(node, out);
+    }
+
+    /**
+     * @return a new fact which holds the values of given definitions.
+     */
+    private CPFact newFact(BitSet defs) {
+        CPFact fact = cp.newInitialFact();
+        defs.stream().forEach(def -> {
+            Var var = defVars.get(def);
+            fact.update(var, cp.meetValue(fact.get(var), defValues.get(def)));
+        });
+        return fact;
+    }
+}
@@ -0,0 +1,642 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link Map} backed by a persistent hash array mapped trie, which is used
+ * by {@link MapFact} to share structure between the facts.
+ * <p>
+ * {@link #copy()} takes constant time, as the copy shares the whole trie with
+ * this map, and an update copies only the trie nodes along the path to the
+ * updated key (O(log n)). To avoid copying the nodes which are not shared,
+ * each node records the map owning it (if any): the owner modifies its nodes
+ * in place, and {@link #copy()} revokes the ownership of all nodes of both
+ * maps, so that the shared nodes are never modified afterwards.
+ * <p>
+ * This map does not support {@code null} keys, and is not thread-safe.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+final class PersistentMap<K, V> extends AbstractMap<K, V> {
+
+    /**
+     * Marks the absence of keys in the trie.
+     */
+    private static final Object NOT_FOUND = new Object();
+
+    /**
+     * Number of hash bits consumed by each level of the trie.
+     */
+    private static final int BITS = 5;
+
+    private static final int MASK = (1 << BITS) - 1;
+
+    private Node root;
+
+    private int size;
+
+    /**
+     * The nodes created by this map are owned by this object.
+     */
+    private Object owner = new Object();
+
+    private Set<Entry<K, V>> entrySet;
+
+    PersistentMap() {
+    }
+
+    PersistentMap(Map<? extends K, ? extends V> map) {
+        putAll(map);
+    }
+
+    /**
+     * @return a copy of this map in constant time.
+     */
+    PersistentMap<K, V> copy() {
+        PersistentMap<K, V> copy = new PersistentMap<>();
+        copy.root = root;
+        copy.size = size;
+        disown();
+        return copy;
+    }
+
+    /**
+     * Revokes the ownership of all nodes of this map, so that the nodes
+     * will not be modified by this map any more.
+     */
+    private void disown() {
+        owner = new Object();
+    }
+
+    /**
+     * Performs the given action for each entry of {@code other} which is
+     * possibly absent in (or maps to a different value in) this map.
+     * The entries in the subtries shared by the two maps are skipped,
+     * thus this is much cheaper than iterating all entries of {@code other}
+     * when the two maps are derived from a common map.
+     * <p>
+     * The action may modify this map.
+     */
+    @SuppressWarnings("unchecked")
+    void forEachDifference(PersistentMap<K, V> other, BiConsumer<K, V> action) {
+        if (root == other.root || other.root == null) {
+            return;
+        }
+        // the action may modify this map, thus we disown the nodes of
+        // this map to keep the snapshot being compared unchanged
+        disown();
+        forEachDifference(root, other.root, (BiConsumer<Object, Object>) action);
+    }
+
+    private static void forEachDifference(
+            Node mine, Node theirs, BiConsumer<Object, Object> action) {
+        if (mine == theirs) {
+            return;
+        }
+        if (mine instanceof BitmapNode m && theirs instanceof BitmapNode t) {
+            // compares the subtries at the same positions
+            Object[] array = t.array;
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) {
+                    Node child = (Node) array[i + 1];
+                    int bit = t.bitAt(i);
+                    if (m.keyAt(bit) == null) {
+                        forEachDifference((Node) m.valueAt(bit), child, action);
+                    } else {
+                        child.forEach(action);
+                    }
+                } else {
+                    action.accept(array[i], array[i + 1]);
+                }
+            }
+        } else {
+            theirs.forEach(action);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) != NOT_FOUND;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        Object value = find(key);
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object key, V defaultValue) {
+        Object value = find(key);
+        return value == NOT_FOUND ? defaultValue : (V) value;
+    }
+
+    private Object find(Object key) {
+        return root == null ? NOT_FOUND :
+                root.find(0, hash(key), key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        Objects.requireNonNull(key, "PersistentMap does not support null keys");
+        Result result = new Result();
+        int hash = hash(key);
+        root = root == null ?
+                BitmapNode.EMPTY.put(owner, 0, hash, key, value, result) :
+                root.put(owner, 0, hash, key, value, result);
+        if (result.oldValue == NOT_FOUND) {
+            ++size;
+            return null;
+        }
+        return (V) result.oldValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        if (root == null) {
+            return null;
+        }
+        Result result = new Result();
+        root = root.remove(owner, 0, hash(key), key, result);
+        if (result.oldValue == NOT_FOUND) {
+            return null;
+        }
+        --size;
+        return (V) result.oldValue;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (root != null) {
+            root.forEach((BiConsumer<Object, Object>) action);
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof PersistentMap<?, ?> other &&
+                root == other.root) {
+            return true;
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Holds the previous value of the key being updated.
+     */
+    private static class Result {
+        Object oldValue = NOT_FOUND;
+    }
+
+    private abstract static class Node {
+
+        /**
+         * The owner which can modify this node in place, or null if
+         * this node is immutable.
+         */
+        final Object owner;
+
+        /**
+         * Keys and values stored in this node, i.e., array[2i] is the key,
+         * and array[2i + 1] is the corresponding value.
+         */
+        Object[] array;
+
+        Node(Object owner, Object[] array) {
+            this.owner = owner;
+            this.array = array;
+        }
+
+        abstract Object find(int shift, int hash, Object key);
+
+        abstract Node put(Object owner, int shift, int hash,
+                          Object key, Object value, Result result);
+
+        /**
+         * @return the node after removing the key, or null if the node
+         * becomes empty.
+         */
+        abstract Node remove(Object owner, int shift, int hash,
+                             Object key, Result result);
+
+        abstract void forEach(BiConsumer<Object, Object> action);
+
+        /**
+         * @return a copy of {@link #array} which can be modified by given
+         * owner: if this node is owned by the owner, returns the array
+         * itself; otherwise, returns a copy of the array.
+         */
+        Object[] editableArray(Object owner) {
+            return this.owner == owner ? array : array.clone();
+        }
+    }
+
+    /**
+     * Node indexed by a bitmap of the hash bits at current level.
+     * If the key of a slot is null, then the value is a subnode.
+     */
+    private static final class BitmapNode extends Node {
+
+        private static final BitmapNode EMPTY = new BitmapNode(null, 0, new Object[0]);
+
+        int bitmap;
+
+        BitmapNode(Object owner, int bitmap, Object[] array) {
+            super(owner, array);
+            this.bitmap = bitmap;
+        }
+
+        private static int bit(int shift, int hash) {
+            return 1 << ((hash >>> shift) & MASK);
+        }
+
+        private int index(int bit) {
+            return 2 * Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        /**
+         * @return the bit of the slot starting at given index of the array.
+         */
+        int bitAt(int index) {
+            int b = bitmap;
+            for (int i = 0; i < index; i += 2) {
+                b &= b - 1;
+            }
+            return Integer.lowestOneBit(b);
+        }
+
+        Object keyAt(int bit) {
+            return (bitmap & bit) == 0 ? NOT_FOUND : array[index(bit)];
+        }
+
+        Object valueAt(int bit) {
+            return (bitmap & bit) == 0 ? NOT_FOUND : array[index(bit) + 1];
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int bit = bit(shift, hash);
+            if ((bitmap & bit) == 0) {
+                return NOT_FOUND;
+            }
+            int i = index(bit);
+            Object k = array[i];
+            Object v = array[i + 1];
+            if (k == null) {
+                return ((Node) v).find(shift + BITS, hash, key);
+            }
+            return key.equals(k) ? v : NOT_FOUND;
+        }
+
+        @Override
+        Node put(Object owner, int shift, int hash,
+                 Object key, Object value, Result result) {
+            int bit = bit(shift, hash);
+            int i = index(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, i);
+                newArray[i] = key;
+                newArray[i + 1] = value;
+                System.arraycopy(array, i, newArray, i + 2, array.length - i);
+                return edit(owner, bitmap | bit, newArray);
+            }
+            Object k = array[i];
+            Object v = array[i + 1];
+            if (k == null) {
+                Node child = (Node) v;
+                Node newChild = child.put(owner, shift + BITS, hash, key, value, result);
+                return newChild == child ? this : set(owner, i, null, newChild);
+            } else if (key.equals(k)) {
+                result.oldValue = v;
+                return v == value ? this : set(owner, i, k, value);
+            } else {
+                Node child = createNode(owner, shift + BITS,
+                        k, v, hash(k), key, value, hash, result);
+                return set(owner, i, null, child);
+            }
+        }
+
+        @Override
+        Node remove(Object owner, int shift, int hash, Object key, Result result) {
+            int bit = bit(shift, hash);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int i = index(bit);
+            Object k = array[i];
+            Object v = array[i + 1];
+            if (k == null) {
+                Node child = (Node) v;
+                Node newChild = child.remove(owner, shift + BITS, hash, key, result);
+                if (newChild == child) {
+                    return this;
+                } else if (newChild != null) {
+                    return set(owner, i, null, newChild);
+                }
+            } else if (key.equals(k)) {
+                result.oldValue = v;
+            } else {
+                return this;
+            }
+            // removes the slot
+            if (bitmap == bit) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, newArray.length - i);
+            return edit(owner, bitmap ^ bit, newArray);
+        }
+
+        private Node set(Object owner, int i, Object key, Object value) {
+            Object[] newArray = editableArray(owner);
+            newArray[i] = key;
+            newArray[i + 1] = value;
+            return edit(owner, bitmap, newArray);
+        }
+
+        private Node edit(Object owner, int newBitmap, Object[] newArray) {
+            if (this.owner == owner) {
+                bitmap = newBitmap;
+                array = newArray;
+                return this;
+            }
+            return new BitmapNode(owner, newBitmap, newArray);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) {
+                    ((Node) array[i + 1]).forEach(action);
+                } else {
+                    action.accept(array[i], array[i + 1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Node holding the keys whose hashes are the same.
+     */
+    private static final class CollisionNode extends Node {
+
+        final int hash;
+
+        CollisionNode(Object owner, int hash, Object[] array) {
+            super(owner, array);
+            this.hash = hash;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            if (hash != this.hash) {
+                return NOT_FOUND;
+            }
+            int i = indexOf(key);
+            return i < 0 ? NOT_FOUND : array[i + 1];
+        }
+
+        @Override
+        Node put(Object owner, int shift, int hash,
+                 Object key, Object value, Result result) {
+            if (hash != this.hash) {
+                // nests this node in a bitmap node
+                Object[] newArray = {null, this};
+                return new BitmapNode(owner, BitmapNode.bit(shift, this.hash), newArray)
+                        .put(owner, shift, hash, key, value, result);
+            }
+            int i = indexOf(key);
+            Object[] newArray;
+            if (i < 0) {
+                newArray = Arrays.copyOf(array, array.length + 2);
+                newArray[array.length] = key;
+                newArray[array.length + 1] = value;
+            } else {
+                result.oldValue = array[i + 1];
+                if (array[i + 1] == value) {
+                    return this;
+                }
+                newArray = editableArray(owner);
+                newArray[i + 1] = value;
+            }
+            if (this.owner == owner) {
+                array = newArray;
+                return this;
+            }
+            return new CollisionNode(owner, hash, newArray);
+        }
+
+        @Override
+        Node remove(Object owner, int shift, int hash, Object key, Result result) {
+            int i = hash == this.hash ? indexOf(key) : -1;
+            if (i < 0) {
+                return this;
+            }
+            result.oldValue = array[i + 1];
+            if (array.length == 2) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, newArray.length - i);
+            if (this.owner == owner) {
+                array = newArray;
+                return this;
+            }
+            return new CollisionNode(owner, hash, newArray);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                action.accept(array[i], array[i + 1]);
+            }
+        }
+    }
+
+    /**
+     * Creates a node holding two keys.
+     */
+    private static Node createNode(Object owner, int shift,
+                                   Object key1, Object value1, int hash1,
+                                   Object key2, Object value2, int hash2,
+                                   Result result) {
+        if (hash1 == hash2) {
+            return new CollisionNode(owner, hash1,
+                    new Object[]{key1, value1, key2, value2});
+        }
+        return BitmapNode.EMPTY
+                .put(owner, shift, hash1, key1, value1, new Result())
+                .put(owner, shift, hash2, key2, value2, result);
+    }
+
+    /**
+     * Iterates the entries of a snapshot of the trie.
+     */
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+
+        /**
+         * Arrays of the nodes along the path being iterated. The depth of
+         * the trie is at most 7 bitmap levels plus a collision level.
+         */
+        private final Object[][] arrays = new Object[8][];
+
+        private final int[] positions = new int[8];
+
+        private int depth = -1;
+
+        private Entry<K, V> next;
+
+        private Entry<K, V> last;
+
+        private EntryIterator() {
+            if (root != null) {
+                push(root);
+                advance();
+            }
+        }
+
+        private void push(Node node) {
+            ++depth;
+            arrays[depth] = node.array;
+            positions[depth] = 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                Object[] array = arrays[depth];
+                int i = positions[depth];
+                if (i >= array.length) {
+                    arrays[depth--] = null;
+                    continue;
+                }
+                positions[depth] = i + 2;
+                if (array[i] == null) {
+                    push((Node) array[i + 1]);
+                } else {
+                    next = new SimpleImmutableEntry<>((K) array[i], (V) array[i + 1]);
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            advance();
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            // keeps the nodes being iterated unchanged
+            disown();
+            PersistentMap.this.remove(last.getKey());
+            last = null;
+        }
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.collection.TwoKeyMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Summary-based solver for inter-procedural constant propagation.
+ * <p>
+ * Instead of propagating facts along the call and return edges of
+ * the ICFG, this solver analyzes each method under calling contexts,
+ * i.e., the abstract values of its parameters, and computes a summary
+ * (jump function) for each context, i.e., the abstract value returned
+ * by the method under the context. The summaries are cached and reused
+ * at every call site that supplies the same argument values, so that
+ * the methods called from many places (e.g., utility methods) are analyzed
+ * once per distinct argument abstraction, instead of being re-analyzed
+ * whenever the facts of any of their callers change.
+ * <p>
+ * While the solver iterates, the argument values of a call site may still
+ * be partial (e.g., the value of a loop variable before the back edge is
+ * processed), so a call site may first use a context that it abandons later.
+ * Each call site (under each caller context) therefore records the context
+ * that it currently uses for each callee, and a context which is no longer
+ * used by any call site (except itself) is evicted together with its summary
+ * and results. Hence, the final results only consist of the contexts built
+ * from the final argument values.
+ * <p>
+ * To ensure termination (e.g., on recursive methods whose arguments change
+ * on every call), each method is analyzed under at most {@link #CONTEXT_LIMIT}
+ * live contexts, and the further calls to the method use the context in which
+ * all parameters are NAC, which is sound for any argument values.
+ * Contexts which only use each other (i.e., through mutual recursion)
+ * are not evicted, which is also bounded by the limit.
+ * <p>
+ * The fact of each node in the result is the meet of the facts of the node
+ * under all contexts of its containing method. The facts around call sites
+ * are the same as the ones computed by {@link InterSolver}, i.e., the OUT
+ * fact of a call site is its IN fact, and the return value flows to
+ * the successors of the call site.
+ */
+class CPSummarySolver {
+
+    /**
+     * Maximum number of contexts under which each method is analyzed.
+     */
+    static final int CONTEXT_LIMIT = 16;
+
+    private final ConstantPropagation cp;
+
+    private final ICFG<JMethod, Stmt> icfg;
+
+    /**
+     * Map from each context to the return value of the method under it.
+     */
+    private final Map<Context, Value> summaries = Maps.newMap();
+
+    /**
+     * Map from each context to the results of its method under it.
+     */
+    private final Map<Context, DataflowResult<Stmt, CPFact>> contextResults =
+            Maps.newMap();
+
+    /**
+     * Map from each context to the contexts (of the callers) which use
+     * its summary, and need to be re-analyzed when the summary changes.
+     */
+    private final MultiMap<Context, Context> dependents = Maps.newMultiMap();
+
+    /**
+     * Map from each context to the contexts that its call sites currently
+     * use, i.e., (call site, callee) -> callee context.
+     */
+    private final Map<Context, TwoKeyMap<Invoke, JMethod, Context>> calleeContexts =
+            Maps.newMap();
+
+    private final MultiMap<JMethod, Context> methodContexts = Maps.newMultiMap();
+
+    private final Set<Context> entryContexts = Sets.newSet();
+
+    /**
+     * Contexts which have been abandoned by some call sites, and are
+     * evicted if they are not used any more.
+     */
+    private final Queue<Context> released = new SetQueue<>();
+
+    private final Queue<Context> workList = new SetQueue<>();
+
+    CPSummarySolver(ConstantPropagation cp, ICFG<JMethod, Stmt> icfg) {
+        this.cp = cp;
+        this.icfg = icfg;
+    }
+
+    DataflowResult<Stmt, CPFact> solve() {
+        icfg.entryMethods().forEach(m -> {
+            Context context = getNACContext(m);
+            entryContexts.add(context);
+            addContext(context);
+        });
+        Context context;
+        while ((context = workList.poll()) != null) {
+            if (summaries.containsKey(context)) { // skip evicted contexts
+                analyze(context);
+                evictReleasedContexts();
+            }
+        }
+        return mergeResults();
+    }
+
+    /**
+     * Analyzes the method of given context under the context, and updates
+     * the summary of the context.
+     */
+    private void analyze(Context context) {
+        IR ir = context.method().getIR();
+        CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+        DataflowResult<Stmt, CPFact> result = new DataflowResult<>();
+        for (Stmt node : cfg) {
+            result.setInFact(node, cp.newInitialFact());
+            result.setOutFact(node, cp.newInitialFact());
+        }
+        for (int i = 0; i < ir.getParams().size(); ++i) {
+            Var param = ir.getParam(i);
+            if (ConstantPropagation.canHoldInt(param)) {
+                result.getInFact(cfg.getEntry()).update(param, context.args().get(i));
+                result.getOutFact(cfg.getEntry()).update(param, context.args().get(i));
+            }
+        }
+        // return values of the call sites in the method
+        Map<Stmt, Value> returnValues = Maps.newMap();
+        Queue<Stmt> nodes = new SetQueue<>();
+        nodes.addAll(cfg.getNodes());
+        Stmt node;
+        while ((node = nodes.poll()) != null) {
+            if (cfg.isEntry(node)) {
+                continue;
+            }
+            CPFact in = result.getInFact(node);
+            for (Stmt pred : cfg.getPredsOf(node)) {
+                CPFact predOut = result.getOutFact(pred);
+                if (icfg.isCallSite(pred)) {
+                    predOut = transferReturn((Invoke) pred, predOut,
+                            returnValues.get(pred));
+                }
+                cp.meetInto(predOut, in);
+            }
+            CPFact out = result.getOutFact(node);
+            boolean changed;
+            if (icfg.isCallSite(node)) {
+                Value returnValue = resolveCall(context, (Invoke) node, in);
+                changed = !returnValue.equals(returnValues.put(node, returnValue));
+                changed |= out.copyFrom(in);
+            } else {
+                changed = cp.transferNode(node, in, out);
+            }
+            if (changed) {
+                nodes.addAll(cfg.getSuccsOf(node));
+            }
+        }
+        contextResults.put(context, result);
+        CPFact exitOut = result.getOutFact(cfg.getExit());
+        Value returnValue = Value.getUndef();
+        for (Var returnVar : ir.getReturnVars()) {
+            returnValue = cp.meetValue(returnValue, exitOut.get(returnVar));
+        }
+        if (!returnValue.equals(summaries.put(context, returnValue))) {
+            workList.addAll(dependents.get(context));
+        }
+    }
+
+    /**
+     * Looks up (or creates) the summaries of the callees of given call site
+     * for the argument values given by {@code in}.
+     *
+     * @return the meet of the return values of all callees.
+     */
+    private Value resolveCall(Context caller, Invoke callSite, CPFact in) {
+        TwoKeyMap<Invoke, JMethod, Context> callees = calleeContexts
+                .computeIfAbsent(caller, unused -> Maps.newTwoKeyMap());
+        Value result = Value.getUndef();
+        for (JMethod callee : icfg.getCalleesOf(callSite)) {
+            Context context = getContext(callee, callSite.getInvokeExp(), in);
+            Context old = callees.put(callSite, callee, context);
+            if (!context.equals(old)) {
+                addContext(context);
+                dependents.put(context, caller);
+                if (old != null && !callees.values().contains(old)) {
+                    // caller does not use old context any more
+                    dependents.remove(old, caller);
+                    released.add(old);
+                }
+            }
+            result = cp.meetValue(result, summaries.get(context));
+        }
+        return result;
+    }
+
+    /**
+     * Evicts the released contexts which are not used by any other context,
+     * and transitively, the contexts used only by the evicted ones.
+     */
+    private void evictReleasedContexts() {
+        Context context;
+        while ((context = released.poll()) != null) {
+            if (!entryContexts.contains(context) &&
+                    summaries.containsKey(context) &&
+                    dependents.get(context).stream().allMatch(context::equals)) {
+                evict(context);
+            }
+        }
+    }
+
+    private void evict(Context context) {
+        summaries.remove(context);
+        contextResults.remove(context);
+        dependents.removeAll(context);
+        methodContexts.remove(context.method(), context);
+        TwoKeyMap<Invoke, JMethod, Context> callees =
+                calleeContexts.remove(context);
+        if (callees != null) {
+            callees.values().forEach(callee -> {
+                dependents.remove(callee, context);
+                released.add(callee);
+            });
+        }
+    }
+
+    /**
+     * @return the fact that flows from given call site to its successors,
+     * where the LHS variable of the call site holds the return value.
+     */
+    private static CPFact transferReturn(
+            Invoke callSite, CPFact out, Value returnValue) {
+        Var lhs = callSite.getResult();
+        if (lhs == null) {
+            return out;
+        }
+        CPFact result = out.copy();
+        result.remove(lhs);
+        if (returnValue != null && ConstantPropagation.canHoldInt(lhs)) {
+            result.update(lhs, returnValue);
+        }
+        return result;
+    }
+
+    private Context getContext(JMethod callee, InvokeExp invokeExp, CPFact in) {
+        IR ir = callee.getIR();
+        List<Value> args = new ArrayList<>(ir.getParams().size());
+        for (int i = 0; i < ir.getParams().size(); ++i) {
+            Var param = ir.getParam(i);
+            args.add(ConstantPropagation.canHoldInt(param) ?
+                    in.get(invokeExp.getArg(i)) : Value.getUndef());
+        }
+        Context context = new Context(callee, args);
+        if (!summaries.containsKey(context) &&
+                methodContexts.get(callee).size() >= CONTEXT_LIMIT) {
+            // fall back to the NAC context, which is sound for any arguments
+            return getNACContext(callee);
+        }
+        return context;
+    }
+
+    /**
+     * @return the context of given method in which all parameters are NAC.
+     */
+    private static Context getNACContext(JMethod method) {
+        IR ir = method.getIR();
+        List<Value> args = ir.getParams()
+                .stream()
+                .map(p -> ConstantPropagation.canHoldInt(p) ?
+                        Value.getNAC() : Value.getUndef())
+                .toList();
+        return new Context(method, args);
+    }
+
+    private void addContext(Context context) {
+        if (!summaries.containsKey(context)) {
+            summaries.put(context, Value.getUndef());
+            methodContexts.put(context.method(), context);
+            workList.add(context);
+        }
+    }
+
+    /**
+     * @return the argument values of the contexts under which given method
+     * is analyzed. This is used for testing.
+     */
+    Set<List<Value>> getContextArgs(JMethod method) {
+        return methodContexts.get(method)
+                .stream()
+                .map(Context::args)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Merges the results of all contexts into the result for the ICFG.
+     * The facts of the nodes in the methods which are never analyzed
+     * are the initial facts.
+     */
+    private DataflowResult<Stmt, CPFact> mergeResults() {
+        LazyDataflowResult<Stmt, CPFact> result =
+                new LazyDataflowResult<>(cp::newInitialFact);
+        contextResults.forEach((context, contextResult) -> {
+            CFG<Stmt> cfg = context.method().getIR().getResult(CFGBuilder.ID);
+            for (Stmt node : cfg) {
+                if (!result.contains(node)) {
+                    result.setInFact(node, cp.newInitialFact());
+                    result.setOutFact(node, cp.newInitialFact());
+                }
+                cp.meetInto(contextResult.getInFact(node), result.getInFact(node));
+                cp.meetInto(contextResult.getOutFact(node), result.getOutFact(node));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Calling context of a method, i.e., the values of its parameters.
+     * The values of the parameters which cannot hold int values are UNDEF.
+     */
+    private record Context(JMethod method, List<Value> args) {
+    }
+}
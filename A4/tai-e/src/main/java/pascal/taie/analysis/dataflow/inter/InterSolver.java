@@ -24,16 +24,43 @@ package pascal.taie.analysis.dataflow.inter;
 
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.LazyICFG;
+import pascal.taie.util.AnalysisException;
 import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.collection.Sets;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Queue;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 /**
  * Solver for inter-procedural data-flow analysis.
  * The workload of inter-procedural analysis is heavy, thus we always
  * adopt work-list algorithm for efficiency.
+ * <p>
+ * The nodes are scheduled by {@link InterNodeOrder#byComponents}, i.e.,
+ * the SCCs of the call graph are solved one by one, and a callee is solved
+ * before the return sites of its call sites are processed, see
+ * {@link #doSolve()}. If the parallelism is greater than 1, the SCCs
+ * are solved in parallel by a {@link ForkJoinPool}, see
+ * {@link #doSolveInParallel()}.
+ * <p>
+ * If the ICFG is a {@link LazyICFG}, the solver only visits the nodes
+ * reachable from the entry methods, see {@link #doSolveOnDemand()}.
  */
 class InterSolver<Method, Node, Fact> {
 
@@ -41,28 +68,408 @@ class InterSolver<Method, Node, Fact> {
 
     private final ICFG<Method, Node> icfg;
 
+    /**
+     * Whether schedules the nodes by {@link InterNodeOrder}. If this is
+     * false, the nodes are scheduled by the order given by
+     * {@link ICFG#getNodes()}, which is useful for measuring the effect
+     * of the node ordering.
+     */
+    private final boolean ordered;
+
+    /**
+     * Number of threads used by the solver.
+     */
+    private final int parallelism;
+
     private DataflowResult<Node, Fact> result;
 
-    private Queue<Node> workList;
+    private InterNodeOrder<Method, Node> order;
+
+    /**
+     * Number of node visits in the last solving.
+     */
+    private long nodeVisits;
 
     InterSolver(InterDataflowAnalysis<Node, Fact> analysis,
                 ICFG<Method, Node> icfg) {
+        this(analysis, icfg, 1);
+    }
+
+    InterSolver(InterDataflowAnalysis<Node, Fact> analysis,
+                ICFG<Method, Node> icfg, int parallelism) {
+        this(analysis, icfg, true, parallelism);
+    }
+
+    InterSolver(InterDataflowAnalysis<Node, Fact> analysis,
+                ICFG<Method, Node> icfg, boolean ordered) {
+        this(analysis, icfg, ordered, 1);
+    }
+
+    private InterSolver(InterDataflowAnalysis<Node, Fact> analysis,
+                        ICFG<Method, Node> icfg, boolean ordered, int parallelism) {
         this.analysis = analysis;
         this.icfg = icfg;
+        this.ordered = ordered;
+        this.parallelism = parallelism;
     }
 
     DataflowResult<Node, Fact> solve() {
+        if (icfg instanceof LazyICFG) {
+            doSolveOnDemand();
+            return result;
+        }
         result = new DataflowResult<>();
         initialize();
-        doSolve();
+        if (parallelism > 1) {
+            doSolveInParallel();
+        } else {
+            doSolve();
+        }
         return result;
     }
 
+    /**
+     * @return the number of node visits in the last solving.
+     */
+    long getNodeVisits() {
+        return nodeVisits;
+    }
+
     private void initialize() {
-        // TODO - finish me
+        Set<Node> entries = icfg.entryMethods()
+                .map(icfg::getEntryOf)
+                .collect(Collectors.toSet());
+        for (Node node : icfg) {
+            if (entries.contains(node)) {
+                result.setInFact(node, analysis.newBoundaryFact(node));
+                result.setOutFact(node, analysis.newBoundaryFact(node));
+            } else {
+                result.setInFact(node, analysis.newInitialFact());
+                result.setOutFact(node, analysis.newInitialFact());
+            }
+        }
+        order = ordered ?
+                InterNodeOrder.byComponents(icfg, analysis.isForward()) :
+                InterNodeOrder.unordered(icfg);
     }
 
+    /**
+     * Solves the SCCs of the call graph one by one. Each SCC is solved by
+     * a work-list which processes its nodes method by method in reverse
+     * postorder, until the SCC reaches a local fixed point. The changes
+     * that flow to other SCCs make their target nodes pending:
+     * <ul>
+     *     <li>If the target SCC comes after the current one in {@link #order}
+     *     (e.g., a callee reached by a call edge), the current SCC is
+     *     suspended, and the target SCC is solved first, so that the facts
+     *     returned by the callee are available when the current SCC
+     *     continues with the return sites.</li>
+     *     <li>Otherwise (e.g., a caller reached by a return edge), the target
+     *     SCC is solved again after the suspended SCCs are finished.</li>
+     * </ul>
+     * Thus, the SCCs are solved in topological order of the call graph,
+     * and each SCC is solved after the SCCs it flows to are up-to-date.
+     */
     private void doSolve() {
-        // TODO - finish me
+        int nComponents = order.getComponents().size();
+        List<Set<Node>> pending = new ArrayList<>(nComponents);
+        for (int i = 0; i < nComponents; ++i) {
+            pending.add(Sets.newSet());
+        }
+        BitSet pendingComponents = new BitSet(nComponents);
+        for (Node node : icfg) {
+            int component = order.getComponentOf(node);
+            pending.get(component).add(node);
+            pendingComponents.set(component);
+        }
+        // the work-lists of the SCCs being solved, the innermost is on the top
+        Deque<ComponentWorkList> stack = new ArrayDeque<>();
+        long visits = 0;
+        int first;
+        while ((first = pendingComponents.nextSetBit(0)) >= 0) {
+            stack.push(new ComponentWorkList(first));
+            while (!stack.isEmpty()) {
+                ComponentWorkList workList = stack.peek();
+                int component = workList.component;
+                if (pendingComponents.get(component)) {
+                    pendingComponents.clear(component);
+                    workList.addAll(pending.get(component));
+                    pending.get(component).clear();
+                }
+                Node node = workList.poll();
+                if (node == null) {
+                    stack.pop();
+                    continue;
+                }
+                ++visits;
+                if (transferNode(node)) {
+                    int next = nComponents;
+                    for (Node succ : icfg.getSuccsOf(node)) {
+                        int succComponent = order.getComponentOf(succ);
+                        if (succComponent == component) {
+                            workList.add(succ);
+                        } else {
+                            pending.get(succComponent).add(succ);
+                            pendingComponents.set(succComponent);
+                            if (succComponent > component) {
+                                next = Math.min(next, succComponent);
+                            }
+                        }
+                    }
+                    if (next < nComponents) {
+                        stack.push(new ComponentWorkList(next));
+                    }
+                }
+            }
+        }
+        nodeVisits = visits;
+    }
+
+    /**
+     * Work-list of the nodes of an SCC.
+     */
+    private class ComponentWorkList extends InterWorkList<Node> {
+
+        private final int component;
+
+        private ComponentWorkList(int component) {
+            super(order, order.getComponentStart(component),
+                    order.getComponentEnd(component));
+            this.component = component;
+        }
+    }
+
+    /**
+     * Solves the analysis on a {@link LazyICFG}, which is built along with
+     * the solving. Unlike {@link #doSolve()}, which visits all nodes of
+     * the ICFG, this method starts from the entries of the entry methods,
+     * and only visits the nodes reachable from them, so that the methods
+     * which are never reached are never built. On its first visit, a node
+     * always adds its successors to the work-list, even if its OUT fact
+     * does not change, thus every reachable node is visited at least once
+     * as in {@link #doSolve()}. The facts of the unreached nodes are
+     * the initial facts.
+     * <p>
+     * The nodes are processed in the order they are reached, as the order
+     * of the whole ICFG is unknown in advance, and the parallelism is
+     * ignored, as the ICFG is built by the solving thread.
+     */
+    private void doSolveOnDemand() {
+        LazyDataflowResult<Node, Fact> lazyResult =
+                new LazyDataflowResult<>(analysis::newInitialFact);
+        result = lazyResult;
+        Queue<Node> workList = new SetQueue<>();
+        icfg.entryMethods().map(icfg::getEntryOf).forEach(entry -> {
+            result.setInFact(entry, analysis.newBoundaryFact(entry));
+            result.setOutFact(entry, analysis.newBoundaryFact(entry));
+            workList.add(entry);
+        });
+        Set<Node> visited = Sets.newSet();
+        long visits = 0;
+        Node node;
+        while ((node = workList.poll()) != null) {
+            ++visits;
+            if (!lazyResult.contains(node)) {
+                result.setInFact(node, analysis.newInitialFact());
+                result.setOutFact(node, analysis.newInitialFact());
+            }
+            boolean firstVisit = visited.add(node);
+            if (transferNode(node) || firstVisit) {
+                workList.addAll(icfg.getSuccsOf(node));
+            }
+        }
+        nodeVisits = visits;
+    }
+
+    /**
+     * Meets the facts flowing into given node, and applies node transfer.
+     *
+     * @return true if the OUT fact of the node changed, otherwise false.
+     */
+    private boolean transferNode(Node node) {
+        Fact in = result.getInFact(node);
+        for (ICFGEdge<Node> inEdge : icfg.getInEdgesOf(node)) {
+            Fact predOut = result.getOutFact(inEdge.getSource());
+            analysis.meetInto(analysis.transferEdge(inEdge, predOut), in);
+        }
+        return analysis.transferNode(node, in, result.getOutFact(node));
+    }
+
+    /**
+     * Solves the SCCs of the call graph in parallel.
+     * <p>
+     * The solving proceeds in rounds. In each round, every SCC is solved
+     * after all its preceding SCCs (e.g., the SCCs of its callers in forward
+     * analyses) have been solved in the round, and the SCCs which do not
+     * depend on each other (e.g., the leaf SCCs) are solved concurrently.
+     * A task solving an SCC only processes the nodes of the SCC; the changes
+     * that flow to the nodes of the succeeding SCCs are handled later
+     * in the same round, and the changes that flow back to the preceding
+     * SCCs (e.g., via return edges) are handled in the next round.
+     * The solving finishes when no node is pending.
+     * <p>
+     * There is no ICFG edge between the SCCs that are solved concurrently,
+     * thus each task only modifies the facts of its own nodes, and only reads
+     * the facts of the nodes in the finished SCCs. As the analysis is
+     * monotone, the result is the same fixed point as the one computed
+     * by {@link #doSolve()}, regardless of the scheduling of the tasks.
+     */
+    private void doSolveInParallel() {
+        int nComponents = order.getComponents().size();
+        // pending nodes of each SCC
+        List<Set<Node>> pending = new ArrayList<>(nComponents);
+        for (int i = 0; i < nComponents; ++i) {
+            Set<Node> nodes = ConcurrentHashMap.newKeySet();
+            for (int pos = order.getComponentStart(i);
+                 pos < order.getComponentEnd(i); ++pos) {
+                nodes.add(order.getNode(pos));
+            }
+            pending.add(nodes);
+        }
+        List<Set<Integer>> succComponents = computeSuccComponents(nComponents);
+        int[] predCounts = new int[nComponents];
+        succComponents.forEach(succs -> succs.forEach(s -> ++predCounts[s]));
+        LongAdder visits = new LongAdder();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            while (pending.stream().anyMatch(nodes -> !nodes.isEmpty())) {
+                new Round(pool, pending, succComponents, predCounts, visits).run();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        nodeVisits = visits.sum();
+    }
+
+    /**
+     * @return the succeeding SCCs of each SCC, i.e., the SCCs containing
+     * the nodes which the nodes of the SCC flow to.
+     */
+    private List<Set<Integer>> computeSuccComponents(int nComponents) {
+        List<Set<Integer>> succComponents = new ArrayList<>(nComponents);
+        for (int i = 0; i < nComponents; ++i) {
+            Set<Integer> succs = new TreeSet<>();
+            for (int pos = order.getComponentStart(i);
+                 pos < order.getComponentEnd(i); ++pos) {
+                for (Node succ : icfg.getSuccsOf(order.getNode(pos))) {
+                    int s = order.getComponentOf(succ);
+                    if (s > i) {
+                        succs.add(s);
+                    }
+                }
+            }
+            succComponents.add(succs);
+        }
+        return succComponents;
+    }
+
+    /**
+     * A round of parallel solving, which solves every SCC once.
+     */
+    private class Round {
+
+        private final ForkJoinPool pool;
+
+        private final List<Set<Node>> pending;
+
+        private final List<Set<Integer>> succComponents;
+
+        /**
+         * Number of the unsolved preceding SCCs of each SCC.
+         */
+        private final AtomicIntegerArray remaining;
+
+        private final LongAdder visits;
+
+        private final CountDownLatch done;
+
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        /**
+         * The SCCs which have no preceding SCC.
+         */
+        private final List<Integer> roots = new ArrayList<>();
+
+        private Round(ForkJoinPool pool, List<Set<Node>> pending,
+                      List<Set<Integer>> succComponents, int[] predCounts,
+                      LongAdder visits) {
+            this.pool = pool;
+            this.pending = pending;
+            this.succComponents = succComponents;
+            this.remaining = new AtomicIntegerArray(predCounts);
+            for (int i = 0; i < predCounts.length; ++i) {
+                if (predCounts[i] == 0) {
+                    roots.add(i);
+                }
+            }
+            this.visits = visits;
+            this.done = new CountDownLatch(predCounts.length);
+        }
+
+        private void run() {
+            // the other SCCs are submitted by their last preceding SCCs,
+            // so we must not check the remaining counts here
+            roots.forEach(this::submit);
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AnalysisException("Interrupted while solving", e);
+            }
+            Throwable t = failure.get();
+            if (t != null) {
+                throw t instanceof RuntimeException e ?
+                        e : new AnalysisException(t);
+            }
+        }
+
+        private void submit(int component) {
+            pool.execute(() -> {
+                try {
+                    if (failure.get() == null) {
+                        solveComponent(component);
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    for (int succ : succComponents.get(component)) {
+                        if (remaining.decrementAndGet(succ) == 0) {
+                            submit(succ);
+                        }
+                    }
+                    done.countDown();
+                }
+            });
+        }
+
+        private void solveComponent(int component) {
+            Set<Node> nodes = pending.get(component);
+            if (nodes.isEmpty()) {
+                return;
+            }
+            int from = order.getComponentStart(component);
+            int to = order.getComponentEnd(component);
+            InterWorkList<Node> workList = new InterWorkList<>(order, from, to);
+            for (Iterator<Node> it = nodes.iterator(); it.hasNext(); ) {
+                workList.add(it.next());
+                it.remove();
+            }
+            long count = 0;
+            Node node;
+            while ((node = workList.poll()) != null) {
+                ++count;
+                if (transferNode(node)) {
+                    for (Node succ : icfg.getSuccsOf(node)) {
+                        int pos = order.getPosition(succ);
+                        if (from <= pos && pos < to) {
+                            workList.add(succ);
+                        } else {
+                            pending.get(order.getComponentOf(succ)).add(succ);
+                        }
+                    }
+                }
+            }
+            visits.add(count);
+        }
     }
 }
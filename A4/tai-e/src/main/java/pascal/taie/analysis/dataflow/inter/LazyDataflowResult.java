@@ -0,0 +1,63 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+
+import java.util.function.Supplier;
+
+/**
+ * Data-flow result for the solvers which only compute the facts of
+ * the nodes they reach. The facts of the other nodes are the initial
+ * facts, which are created on each query and are not stored.
+ *
+ * @param <Node> type of ICFG nodes
+ * @param <Fact> type of data-flow facts
+ */
+class LazyDataflowResult<Node, Fact> extends DataflowResult<Node, Fact> {
+
+    private final Supplier<Fact> initialFact;
+
+    LazyDataflowResult(Supplier<Fact> initialFact) {
+        this.initialFact = initialFact;
+    }
+
+    @Override
+    public Fact getInFact(Node node) {
+        Fact fact = super.getInFact(node);
+        return fact != null ? fact : initialFact.get();
+    }
+
+    @Override
+    public Fact getOutFact(Node node) {
+        Fact fact = super.getOutFact(node);
+        return fact != null ? fact : initialFact.get();
+    }
+
+    /**
+     * @return true if the facts of given node have been set, otherwise false.
+     */
+    boolean contains(Node node) {
+        return super.getOutFact(node) != null;
+    }
+}
@@ -22,6 +22,7 @@
 
 package pascal.taie.analysis.graph.callgraph;
 
+import pascal.taie.util.collection.ConcurrentMultiMap;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
 import pascal.taie.util.collection.Sets;
@@ -45,12 +46,40 @@ import java.util.stream.Stream;
 public abstract class AbstractCallGraph<CallSite, Method>
         implements CallGraph<CallSite, Method> {
 
-    protected final MultiMap<CallSite, Edge<CallSite, Method>> callSiteToEdges = Maps.newMultiMap();
-    protected final MultiMap<Method, Edge<CallSite, Method>> calleeToEdges = Maps.newMultiMap();
-    protected final Map<CallSite, Method> callSiteToContainer = Maps.newMap();
-    protected final MultiMap<Method, CallSite> callSitesIn = Maps.newMultiMap(Sets::newHybridOrderedSet);
-    protected final Set<Method> entryMethods = Sets.newSet();
-    protected final Set<Method> reachableMethods = Sets.newSet();
+    protected final MultiMap<CallSite, Edge<CallSite, Method>> callSiteToEdges;
+    protected final MultiMap<Method, Edge<CallSite, Method>> calleeToEdges;
+    protected final Map<CallSite, Method> callSiteToContainer;
+    protected final MultiMap<Method, CallSite> callSitesIn;
+    protected final Set<Method> entryMethods;
+    protected final Set<Method> reachableMethods;
+
+    protected AbstractCallGraph() {
+        this(false);
+    }
+
+    /**
+     * @param concurrent whether this call graph can be modified and queried
+     *                   by multiple threads concurrently. If so, the data
+     *                   structures are backed by concurrent maps and sets,
+     *                   and the call sites in each method must be added at once.
+     */
+    protected AbstractCallGraph(boolean concurrent) {
+        if (concurrent) {
+            callSiteToEdges = new ConcurrentMultiMap<>();
+            calleeToEdges = new ConcurrentMultiMap<>();
+            callSiteToContainer = Maps.newConcurrentMap();
+            callSitesIn = new ConcurrentMultiMap<>(Sets::newHybridOrderedSet);
+            entryMethods = Sets.newConcurrentSet();
+            reachableMethods = Sets.newConcurrentSet();
+        } else {
+            callSiteToEdges = Maps.newMultiMap();
+            calleeToEdges = Maps.newMultiMap();
+            callSiteToContainer = Maps.newMap();
+            callSitesIn = Maps.newMultiMap(Sets::newHybridOrderedSet);
+            entryMethods = Sets.newSet();
+            reachableMethods = Sets.newSet();
+        }
+    }
 
     @Override
     public Set<CallSite> getCallersOf(Method callee) {
@@ -29,37 +29,296 @@ import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.classes.Subsignature;
+import pascal.taie.util.collection.ConcurrentMultiMap;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
 
 /**
  * Implementation of the CHA algorithm.
+ * <p>
+ * In incremental mode, the builder keeps the call graph after building,
+ * and updates it in place when new classes are added into the class
+ * hierarchy (e.g., loaded on demand by later analyses). A new class can
+ * only change the targets of the virtual and interface call sites whose
+ * method references are declared in its supertypes, thus only these
+ * call sites are resolved again, and the methods which become reachable
+ * from the new targets are then processed as in the initial building.
+ * As a new class never removes any target of a call site, the existing
+ * edges are kept unchanged. The builder listens to the class hierarchy
+ * until {@link #stopUpdating()} is called. Note that only the call graph
+ * is updated: the results derived from it (e.g., the ICFG, and the results
+ * of inter-procedural analyses) are not notified, and become stale when
+ * the call graph changes, so they need to be rebuilt by the clients.
+ * <p>
+ * In parallel mode, the call graph is built by expanding the frontier of
+ * reachable methods level by level, and the methods of each frontier are
+ * processed by multiple threads. This is sound as CHA resolution only
+ * reads the class hierarchy, and the call graph is a concurrent one.
  */
 class CHABuilder implements CGBuilder<Invoke, JMethod> {
 
     private ClassHierarchy hierarchy;
 
+    /**
+     * Whether updates the call graph when new classes are added.
+     */
+    private final boolean incremental;
+
+    /**
+     * Whether resolves virtual and interface calls via the subtype index
+     * of the class hierarchy instead of traversing the direct subtypes.
+     */
+    private final boolean useSubtypeIndex;
+
+    /**
+     * Whether builds the call graph in parallel.
+     */
+    private final boolean parallel;
+
+    /**
+     * The frontier methods processed by a task without further splitting.
+     */
+    private static final int THRESHOLD = 8;
+
+    private DefaultCallGraph callGraph;
+
+    /**
+     * The listener registered to the class hierarchy in incremental mode.
+     */
+    private Consumer<JClass> classListener;
+
+    /**
+     * Map from each class to the virtual and interface call sites
+     * (in reachable methods) whose method references are declared in it.
+     */
+    private final MultiMap<JClass, Invoke> virtualCallSites;
+
+    CHABuilder() {
+        this(false, false, false);
+    }
+
+    CHABuilder(boolean incremental, boolean useSubtypeIndex, boolean parallel) {
+        this.incremental = incremental;
+        this.useSubtypeIndex = useSubtypeIndex;
+        this.parallel = parallel;
+        this.virtualCallSites = parallel ?
+                new ConcurrentMultiMap<>() : Maps.newMultiMap();
+    }
+
     @Override
     public CallGraph<Invoke, JMethod> build() {
+        stopUpdating();
         hierarchy = World.get().getClassHierarchy();
-        return buildCallGraph(World.get().getMainMethod());
+        JMethod main = World.get().getMainMethod();
+        CallGraph<Invoke, JMethod> result = parallel ?
+                buildCallGraphInParallel(main) : buildCallGraph(main);
+        if (incremental) {
+            classListener = this::onNewClass;
+            hierarchy.addClassListener(classListener);
+        }
+        return result;
+    }
+
+    /**
+     * Stops updating the call graph built by this builder when new classes
+     * are added, i.e., unregisters the listener from the class hierarchy.
+     * This is a no-op in non-incremental mode.
+     */
+    void stopUpdating() {
+        if (classListener != null) {
+            hierarchy.removeClassListener(classListener);
+            classListener = null;
+        }
     }
 
     private CallGraph<Invoke, JMethod> buildCallGraph(JMethod entry) {
-        DefaultCallGraph callGraph = new DefaultCallGraph();
+        callGraph = new DefaultCallGraph();
+        callGraph.addEntryMethod(entry);
+        Queue<JMethod> workList = new ArrayDeque<>();
+        workList.add(entry);
+        processWorkList(workList);
+        return callGraph;
+    }
+
+    /**
+     * Builds the call graph by expanding the frontier of reachable methods:
+     * the methods in the current frontier are processed in parallel, and
+     * the callees newly added to the call graph form the next frontier.
+     * As the call graph is concurrent, each method is added (and thus
+     * processed) by exactly one thread.
+     */
+    private CallGraph<Invoke, JMethod> buildCallGraphInParallel(JMethod entry) {
+        callGraph = new DefaultCallGraph(true);
         callGraph.addEntryMethod(entry);
-        // TODO - finish me
+        callGraph.addReachableMethod(entry);
+        ForkJoinPool pool = new ForkJoinPool(
+                Runtime.getRuntime().availableProcessors());
+        try {
+            JMethod[] frontier = {entry};
+            while (frontier.length > 0) {
+                Queue<JMethod> next = new ConcurrentLinkedQueue<>();
+                pool.invoke(new ExpansionTask(frontier, 0, frontier.length, next));
+                frontier = next.toArray(new JMethod[0]);
+            }
+        } finally {
+            pool.shutdown();
+        }
         return callGraph;
     }
 
+    /**
+     * Processes the methods in the work-list until it is empty, i.e.,
+     * adds the methods to the call graph, and resolves the call sites
+     * in the newly reachable methods.
+     */
+    private void processWorkList(Queue<JMethod> workList) {
+        while (!workList.isEmpty()) {
+            JMethod method = workList.poll();
+            if (callGraph.addReachableMethod(method)) {
+                processCallSites(method, workList::add);
+            }
+        }
+    }
+
+    /**
+     * Resolves the call sites in given reachable method, adds the
+     * corresponding call edges, and passes the callees to {@code callees}.
+     */
+    private void processCallSites(JMethod method, Consumer<JMethod> callees) {
+        callGraph.callSitesIn(method).forEach(callSite -> {
+            CallKind kind = CallGraphs.getCallKind(callSite);
+            if (incremental &&
+                    (kind == CallKind.VIRTUAL || kind == CallKind.INTERFACE)) {
+                virtualCallSites.put(
+                        callSite.getMethodRef().getDeclaringClass(), callSite);
+            }
+            for (JMethod callee : resolve(callSite)) {
+                callGraph.addEdge(new Edge<>(kind, callSite, callee));
+                callees.accept(callee);
+            }
+        });
+    }
+
+    /**
+     * Updates the call graph for a class newly added into the class hierarchy.
+     */
+    private void onNewClass(JClass jclass) {
+        Queue<JMethod> workList = new ArrayDeque<>();
+        for (JClass supertype : getSupertypesOf(jclass)) {
+            for (Invoke callSite : virtualCallSites.get(supertype)) {
+                updateCallSite(callSite, workList);
+            }
+        }
+        processWorkList(workList);
+    }
+
+    /**
+     * Resolves given call site again, and adds the edges to the new targets.
+     * The new callees are added to the work-list.
+     */
+    private void updateCallSite(Invoke callSite, Queue<JMethod> workList) {
+        CallKind kind = CallGraphs.getCallKind(callSite);
+        for (JMethod callee : resolve(callSite)) {
+            if (callGraph.addEdge(new Edge<>(kind, callSite, callee))) {
+                workList.add(callee);
+            }
+        }
+    }
+
+    /**
+     * @return given class and all its (direct and indirect) superclasses
+     * and superinterfaces.
+     */
+    static Set<JClass> getSupertypesOf(JClass jclass) {
+        Set<JClass> supertypes = Sets.newSet();
+        Queue<JClass> queue = new ArrayDeque<>();
+        supertypes.add(jclass);
+        queue.add(jclass);
+        while (!queue.isEmpty()) {
+            JClass c = queue.poll();
+            JClass superClass = c.getSuperClass();
+            if (superClass != null && supertypes.add(superClass)) {
+                queue.add(superClass);
+            }
+            for (JClass iface : c.getInterfaces()) {
+                if (supertypes.add(iface)) {
+                    queue.add(iface);
+                }
+            }
+        }
+        return supertypes;
+    }
+
     /**
      * Resolves call targets (callees) of a call site via CHA.
      */
     private Set<JMethod> resolve(Invoke callSite) {
-        // TODO - finish me
-        return null;
+        MethodRef methodRef = callSite.getMethodRef();
+        JClass declaringClass = methodRef.getDeclaringClass();
+        Subsignature subsignature = methodRef.getSubsignature();
+        Set<JMethod> targets = Sets.newSet();
+        switch (CallGraphs.getCallKind(callSite)) {
+            case STATIC -> addIfNonNull(targets,
+                    declaringClass.getDeclaredMethod(subsignature));
+            case SPECIAL -> addIfNonNull(targets,
+                    dispatch(declaringClass, subsignature));
+            case VIRTUAL, INTERFACE -> {
+                if (useSubtypeIndex) {
+                    // the index is rebuilt on demand if new classes are added
+                    hierarchy.getSubtypeIndex()
+                            .getConcreteSubtypesOf(declaringClass)
+                            .forEach(c -> addIfNonNull(targets,
+                                    dispatch(c, subsignature)));
+                } else {
+                    // traverses the declaring class and all its subtypes
+                    Queue<JClass> queue = new ArrayDeque<>();
+                    Set<JClass> visited = Sets.newSet();
+                    queue.add(declaringClass);
+                    visited.add(declaringClass);
+                    while (!queue.isEmpty()) {
+                        JClass jclass = queue.poll();
+                        if (!jclass.isAbstract()) {
+                            addIfNonNull(targets, dispatch(jclass, subsignature));
+                        }
+                        for (JClass subtype : getDirectSubtypesOf(jclass)) {
+                            if (visited.add(subtype)) {
+                                queue.add(subtype);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return targets;
+    }
+
+    private Collection<JClass> getDirectSubtypesOf(JClass jclass) {
+        if (jclass.isInterface()) {
+            List<JClass> subtypes = new ArrayList<>(
+                    hierarchy.getDirectSubinterfacesOf(jclass));
+            subtypes.addAll(hierarchy.getDirectImplementorsOf(jclass));
+            return subtypes;
+        } else {
+            return hierarchy.getDirectSubclassesOf(jclass);
+        }
+    }
+
+    private static void addIfNonNull(Set<JMethod> targets, JMethod method) {
+        if (method != null) {
+            targets.add(method);
+        }
     }
 
     /**
@@ -69,7 +328,50 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
      * can be found.
      */
     private JMethod dispatch(JClass jclass, Subsignature subsignature) {
-        // TODO - finish me
-        return null;
+        // the lookups are memoized by the class hierarchy, as the same
+        // subsignature (e.g., toString()) is dispatched on many classes
+        return hierarchy.dispatch(jclass, subsignature);
+    }
+
+    /**
+     * Processes a slice of the frontier, and collects the callees
+     * which are newly added to the call graph.
+     */
+    private class ExpansionTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final JMethod[] frontier;
+
+        private final int from;
+
+        private final int to;
+
+        private final Queue<JMethod> next;
+
+        private ExpansionTask(JMethod[] frontier, int from, int to,
+                              Queue<JMethod> next) {
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+            this.next = next;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to; ++i) {
+                    processCallSites(frontier[i], callee -> {
+                        if (callGraph.addReachableMethod(callee)) {
+                            next.add(callee);
+                        }
+                    });
+                }
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ExpansionTask(frontier, from, mid, next),
+                        new ExpansionTask(frontier, mid, to, next));
+            }
+        }
     }
 }
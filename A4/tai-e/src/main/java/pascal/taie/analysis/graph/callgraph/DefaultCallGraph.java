@@ -26,6 +26,8 @@ import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.language.classes.JMethod;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -33,6 +35,18 @@ import java.util.Set;
  */
 public class DefaultCallGraph extends AbstractCallGraph<Invoke, JMethod> {
 
+    public DefaultCallGraph() {
+        this(false);
+    }
+
+    /**
+     * @param concurrent whether this call graph can be modified
+     *                   by multiple threads concurrently.
+     */
+    public DefaultCallGraph(boolean concurrent) {
+        super(concurrent);
+    }
+
     /**
      * Adds an entry method to this call graph.
      */
@@ -49,12 +63,16 @@ public class DefaultCallGraph extends AbstractCallGraph<Invoke, JMethod> {
     public boolean addReachableMethod(JMethod method) {
         if (reachableMethods.add(method)) {
             if (!method.isAbstract()) {
+                // adds all call sites at once, which is required
+                // by the concurrent call graph
+                List<Invoke> callSites = new ArrayList<>();
                 method.getIR().forEach(stmt -> {
                     if (stmt instanceof Invoke invoke) {
                         callSiteToContainer.put(invoke, method);
-                        callSitesIn.put(method, invoke);
+                        callSites.add(invoke);
                     }
                 });
+                callSitesIn.putAll(method, callSites);
             }
             return true;
         }
@@ -0,0 +1,175 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.World;
+import pascal.taie.ir.exp.ClassLiteral;
+import pascal.taie.ir.exp.Literal;
+import pascal.taie.ir.exp.NewExp;
+import pascal.taie.ir.exp.NewInstance;
+import pascal.taie.ir.exp.StringLiteral;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.ClassNames;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Implementation of Rapid Type Analysis (RTA).
+ * <p>
+ * Compared to CHA, RTA additionally tracks the classes instantiated in
+ * the reachable methods, and dispatches virtual and interface calls only
+ * on the instantiated subtypes of the declaring classes of the callees,
+ * which gives much smaller call graphs at similar cost.
+ * <p>
+ * The instantiated classes grow with the reachable methods, thus when
+ * a class becomes instantiated, the virtual call sites (in the reachable
+ * methods) whose method references are declared in its supertypes are
+ * dispatched on it as well. Besides {@link New} statements, string and
+ * class constants are considered as instances of {@code java.lang.String}
+ * and {@code java.lang.Class}, and arrays as instances of
+ * {@code java.lang.Object} (for the calls on arrays).
+ */
+class RTABuilder implements CGBuilder<Invoke, JMethod> {
+
+    private ClassHierarchy hierarchy;
+
+    private DefaultCallGraph callGraph;
+
+    private Queue<JMethod> workList;
+
+    /**
+     * Classes instantiated in the reachable methods.
+     */
+    private final Set<JClass> instantiatedClasses = Sets.newSet();
+
+    /**
+     * Map from each type to its instantiated subtypes (including itself),
+     * so that a new call site is dispatched only on the relevant classes.
+     */
+    private final MultiMap<JClass, JClass> instantiatedSubtypes = Maps.newMultiMap();
+
+    /**
+     * Map from each class to the virtual and interface call sites
+     * (in reachable methods) whose method references are declared in it.
+     */
+    private final MultiMap<JClass, Invoke> virtualCallSites = Maps.newMultiMap();
+
+    @Override
+    public CallGraph<Invoke, JMethod> build() {
+        hierarchy = World.get().getClassHierarchy();
+        JMethod entry = World.get().getMainMethod();
+        callGraph = new DefaultCallGraph();
+        callGraph.addEntryMethod(entry);
+        workList = new ArrayDeque<>();
+        workList.add(entry);
+        while (!workList.isEmpty()) {
+            JMethod method = workList.poll();
+            if (callGraph.addReachableMethod(method)) {
+                processNewMethod(method);
+            }
+        }
+        return callGraph;
+    }
+
+    /**
+     * Processes the instantiations and call sites in a new reachable method.
+     */
+    private void processNewMethod(JMethod method) {
+        if (!method.isAbstract()) {
+            for (Stmt stmt : method.getIR()) {
+                if (stmt instanceof New newStmt) {
+                    NewExp newExp = newStmt.getRValue();
+                    instantiate(newExp instanceof NewInstance newInstance ?
+                            newInstance.getType().getJClass() :
+                            hierarchy.getJREClass(ClassNames.OBJECT));
+                } else if (stmt instanceof AssignLiteral assign) {
+                    Literal literal = assign.getRValue();
+                    if (literal instanceof StringLiteral) {
+                        instantiate(hierarchy.getJREClass(ClassNames.STRING));
+                    } else if (literal instanceof ClassLiteral) {
+                        instantiate(hierarchy.getJREClass(ClassNames.CLASS));
+                    }
+                }
+            }
+        }
+        callGraph.callSitesIn(method).forEach(callSite -> {
+            MethodRef methodRef = callSite.getMethodRef();
+            JClass declaringClass = methodRef.getDeclaringClass();
+            switch (CallGraphs.getCallKind(callSite)) {
+                case STATIC -> addEdge(callSite,
+                        declaringClass.getDeclaredMethod(methodRef.getSubsignature()));
+                case SPECIAL -> addEdge(callSite,
+                        hierarchy.dispatch(declaringClass, methodRef.getSubsignature()));
+                case VIRTUAL, INTERFACE -> {
+                    virtualCallSites.put(declaringClass, callSite);
+                    for (JClass jclass : instantiatedSubtypes.get(declaringClass)) {
+                        dispatchOn(callSite, jclass);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Marks given class as instantiated, and dispatches the relevant
+     * virtual call sites on it.
+     */
+    private void instantiate(JClass jclass) {
+        if (jclass != null && instantiatedClasses.add(jclass)) {
+            for (JClass supertype : CHABuilder.getSupertypesOf(jclass)) {
+                instantiatedSubtypes.put(supertype, jclass);
+                for (Invoke callSite : virtualCallSites.get(supertype)) {
+                    dispatchOn(callSite, jclass);
+                }
+            }
+        }
+    }
+
+    private void dispatchOn(Invoke callSite, JClass receiverClass) {
+        addEdge(callSite, hierarchy.dispatch(receiverClass,
+                callSite.getMethodRef().getSubsignature()));
+    }
+
+    /**
+     * Adds a call edge to given callee (if non-null), and adds the callee
+     * to the work-list if the edge is new.
+     */
+    private void addEdge(Invoke callSite, JMethod callee) {
+        if (callee != null && callGraph.addEdge(new Edge<>(
+                CallGraphs.getCallKind(callSite), callSite, callee))) {
+            workList.add(callee);
+        }
+    }
+}
@@ -26,6 +26,7 @@ import pascal.taie.ir.proginfo.MethodRef;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 /**
@@ -50,6 +51,17 @@ public interface ClassHierarchy {
      */
     void addClass(JClass jclass);
 
+    /**
+     * Registers a listener which is notified after each JClass
+     * is added into class hierarchy by {@link #addClass(JClass)}.
+     */
+    void addClassListener(Consumer<JClass> listener);
+
+    /**
+     * Unregisters a listener added by {@link #addClassListener(Consumer)}.
+     */
+    void removeClassListener(Consumer<JClass> listener);
+
     Stream<JClass> allClasses();
 
     Stream<JClass> applicationClasses();
@@ -75,6 +87,13 @@ public interface ClassHierarchy {
      */
     Collection<JClass> getDirectSubclassesOf(JClass jclass);
 
+    /**
+     * @return the index of the transitive subtype relation among all classes
+     * in this class hierarchy. The index is built on the first call, and
+     * is rebuilt on demand after new classes are added.
+     */
+    SubtypeIndex getSubtypeIndex();
+
     /**
      * Obtains a JRE class by it name.
      *
@@ -87,6 +106,17 @@ public interface ClassHierarchy {
 
     @Nullable JMethod resolveMethod(MethodRef methodRef);
 
+    /**
+     * Dispatches a method on given receiver class, i.e., looks up the
+     * non-abstract method of given subsignature in the receiver class,
+     * its superclasses and then its superinterfaces (for default methods).
+     * The results are cached, and this method is safe to be called
+     * concurrently.
+     *
+     * @return the dispatched method, or null if no such method exists.
+     */
+    @Nullable JMethod dispatch(JClass receiverClass, Subsignature subsignature);
+
     /**
      * Obtains a method declared in a JRE class by its signature.
      *
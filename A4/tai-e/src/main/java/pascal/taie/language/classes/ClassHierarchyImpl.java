@@ -28,9 +28,12 @@ import pascal.taie.ir.proginfo.MethodRef;
 import pascal.taie.util.AnalysisException;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -65,6 +68,23 @@ public class ClassHierarchyImpl implements ClassHierarchy {
      */
     private final Map<JClass, Set<JClass>> directSubclasses = newMap();
 
+    /**
+     * Listeners which are notified after each class is added.
+     */
+    private final List<Consumer<JClass>> classListeners = new ArrayList<>();
+
+    /**
+     * Caches the results of method dispatch.
+     */
+    private final DispatchCache dispatchCache = new DispatchCache(
+            (c, subsig) -> lookupMethod(c, subsig, false));
+
+    /**
+     * Index of the subtype relation, which is built on demand and
+     * dropped when new classes are added.
+     */
+    private volatile SubtypeIndex subtypeIndex;
+
     @Override
     public void setDefaultClassLoader(JClassLoader loader) {
         this.defaultLoader = loader;
@@ -117,6 +137,18 @@ public class ClassHierarchyImpl implements ClassHierarchy {
                         .add(jclass);
             }
         }
+        subtypeIndex = null;
+        classListeners.forEach(listener -> listener.accept(jclass));
+    }
+
+    @Override
+    public void addClassListener(Consumer<JClass> listener) {
+        classListeners.add(listener);
+    }
+
+    @Override
+    public void removeClassListener(Consumer<JClass> listener) {
+        classListeners.remove(listener);
     }
 
     @Override
@@ -160,6 +192,21 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         return directSubclasses.getOrDefault(jclass, Set.of());
     }
 
+    @Override
+    public SubtypeIndex getSubtypeIndex() {
+        SubtypeIndex index = subtypeIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = subtypeIndex;
+                if (index == null) {
+                    subtypeIndex = index = new SubtypeIndex(
+                            allClasses().toList());
+                }
+            }
+        }
+        return index;
+    }
+
     private static boolean checkCHA = false;
 
     public static void setCheckCHA(boolean checkCHA) {
@@ -193,6 +240,16 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         return null;
     }
 
+    @Override
+    public @Nullable
+    JMethod dispatch(JClass receiverClass, Subsignature subsignature) {
+        JMethod method = dispatchCache.get(receiverClass, subsignature);
+        if (method == null) {
+            logger.debug("Failed to dispatch {} on {}", subsignature, receiverClass);
+        }
+        return method;
+    }
+
     private JMethod lookupMethod(JClass jclass, Subsignature subsignature,
                                  boolean allowAbstract) {
         for (JClass c = jclass; c != null; c = c.getSuperClass()) {
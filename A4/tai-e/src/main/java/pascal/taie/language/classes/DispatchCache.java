@@ -0,0 +1,100 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.language.classes;
+
+import pascal.taie.util.collection.Maps;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Memo table of the results of method dispatch, which maps each receiver
+ * class and method subsignature to the dispatched method.
+ * <p>
+ * The table is organized per receiver class, and both levels are
+ * concurrent maps, thus it can be queried and filled by multiple threads
+ * (e.g., parallel call graph construction) without locking.
+ * <p>
+ * The number of cached entries is bounded by the capacity of the table.
+ * When the capacity is exceeded, the whole table is dropped and refilled
+ * on demand, which is cheap compared to tracking the usage of each entry,
+ * and loses nothing but the cached lookups.
+ */
+class DispatchCache {
+
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final int capacity;
+
+    /**
+     * Computes the dispatched method on cache misses.
+     */
+    private final BiFunction<JClass, Subsignature, JMethod> lookup;
+
+    private final Map<JClass, Map<Subsignature, JMethod>> table
+            = Maps.newConcurrentMap();
+
+    /**
+     * Number of cached entries. It may be slightly inaccurate
+     * when the table is cleared concurrently, which is harmless.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    DispatchCache(BiFunction<JClass, Subsignature, JMethod> lookup) {
+        this(lookup, DEFAULT_CAPACITY);
+    }
+
+    DispatchCache(BiFunction<JClass, Subsignature, JMethod> lookup,
+                  int capacity) {
+        this.lookup = lookup;
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return the method dispatched on given receiver class and subsignature,
+     * or null if no such method exists. Failed lookups are not cached.
+     */
+    JMethod get(JClass receiverClass, Subsignature subsignature) {
+        Map<Subsignature, JMethod> methods = table.computeIfAbsent(
+                receiverClass, c -> Maps.newConcurrentMap());
+        JMethod method = methods.get(subsignature);
+        if (method == null) {
+            method = lookup.apply(receiverClass, subsignature);
+            if (method != null &&
+                    methods.putIfAbsent(subsignature, method) == null &&
+                    size.incrementAndGet() > capacity) {
+                clear();
+            }
+        }
+        return method;
+    }
+
+    /**
+     * Removes all cached entries.
+     */
+    void clear() {
+        table.clear();
+        size.set(0);
+    }
+}
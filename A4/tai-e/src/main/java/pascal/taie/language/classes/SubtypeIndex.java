@@ -0,0 +1,268 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.language.classes;
+
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the transitive subtype relation among the classes of the program,
+ * which is computed once (typically after all classes are loaded) and then
+ * answers subtype queries without traversing the class hierarchy.
+ * <p>
+ * The non-interface classes form a tree (rooted at {@code java.lang.Object}),
+ * which is numbered in depth-first preorder, so that the subclasses of
+ * a class occupy a contiguous interval of the numbering, and a subclass test
+ * is an interval test. For interfaces, each type keeps a bit set of all its
+ * superinterfaces, thus an implementation test is a bit lookup.
+ * <p>
+ * The index is immutable, except for a concurrent memo table of
+ * {@link #getConcreteSubtypesOf(JClass)}, so it can be shared by threads.
+ * It does not reflect the classes added after its construction.
+ */
+public class SubtypeIndex {
+
+    /**
+     * Map from each indexed type to its id.
+     */
+    private final Map<JClass, Integer> ids;
+
+    /**
+     * Preorder numbers of the non-interface classes (-1 for interfaces).
+     */
+    private final int[] pre;
+
+    /**
+     * The greatest preorder number in the subtree of each non-interface
+     * class, i.e., its subclasses are numbered in [pre, last].
+     */
+    private final int[] last;
+
+    /**
+     * The non-interface classes sorted by preorder.
+     */
+    private final List<JClass> preorder;
+
+    /**
+     * Numbers of the interfaces (-1 for non-interface classes),
+     * which are the bit positions of interfaces in {@link #superinterfaces}.
+     */
+    private final int[] ifaceNumbers;
+
+    /**
+     * All superinterfaces of each type. An interface is considered
+     * as a superinterface of itself.
+     */
+    private final BitSet[] superinterfaces;
+
+    /**
+     * All subtypes of each interface (indexed by interface number),
+     * including itself.
+     */
+    private final List<List<JClass>> ifaceSubtypes;
+
+    private final Map<JClass, List<JClass>> concreteSubtypes
+            = Maps.newConcurrentMap();
+
+    /**
+     * Builds the index for given classes and all their supertypes.
+     */
+    SubtypeIndex(Collection<JClass> classes) {
+        List<JClass> types = collectTypes(classes);
+        int n = types.size();
+        ids = Maps.newMap(n);
+        types.forEach(t -> ids.put(t, ids.size()));
+        // number non-interface classes
+        pre = new int[n];
+        last = new int[n];
+        Arrays.fill(pre, -1);
+        preorder = new ArrayList<>();
+        MultiMap<JClass, JClass> subclasses = Maps.newMultiMap();
+        for (JClass type : types) {
+            if (!type.isInterface() && type.getSuperClass() != null) {
+                subclasses.put(type.getSuperClass(), type);
+            }
+        }
+        for (JClass type : types) {
+            if (!type.isInterface() && type.getSuperClass() == null) {
+                numberClasses(type, subclasses);
+            }
+        }
+        // number interfaces and compute superinterfaces
+        ifaceNumbers = new int[n];
+        Arrays.fill(ifaceNumbers, -1);
+        ifaceSubtypes = new ArrayList<>();
+        for (JClass type : types) {
+            if (type.isInterface()) {
+                ifaceNumbers[getId(type)] = ifaceSubtypes.size();
+                ifaceSubtypes.add(new ArrayList<>());
+            }
+        }
+        superinterfaces = new BitSet[n];
+        for (JClass type : types) {
+            BitSet ifaces = computeSuperinterfaces(type);
+            ifaces.stream().forEach(i -> ifaceSubtypes.get(i).add(type));
+        }
+    }
+
+    /**
+     * @return the given classes and all their (transitive) supertypes.
+     */
+    private static List<JClass> collectTypes(Collection<JClass> classes) {
+        Map<JClass, Boolean> visited = Maps.newMap(classes.size());
+        List<JClass> types = new ArrayList<>(classes.size());
+        Deque<JClass> workList = new ArrayDeque<>(classes);
+        while (!workList.isEmpty()) {
+            JClass type = workList.pop();
+            if (visited.put(type, Boolean.TRUE) == null) {
+                types.add(type);
+                if (type.getSuperClass() != null) {
+                    workList.push(type.getSuperClass());
+                }
+                type.getInterfaces().forEach(workList::push);
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Numbers the class tree under given root in depth-first preorder.
+     * The traversal is iterative to avoid stack overflow on deep trees.
+     */
+    private void numberClasses(JClass root, MultiMap<JClass, JClass> subclasses) {
+        Deque<JClass> stack = new ArrayDeque<>();
+        Deque<Iterator<JClass>> subclassStack = new ArrayDeque<>();
+        visit(root);
+        stack.push(root);
+        subclassStack.push(subclasses.get(root).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<JClass> iter = subclassStack.peek();
+            if (iter.hasNext()) {
+                JClass subclass = iter.next();
+                visit(subclass);
+                stack.push(subclass);
+                subclassStack.push(subclasses.get(subclass).iterator());
+            } else {
+                last[getId(stack.pop())] = preorder.size() - 1;
+                subclassStack.pop();
+            }
+        }
+    }
+
+    private void visit(JClass jclass) {
+        pre[getId(jclass)] = preorder.size();
+        preorder.add(jclass);
+    }
+
+    private BitSet computeSuperinterfaces(JClass type) {
+        int id = getId(type);
+        BitSet result = superinterfaces[id];
+        if (result == null) {
+            result = new BitSet();
+            if (type.isInterface()) {
+                result.set(ifaceNumbers[id]);
+            } else if (type.getSuperClass() != null) {
+                result.or(computeSuperinterfaces(type.getSuperClass()));
+            }
+            for (JClass iface : type.getInterfaces()) {
+                result.or(computeSuperinterfaces(iface));
+            }
+            superinterfaces[id] = result;
+        }
+        return result;
+    }
+
+    private int getId(JClass type) {
+        Integer id = ids.get(type);
+        if (id == null) {
+            throw new AnalysisException(type + " is not in the subtype index");
+        }
+        return id;
+    }
+
+    /**
+     * @return {@code true} if given class is in this index.
+     */
+    public boolean contains(JClass jclass) {
+        return ids.containsKey(jclass);
+    }
+
+    /**
+     * @return {@code true} if {@code subtype} is {@code supertype} or
+     * a (transitive) subtype of it.
+     * @throws AnalysisException if either class is not in this index.
+     */
+    public boolean isSubtype(JClass supertype, JClass subtype) {
+        int sup = getId(supertype);
+        int sub = getId(subtype);
+        if (sup == sub) {
+            return true;
+        }
+        if (ifaceNumbers[sup] >= 0) {
+            return superinterfaces[sub].get(ifaceNumbers[sup]);
+        }
+        if (pre[sub] < 0) { // interface is only the subtype of Object
+            return supertype.getName().equals(ClassNames.OBJECT);
+        }
+        return pre[sup] <= pre[sub] && pre[sub] <= last[sup];
+    }
+
+    /**
+     * @return all (transitive) subtypes of given type, including itself.
+     * @throws AnalysisException if the type is not in this index.
+     */
+    public Collection<JClass> getAllSubtypesOf(JClass type) {
+        int id = getId(type);
+        if (ifaceNumbers[id] >= 0) {
+            return Collections.unmodifiableList(
+                    ifaceSubtypes.get(ifaceNumbers[id]));
+        } else {
+            return Collections.unmodifiableList(
+                    preorder.subList(pre[id], last[id] + 1));
+        }
+    }
+
+    /**
+     * @return all non-abstract (transitive) subtypes of given type,
+     * including itself if it is not abstract. The results are memoized.
+     * @throws AnalysisException if the type is not in this index.
+     */
+    public Collection<JClass> getConcreteSubtypesOf(JClass type) {
+        return concreteSubtypes.computeIfAbsent(type, t ->
+                getAllSubtypesOf(t).stream()
+                        .filter(c -> !c.isAbstract())
+                        .toList());
+    }
+}
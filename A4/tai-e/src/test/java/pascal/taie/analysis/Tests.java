@@ -26,6 +26,8 @@ import org.junit.Assert;
 import pascal.taie.Main;
 import pascal.taie.World;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.PlanConfig;
 
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -95,6 +97,24 @@ public final class Tests {
         }
     }
 
+    /**
+     * Returns the configuration of an analysis with the options given
+     * in the last run, e.g., by {@link #test}, so that the analysis
+     * can be created again and solved by other solvers.
+     *
+     * @param id ID of the analysis
+     */
+    public static AnalysisConfig getConfig(String id) {
+        return PlanConfig.readConfigs(World.get().getOptions())
+                .stream()
+                .filter(config -> config.getId().equals(id))
+                .findFirst()
+                .map(config -> new AnalysisConfig(
+                        id, null, null, List.of(), config.getOptions()))
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Analysis \"" + id + "\" is not in the last run"));
+    }
+
     public static void testPTA(String dir, String main, String... opts) {
         doTestPTA("pta", dir, main, opts);
     }
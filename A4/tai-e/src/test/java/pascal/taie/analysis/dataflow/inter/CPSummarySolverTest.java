@@ -0,0 +1,164 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.List;
+import java.util.Set;
+
+public class CPSummarySolverTest {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/inter";
+
+    /**
+     * Solves inter-procedural constant propagation for given program with
+     * the ICFG-based solver and the summary-based solver, and checks that
+     * the summary-based results are sound and at least as precise as
+     * the ICFG-based results. As both solvers analyze the same nodes,
+     * a variable is UNDEF in the summary-based results iff it is UNDEF in
+     * the ICFG-based results, and a constant given by the ICFG-based solver
+     * must be given by the summary-based solver too. The summary-based
+     * solver may only turn NAC values into constants (by distinguishing
+     * the calling contexts).
+     */
+    void testSummary(String inputClass) {
+        Tests.test(inputClass, CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false", "-a", "cg=algorithm:cha");
+        InterConstantPropagation analysis = newAnalysis();
+        ConstantPropagation cp = newCP();
+        DataflowResult<Stmt, CPFact> icfgResult =
+                new InterSolver<>(analysis, analysis.icfg).solve();
+        DataflowResult<Stmt, CPFact> summaryResult =
+                new CPSummarySolver(cp, analysis.icfg).solve();
+        for (Stmt stmt : analysis.icfg) {
+            CPFact expected = icfgResult.getOutFact(stmt);
+            CPFact actual = summaryResult.getOutFact(stmt);
+            expected.forEach((var, value) -> {
+                Value summaryValue = actual.get(var);
+                String msg = stmt + ": " + var;
+                Assert.assertFalse(msg, summaryValue.isUndef());
+                if (value.isConstant()) {
+                    Assert.assertEquals(msg, value, summaryValue);
+                }
+                Assert.assertEquals(msg, value, cp.meetValue(value, summaryValue));
+            });
+            actual.forEach((var, value) ->
+                    Assert.assertFalse(stmt + ": " + var,
+                            expected.get(var).isUndef()));
+        }
+    }
+
+    private static InterConstantPropagation newAnalysis() {
+        InterConstantPropagation analysis = new InterConstantPropagation(
+                Tests.getConfig(InterConstantPropagation.ID));
+        analysis.icfg = World.get().getResult(ICFGBuilder.ID);
+        return analysis;
+    }
+
+    private static ConstantPropagation newCP() {
+        return new ConstantPropagation(
+                new AnalysisConfig(ConstantPropagation.ID));
+    }
+
+    private static JMethod getMethod(String className, String methodName) {
+        return World.get().getClassHierarchy()
+                .getClass(className)
+                .getDeclaredMethod(methodName);
+    }
+
+    @Test
+    public void testExample() {
+        testSummary("Example");
+    }
+
+    @Test
+    public void testFibonacci() {
+        testSummary("Fibonacci");
+    }
+
+    @Test
+    public void testMultiIntArgs() {
+        testSummary("MultiIntArgs");
+    }
+
+    /**
+     * On these programs, distinguishing the calling contexts does not
+     * improve the precision, thus the summary-based results must be
+     * the same as the expected ICFG-based results.
+     */
+    @Test
+    public void testSummaryExpected() {
+        for (String inputClass : List.of("Example", "Fibonacci")) {
+            Tests.test(inputClass, CLASS_PATH, InterConstantPropagation.ID,
+                    "edge-refine:false;alias-aware:false;summary:true",
+                    "-a", "cg=algorithm:cha");
+        }
+    }
+
+    /**
+     * The arguments of getFibonacci() are different on every recursive call,
+     * so the contexts of getFibonacci() reach the limit, and the further
+     * calls fall back to the NAC context.
+     */
+    @Test
+    public void testContextLimit() {
+        testSummary("Fibonacci");
+        CPSummarySolver solver = new CPSummarySolver(newCP(), newAnalysis().icfg);
+        solver.solve();
+        Set<List<Value>> contexts = solver.getContextArgs(
+                getMethod("Fibonacci", "getFibonacci"));
+        Assert.assertTrue(contexts.size() <= CPSummarySolver.CONTEXT_LIMIT + 1);
+        Assert.assertTrue(contexts.contains(List.of(Value.getNAC())));
+        Assert.assertTrue(contexts.contains(List.of(Value.makeConstant(5))));
+    }
+
+    /**
+     * The call site in the loop first uses the context built from the value
+     * of i before the back edge is processed (i.e., 0), and the context is
+     * evicted when the argument becomes NAC.
+     */
+    @Test
+    public void testStaleContextEvicted() {
+        Main.main(new String[]{"-pp", "-cp", CLASS_PATH, "-m", "LoopArgs",
+                "-a", "cg=algorithm:cha",
+                "-a", InterConstantPropagation.ID +
+                "=edge-refine:false;alias-aware:false;summary:true"});
+        CPSummarySolver solver = new CPSummarySolver(newCP(), newAnalysis().icfg);
+        solver.solve();
+        Assert.assertEquals(Set.of(List.of(Value.getNAC())),
+                solver.getContextArgs(getMethod("LoopArgs", "inc")));
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+
+public class InterSolverOrderTest {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/inter";
+
+    /**
+     * Solves inter-procedural constant propagation for given program with
+     * and without node ordering, and checks that the ordering
+     * gives the same results with no more node visits.
+     */
+    void testOrder(String inputClass) {
+        Tests.test(inputClass, CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false", "-a", "cg=algorithm:cha");
+        InterConstantPropagation analysis = new InterConstantPropagation(
+                Tests.getConfig(InterConstantPropagation.ID));
+        analysis.icfg = World.get().getResult(ICFGBuilder.ID);
+        InterSolver<JMethod, Stmt, CPFact> ordered =
+                new InterSolver<>(analysis, analysis.icfg, true);
+        InterSolver<JMethod, Stmt, CPFact> unordered =
+                new InterSolver<>(analysis, analysis.icfg, false);
+        DataflowResult<Stmt, CPFact> r1 = ordered.solve();
+        DataflowResult<Stmt, CPFact> r2 = unordered.solve();
+        for (Stmt stmt : analysis.icfg) {
+            Assert.assertEquals(r2.getInFact(stmt), r1.getInFact(stmt));
+            Assert.assertEquals(r2.getOutFact(stmt), r1.getOutFact(stmt));
+        }
+        Assert.assertTrue("ordered: " + ordered.getNodeVisits() +
+                        ", unordered: " + unordered.getNodeVisits(),
+                ordered.getNodeVisits() <= unordered.getNodeVisits());
+    }
+
+    @Test
+    public void testExample() {
+        testOrder("Example");
+    }
+
+    @Test
+    public void testFibonacci() {
+        testOrder("Fibonacci");
+    }
+
+    @Test
+    public void testMultiIntArgs() {
+        testOrder("MultiIntArgs");
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
+import pascal.taie.ir.stmt.Stmt;
+
+public class ParallelInterSolverTest {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/inter";
+
+    /**
+     * Solves inter-procedural constant propagation for given program
+     * sequentially and in parallel, and checks that the results are the same.
+     */
+    void testParallel(String inputClass) {
+        Tests.test(inputClass, CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false;parallel:true",
+                "-a", "cg=algorithm:cha");
+        InterConstantPropagation analysis = new InterConstantPropagation(
+                Tests.getConfig(InterConstantPropagation.ID));
+        analysis.icfg = World.get().getResult(ICFGBuilder.ID);
+        DataflowResult<Stmt, CPFact> sequential =
+                new InterSolver<>(analysis, analysis.icfg, 1).solve();
+        for (int parallelism : new int[]{2, 4}) {
+            DataflowResult<Stmt, CPFact> parallel =
+                    new InterSolver<>(analysis, analysis.icfg, parallelism).solve();
+            for (Stmt stmt : analysis.icfg) {
+                Assert.assertEquals(sequential.getInFact(stmt), parallel.getInFact(stmt));
+                Assert.assertEquals(sequential.getOutFact(stmt), parallel.getOutFact(stmt));
+            }
+        }
+    }
+
+    @Test
+    public void testExample() {
+        testParallel("Example");
+    }
+
+    @Test
+    public void testReference() {
+        testParallel("Reference");
+    }
+
+    @Test
+    public void testFibonacci() {
+        testParallel("Fibonacci");
+    }
+
+    @Test
+    public void testMultiIntArgs() {
+        testParallel("MultiIntArgs");
+    }
+}
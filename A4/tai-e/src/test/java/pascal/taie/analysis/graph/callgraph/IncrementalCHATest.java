@@ -0,0 +1,187 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JClassBuilder;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.Modifier;
+import pascal.taie.language.type.ClassType;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class IncrementalCHATest {
+
+    private static final String MAIN = "<VirtualCall: void main(java.lang.String[])>";
+
+    /**
+     * Builds the call graph of VirtualCall in incremental mode, and adds
+     * a new subclass of B (which overrides B.foo()) into the class hierarchy.
+     */
+    @Test
+    public void testNewSubclass() {
+        Tests.test("VirtualCall", "src/test/resources/cha/", "cg",
+                "algorithm:cha;incremental:true");
+        CallGraph<Invoke, JMethod> callGraph =
+                World.get().getResult(CallGraphBuilder.ID);
+        Set<Edge<Invoke, JMethod>> oldEdges =
+                callGraph.edges().collect(Collectors.toSet());
+        Set<String> oldCallees = getCallees(callGraph);
+
+        JMethod newFoo = addSubclass("F", "B", "C");
+        // the existing edges are unchanged
+        Assert.assertTrue(callGraph.edges().collect(Collectors.toSet())
+                .containsAll(oldEdges));
+        Assert.assertEquals(oldEdges.size() + 1, callGraph.getNumberOfEdges());
+        // b.foo() may dispatch to the new method
+        Set<String> expected = new HashSet<>(oldCallees);
+        expected.add("<F: void foo()>");
+        Assert.assertEquals(expected, getCallees(callGraph));
+        Assert.assertTrue(callGraph.contains(newFoo));
+    }
+
+    /**
+     * A new class which does not override any dispatched method
+     * does not change the call graph.
+     */
+    @Test
+    public void testNewUnrelatedClass() {
+        Tests.test("VirtualCall", "src/test/resources/cha/", "cg",
+                "algorithm:cha;incremental:true");
+        CallGraph<Invoke, JMethod> callGraph =
+                World.get().getResult(CallGraphBuilder.ID);
+        Set<Edge<Invoke, JMethod>> oldEdges =
+                callGraph.edges().collect(Collectors.toSet());
+        addSubclass("G", "E", "E");
+        Assert.assertEquals(oldEdges,
+                callGraph.edges().collect(Collectors.toSet()));
+    }
+
+    @Test
+    public void testStopUpdating() {
+        Tests.test("VirtualCall", "src/test/resources/cha/", "cg",
+                "algorithm:cha");
+        CHABuilder builder = new CHABuilder(true, false, false);
+        CallGraph<Invoke, JMethod> callGraph = builder.build();
+        Set<String> oldCallees = getCallees(callGraph);
+        builder.stopUpdating();
+        addSubclass("H", "B", "C");
+        Assert.assertEquals(oldCallees, getCallees(callGraph));
+    }
+
+    private static Set<String> getCallees(CallGraph<Invoke, JMethod> callGraph) {
+        return callGraph.reachableMethods()
+                .filter(m -> m.toString().equals(MAIN))
+                .flatMap(m -> callGraph.getCalleesOfM(m).stream())
+                .map(JMethod::toString)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Adds a new class into the class hierarchy, which extends class
+     * {@code superName}, and declares a method foo() whose body is the same
+     * as the one of {@code bodyFrom}.foo().
+     *
+     * @return the foo() declared in the new class.
+     */
+    private static JMethod addSubclass(
+            String name, String superName, String bodyFrom) {
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        JClass superClass = hierarchy.getClass(superName);
+        JMethod body = hierarchy.getClass(bodyFrom).getDeclaredMethod("foo");
+        JClass jclass = new JClass(superClass.getClassLoader(), name);
+        JMethod foo = new JMethod(jclass, "foo", Set.of(),
+                List.of(), body.getReturnType(), List.of(),
+                AnnotationHolder.emptyHolder(), null, body.getMethodSource());
+        jclass.build(new JClassBuilder() {
+            @Override
+            public void build(JClass jclass) {
+            }
+
+            @Override
+            public Set<Modifier> getModifiers() {
+                return Set.of();
+            }
+
+            @Override
+            public String getSimpleName() {
+                return name;
+            }
+
+            @Override
+            public ClassType getClassType() {
+                return World.get().getTypeSystem()
+                        .getClassType(superClass.getClassLoader(), name);
+            }
+
+            @Override
+            public JClass getSuperClass() {
+                return superClass;
+            }
+
+            @Override
+            public Collection<JClass> getInterfaces() {
+                return List.of();
+            }
+
+            @Override
+            public JClass getOuterClass() {
+                return null;
+            }
+
+            @Override
+            public Collection<JField> getDeclaredFields() {
+                return List.of();
+            }
+
+            @Override
+            public Collection<JMethod> getDeclaredMethods() {
+                return List.of(foo);
+            }
+
+            @Override
+            public AnnotationHolder getAnnotationHolder() {
+                return AnnotationHolder.emptyHolder();
+            }
+
+            @Override
+            public boolean isApplication() {
+                return true;
+            }
+        });
+        hierarchy.addClass(jclass);
+        return foo;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class RTATest {
+
+    private static final String CLASS_PATH = "src/test/resources/cha/";
+
+    /**
+     * Builds call graphs of given program via CHA and RTA (selected by
+     * option "algorithm" of the call graph builder), checks that the RTA
+     * call graph is a subgraph of the CHA one, and returns it.
+     */
+    private static CallGraph<Invoke, JMethod> buildRTA(String main) {
+        Tests.test(main, CLASS_PATH, CallGraphBuilder.ID, "algorithm:cha");
+        CallGraph<Invoke, JMethod> cha = World.get().getResult(CallGraphBuilder.ID);
+        Set<String> chaMethods = cha.reachableMethods()
+                .map(JMethod::toString)
+                .collect(Collectors.toSet());
+        Set<String> chaEdges = cha.edges()
+                .map(RTATest::toString)
+                .collect(Collectors.toSet());
+        // the world is rebuilt, thus the results are compared by strings
+        Main.main(new String[]{"-pp", "-cp", CLASS_PATH, "-m", main,
+                "-a", CallGraphBuilder.ID + "=algorithm:rta"});
+        CallGraph<Invoke, JMethod> rta = World.get().getResult(CallGraphBuilder.ID);
+        rta.reachableMethods().forEach(m -> Assert.assertTrue(
+                m.toString(), chaMethods.contains(m.toString())));
+        rta.edges().forEach(e -> Assert.assertTrue(
+                toString(e), chaEdges.contains(toString(e))));
+        return rta;
+    }
+
+    private static String toString(Edge<Invoke, JMethod> edge) {
+        return edge.getCallSite().getContainer() + " " + edge;
+    }
+
+    private static Set<String> getCallees(
+            CallGraph<Invoke, JMethod> callGraph, String caller) {
+        return callGraph.reachableMethods()
+                .filter(m -> m.toString().equals(caller))
+                .flatMap(m -> callGraph.getCalleesOfM(m).stream())
+                .map(JMethod::toString)
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    public void testStaticCall() {
+        buildRTA("StaticCall");
+    }
+
+    @Test
+    public void testVirtualCall() {
+        CallGraph<Invoke, JMethod> rta = buildRTA("VirtualCall");
+        Assert.assertEquals(Set.of("<B: void <init>()>", "<A: void foo()>"),
+                getCallees(rta, "<VirtualCall: void main(java.lang.String[])>"));
+    }
+
+    @Test
+    public void testInterface() {
+        CallGraph<Invoke, JMethod> rta = buildRTA("Interface");
+        Assert.assertEquals(Set.of("<One: void <init>()>", "<One: int get()>"),
+                getCallees(rta, "<Interface: void main(java.lang.String[])>"));
+    }
+
+    @Test
+    public void testAbstractMethod() {
+        buildRTA("AbstractMethod");
+    }
+}
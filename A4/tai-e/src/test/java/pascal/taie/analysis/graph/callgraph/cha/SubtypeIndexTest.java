@@ -0,0 +1,111 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph.cha;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.SubtypeIndex;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+public class SubtypeIndexTest {
+
+    /**
+     * Builds call graph via the subtype index, and checks that the
+     * index agrees with the traversals of the class hierarchy.
+     */
+    private static void test(String main) {
+        Tests.test(main, "src/test/resources/cha/", "cg",
+                "algorithm:cha;subtype-index:true");
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        SubtypeIndex index = hierarchy.getSubtypeIndex();
+        List<JClass> appClasses = hierarchy.applicationClasses().toList();
+        List<JClass> allClasses = hierarchy.allClasses().toList();
+        for (JClass c : appClasses) {
+            Set<JClass> supertypes = getSupertypesOf(c);
+            for (JClass t : allClasses) {
+                Assert.assertEquals(t + " <: " + c,
+                        getSupertypesOf(t).contains(c), index.isSubtype(c, t));
+                Assert.assertEquals(c + " <: " + t,
+                        supertypes.contains(t), index.isSubtype(t, c));
+            }
+            Assert.assertEquals(getSubtypesOf(hierarchy, c),
+                    Set.copyOf(index.getAllSubtypesOf(c)));
+        }
+    }
+
+    private static Set<JClass> getSupertypesOf(JClass jclass) {
+        Set<JClass> supertypes = Sets.newSet();
+        Deque<JClass> workList = new ArrayDeque<>();
+        workList.add(jclass);
+        while (!workList.isEmpty()) {
+            JClass c = workList.poll();
+            if (supertypes.add(c)) {
+                if (c.getSuperClass() != null) {
+                    workList.add(c.getSuperClass());
+                }
+                workList.addAll(c.getInterfaces());
+            }
+        }
+        return supertypes;
+    }
+
+    private static Set<JClass> getSubtypesOf(
+            ClassHierarchy hierarchy, JClass jclass) {
+        Set<JClass> subtypes = Sets.newSet();
+        Deque<JClass> workList = new ArrayDeque<>();
+        workList.add(jclass);
+        while (!workList.isEmpty()) {
+            JClass c = workList.poll();
+            if (subtypes.add(c)) {
+                workList.addAll(hierarchy.getDirectSubclassesOf(c));
+                workList.addAll(hierarchy.getDirectSubinterfacesOf(c));
+                workList.addAll(hierarchy.getDirectImplementorsOf(c));
+            }
+        }
+        return subtypes;
+    }
+
+    @Test
+    public void testVirtualCall() {
+        test("VirtualCall");
+    }
+
+    @Test
+    public void testInterface() {
+        test("Interface");
+    }
+
+    @Test
+    public void testAbstractMethod() {
+        test("AbstractMethod");
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.icfg;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.inter.InterConstantPropagation;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+
+public class LazyICFGTest {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/inter";
+
+    /**
+     * Runs inter-procedural constant propagation on the lazy ICFG,
+     * and checks that the results are the same as the expected ones.
+     */
+    void testSolve(String inputClass) {
+        Tests.test(inputClass, CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false",
+                "-a", "cg=algorithm:cha", "-a", "icfg=lazy:true");
+    }
+
+    /**
+     * Checks that the lazy ICFG has the same edges as the eager one.
+     */
+    void testEdges(String inputClass) {
+        Tests.test(inputClass, CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false", "-a", "cg=algorithm:cha");
+        CallGraph<Stmt, JMethod> cg = World.get().getResult(CallGraphBuilder.ID);
+        ICFG<JMethod, Stmt> eager = World.get().getResult(ICFGBuilder.ID);
+        LazyICFG lazy = new LazyICFG(cg);
+        Assert.assertTrue(lazy.getNodes().isEmpty());
+        cg.reachableMethods()
+                .filter(m -> ICFGBuilder.getCFGOf(m) != null)
+                .forEach(lazy::getEntryOf);
+        Assert.assertEquals(eager.getNodes(), lazy.getNodes());
+        for (Stmt stmt : eager) {
+            Assert.assertEquals(eager.getInEdgesOf(stmt), lazy.getInEdgesOf(stmt));
+            Assert.assertEquals(eager.getOutEdgesOf(stmt), lazy.getOutEdgesOf(stmt));
+        }
+    }
+
+    @Test
+    public void testExample() {
+        testSolve("Example");
+        testEdges("Example");
+    }
+
+    @Test
+    public void testFibonacci() {
+        testSolve("Fibonacci");
+        testEdges("Fibonacci");
+    }
+
+    @Test
+    public void testMultiIntArgs() {
+        testSolve("MultiIntArgs");
+        testEdges("MultiIntArgs");
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.language.classes;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.type.VoidType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class DispatchCacheTest {
+
+    private static final int CLASSES = 64;
+
+    private static final Subsignature FOO = Subsignature.get("void foo()");
+
+    private static final Subsignature BAR = Subsignature.get("void bar()");
+
+    /**
+     * Mock classes, each of which "declares" foo(), but not bar().
+     */
+    private final List<JClass> classes = IntStream.range(0, CLASSES)
+            .mapToObj(i -> new JClass(null, "C" + i))
+            .toList();
+
+    private final Map<JClass, JMethod> foos = classes.stream()
+            .collect(Collectors.toMap(c -> c, c -> new JMethod(c, "foo",
+                    Set.of(), List.of(), VoidType.VOID, List.of(),
+                    AnnotationHolder.emptyHolder(), null, null)));
+
+    /**
+     * Number of the calls to {@link #lookup}.
+     */
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private final BiFunction<JClass, Subsignature, JMethod> lookup =
+            (c, subsig) -> {
+                lookups.incrementAndGet();
+                return subsig.equals(FOO) ? foos.get(c) : null;
+            };
+
+    @Test
+    public void testHit() {
+        DispatchCache cache = new DispatchCache(lookup);
+        JMethod foo = foos.get(classes.get(0));
+        Assert.assertSame(foo, cache.get(classes.get(0), FOO));
+        Assert.assertSame(foo, cache.get(classes.get(0), FOO));
+        Assert.assertEquals(1, lookups.get());
+        Assert.assertSame(foos.get(classes.get(1)), cache.get(classes.get(1), FOO));
+        Assert.assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void testMissNotCached() {
+        DispatchCache cache = new DispatchCache(lookup);
+        Assert.assertNull(cache.get(classes.get(0), BAR));
+        Assert.assertNull(cache.get(classes.get(0), BAR));
+        Assert.assertEquals(2, lookups.get());
+    }
+
+    /**
+     * When the capacity is exceeded, the whole table is dropped,
+     * and the entries are looked up again on demand.
+     */
+    @Test
+    public void testOverflowClear() {
+        DispatchCache cache = new DispatchCache(lookup, 2);
+        cache.get(classes.get(0), FOO);
+        cache.get(classes.get(1), FOO);
+        cache.get(classes.get(0), FOO);
+        Assert.assertEquals(2, lookups.get());
+        // the third entry exceeds the capacity
+        Assert.assertSame(foos.get(classes.get(2)), cache.get(classes.get(2), FOO));
+        Assert.assertEquals(3, lookups.get());
+        Assert.assertSame(foos.get(classes.get(0)), cache.get(classes.get(0), FOO));
+        Assert.assertSame(foos.get(classes.get(1)), cache.get(classes.get(1), FOO));
+        Assert.assertEquals(5, lookups.get());
+        // the table is refilled
+        cache.get(classes.get(0), FOO);
+        Assert.assertEquals(5, lookups.get());
+    }
+
+    /**
+     * Many threads query and fill the cache at the same time, with a small
+     * capacity so that the table is also cleared concurrently.
+     */
+    @Test
+    public void testConcurrentAccess() {
+        for (int capacity : new int[]{ CLASSES / 4, CLASSES * 2 }) {
+            DispatchCache cache = new DispatchCache(lookup, capacity);
+            Map<JClass, Set<JMethod>> results = new ConcurrentHashMap<>();
+            IntStream.range(0, CLASSES * 1000).parallel().forEach(i -> {
+                JClass c = classes.get(i % CLASSES);
+                results.computeIfAbsent(c, __ -> ConcurrentHashMap.newKeySet())
+                        .add(cache.get(c, FOO));
+                Assert.assertNull(cache.get(c, BAR));
+            });
+            classes.forEach(c -> Assert.assertEquals(
+                    Set.of(foos.get(c)), results.get(c)));
+        }
+        // without overflow, every entry is cached after concurrent filling
+        DispatchCache cache = new DispatchCache(lookup);
+        IntStream.range(0, CLASSES * 1000).parallel().forEach(i ->
+                cache.get(classes.get(i % CLASSES), FOO));
+        int filled = lookups.get();
+        classes.forEach(c -> Assert.assertSame(foos.get(c), cache.get(c, FOO)));
+        Assert.assertEquals(filled, lookups.get());
+    }
+
+    /**
+     * Dispatch finds default methods inherited from the superinterfaces of
+     * the receiver class and its superclasses, and prefers the methods
+     * declared in the classes.
+     * <p>
+     * The Java frontend of Soot cannot parse default methods, thus this test
+     * loads the class files in src/test/resources/cha-bytecode, which are
+     * compiled from src/test/resources/cha-bytecode-src/DefaultMethod.java
+     * by {@code javac --release 8}.
+     */
+    @Test
+    public void testDefaultMethod() {
+        Main.main(new String[]{"-pp", "-cp", "src/test/resources/cha-bytecode/",
+                "-m", "DefaultMethod", "-a", "cg=algorithm:cha"});
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        Subsignature greet = Subsignature.get("java.lang.String greet()");
+        JMethod defaultGreet = hierarchy.getClass("Greeter")
+                .getDeclaredMethod(greet);
+        JMethod loudGreet = hierarchy.getClass("Loud")
+                .getDeclaredMethod(greet);
+        Assert.assertSame(defaultGreet,
+                hierarchy.dispatch(hierarchy.getClass("Plain"), greet));
+        Assert.assertSame(defaultGreet,
+                hierarchy.dispatch(hierarchy.getClass("Quiet"), greet));
+        Assert.assertSame(loudGreet,
+                hierarchy.dispatch(hierarchy.getClass("Loud"), greet));
+        Assert.assertNull(hierarchy.dispatch(hierarchy.getClass("Quiet"),
+                Subsignature.get("void shout()")));
+        // g.greet() in main() may call the default method and Loud.greet()
+        CallGraph<Invoke, JMethod> callGraph =
+                World.get().getResult(CallGraphBuilder.ID);
+        Set<JMethod> callees = callGraph.getCalleesOfM(
+                World.get().getMainMethod());
+        Assert.assertTrue(callees.contains(defaultGreet));
+        Assert.assertTrue(callees.contains(loudGreet));
+    }
+}
@@ -0,0 +1,29 @@
+interface Greeter {
+    default String greet() {
+        return "hello";
+    }
+}
+
+interface Polite extends Greeter {
+}
+
+public class DefaultMethod {
+
+    public static void main(String[] args) {
+        Greeter g = new Quiet();
+        g.greet();
+    }
+}
+
+class Plain implements Polite {
+}
+
+class Quiet extends Plain {
+}
+
+class Loud implements Polite {
+
+    public String greet() {
+        return "HELLO";
+    }
+}
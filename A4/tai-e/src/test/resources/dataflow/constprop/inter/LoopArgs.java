@@ -0,0 +1,15 @@
+class LoopArgs {
+
+    static void main(String[] args) {
+        int i = 0;
+        int s = 0;
+        while (i < 10) {
+            s = inc(i);
+            i = i + 1;
+        }
+    }
+
+    static int inc(int x) {
+        return x + 1;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.ci;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pascal.taie.Main;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.config.AnalysisConfig;
+
+/**
+ * Measures the throughput of context-insensitive pointer analysis.
+ * The IRs of the reachable methods are built by the first run
+ * in advance, so that each operation only measures the solver.
+ */
+@State(Scope.Benchmark)
+public class CIPTABenchmark {
+
+    @Param({"src/test/resources/pta/cipta"})
+    public String classPath;
+
+    @Param({"Example", "Call", "InstanceField", "StaticCall", "Synthetic"})
+    public String program;
+
+    private CIPTA cipta;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String cp = program.equals("Synthetic") ? "../../benchmarks" : classPath;
+        Main.buildWorld("-pp", "-cp", cp, "-m", program);
+        cipta = new CIPTA(new AnalysisConfig(CIPTA.ID,
+                "implicit-entries", false,
+                "only-app", true,
+                "merge-string-constants", false,
+                "merge-string-objects", false,
+                "merge-string-builders", false,
+                "merge-exception-objects", false));
+        cipta.analyze();
+    }
+
+    @Benchmark
+    public PointerAnalysisResult analyze() {
+        return cipta.analyze();
+    }
+}
@@ -24,11 +24,14 @@ package pascal.taie.analysis;
 
 import pascal.taie.Main;
 import pascal.taie.analysis.misc.ClassDumper;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.AnalysisOptions;
 
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Static utility methods for testing.
@@ -52,6 +55,27 @@ public final class Tests {
         doTestPTA("cipta", dir, main, opts);
     }
 
+    /**
+     * Returns the options of a pointer analysis for the tests which create
+     * and run its solver directly. As these options are not completed by
+     * the analysis configuration file, all options read by the solver
+     * are given here, and the objects are never merged.
+     *
+     * @param id           ID of the pointer analysis
+     * @param extraOptions extra options in key-value pairs
+     */
+    public static AnalysisOptions getPTAOptions(String id, Object... extraOptions) {
+        Object[] kvs = Stream.concat(Stream.of(
+                        "implicit-entries", false,
+                        "only-app", true,
+                        "merge-string-constants", false,
+                        "merge-string-objects", false,
+                        "merge-string-builders", false,
+                        "merge-exception-objects", false),
+                Stream.of(extraOptions)).toArray();
+        return new AnalysisConfig(id, kvs).getOptions();
+    }
+
     private static void doTestPTA(
             String id, String dir, String main, String... opts) {
         List<String> args = new ArrayList<>();
@@ -0,0 +1,59 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.ci;
+
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns dense indexes to the abstract objects, in the order that
+ * the objects enter the pointer analysis, i.e., when the points-to set
+ * of the variable of their allocation site is first updated.
+ */
+class ObjIndexer implements Indexer<Obj> {
+
+    private final Map<Obj, Integer> indexes = Maps.newMap();
+
+    private final List<Obj> objs = new ArrayList<>();
+
+    @Override
+    public int getIndex(Obj o) {
+        Integer index = indexes.get(o);
+        if (index == null) {
+            index = objs.size();
+            indexes.put(o, index);
+            objs.add(o);
+        }
+        return index;
+    }
+
+    @Override
+    public Obj getObject(int index) {
+        return objs.get(index);
+    }
+}
@@ -30,12 +30,24 @@ import pascal.taie.util.collection.MultiMap;
 import pascal.taie.util.collection.Sets;
 import pascal.taie.util.collection.TwoKeyMap;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 /**
  * Represents pointer flow graph in pointer analysis.
+ * <p>
+ * The pointers in a cycle of the PFG always have the same points-to set,
+ * thus they can be collapsed into one node, i.e., the representative
+ * of the cycle, by {@link #collapse(Pointer, Collection)}. After that,
+ * the queries and updates on the edges of a collapsed pointer are
+ * redirected to its representative.
  */
 class PointerFlowGraph {
 
@@ -69,6 +81,17 @@ class PointerFlowGraph {
      */
     private final MultiMap<Pointer, Pointer> successors = Maps.newMultiMap();
 
+    /**
+     * Map from each collapsed pointer to the pointer that it was collapsed
+     * into, which may also be collapsed afterwards.
+     */
+    private final Map<Pointer, Pointer> parents = Maps.newMap();
+
+    /**
+     * Map from each representative to the pointers collapsed into it.
+     */
+    private final MultiMap<Pointer, Pointer> members = Maps.newMultiMap();
+
     /**
      * Returns all pointers in this PFG.
      */
@@ -128,13 +151,147 @@ class PointerFlowGraph {
      * otherwise false.
      */
     boolean addEdge(Pointer source, Pointer target) {
-        return successors.put(source, target);
+        Pointer sourceRep = getRepresentative(source);
+        if (sourceRep == getRepresentative(target)) {
+            return false;
+        }
+        return successors.put(sourceRep, target);
     }
 
     /**
-     * @return successors of given pointer in the PFG.
+     * @return successors of given pointer in the PFG. If the pointer has
+     * been collapsed, returns the successors of its representative.
      */
     Set<Pointer> getSuccsOf(Pointer pointer) {
-        return successors.get(pointer);
+        return successors.get(getRepresentative(pointer));
+    }
+
+    /**
+     * @return the representative of the cycle that contains given pointer,
+     * or the pointer itself if it has not been collapsed.
+     */
+    Pointer getRepresentative(Pointer pointer) {
+        Pointer parent = parents.get(pointer);
+        if (parent == null) {
+            return pointer;
+        }
+        Pointer rep = getRepresentative(parent);
+        if (rep != parent) { // path compression
+            parents.put(pointer, rep);
+        }
+        return rep;
+    }
+
+    /**
+     * @return the pointers represented by given representative,
+     * including the representative itself.
+     */
+    Collection<Pointer> getMembers(Pointer rep) {
+        Set<Pointer> collapsed = members.get(rep);
+        if (collapsed.isEmpty()) {
+            return List.of(rep);
+        }
+        List<Pointer> result = new ArrayList<>(collapsed.size() + 1);
+        result.add(rep);
+        result.addAll(collapsed);
+        return result;
+    }
+
+    /**
+     * Collapses the given representatives into rep, i.e., merges
+     * their members and successors into rep. The caller is responsible
+     * for making the collapsed pointers share the points-to set of rep.
+     *
+     * @param rep   the new representative, which must be in the cycle.
+     * @param cycle representatives of the pointers in a cycle.
+     */
+    void collapse(Pointer rep, Collection<Pointer> cycle) {
+        for (Pointer pointer : cycle) {
+            if (pointer != rep) {
+                parents.put(pointer, rep);
+                members.put(rep, pointer);
+                members.putAll(rep, members.get(pointer));
+                members.removeAll(pointer);
+            }
+        }
+        for (Pointer pointer : cycle) {
+            if (pointer != rep) {
+                for (Pointer succ : successors.get(pointer)) {
+                    if (getRepresentative(succ) != rep) {
+                        successors.put(rep, succ);
+                    }
+                }
+                successors.removeAll(pointer);
+            }
+        }
+        // removes the edges inside the cycle, which become self-loops
+        successors.get(rep)
+                .stream()
+                .filter(succ -> getRepresentative(succ) == rep)
+                .toList()
+                .forEach(succ -> successors.remove(rep, succ));
+    }
+
+    /**
+     * Finds the cycles reachable from given pointer by Tarjan's algorithm.
+     *
+     * @return the representatives of the pointers in each cycle, i.e.,
+     * each non-trivial strongly connected component.
+     */
+    List<List<Pointer>> findCycles(Pointer from) {
+        List<List<Pointer>> cycles = new ArrayList<>();
+        Map<Pointer, Integer> indexes = Maps.newMap();
+        Map<Pointer, Integer> lowLinks = Maps.newMap();
+        Deque<Pointer> sccStack = new ArrayDeque<>();
+        Set<Pointer> onSccStack = Sets.newSet();
+        Deque<Pointer> stack = new ArrayDeque<>();
+        Deque<Iterator<Pointer>> succStack = new ArrayDeque<>();
+        Pointer root = getRepresentative(from);
+        indexes.put(root, 0);
+        lowLinks.put(root, 0);
+        sccStack.push(root);
+        onSccStack.add(root);
+        stack.push(root);
+        succStack.push(successors.get(root).iterator());
+        while (!stack.isEmpty()) {
+            Pointer node = stack.peek();
+            Iterator<Pointer> succs = succStack.peek();
+            if (succs.hasNext()) {
+                Pointer succ = getRepresentative(succs.next());
+                Integer succIndex = indexes.get(succ);
+                if (succIndex == null) {
+                    int index = indexes.size();
+                    indexes.put(succ, index);
+                    lowLinks.put(succ, index);
+                    sccStack.push(succ);
+                    onSccStack.add(succ);
+                    stack.push(succ);
+                    succStack.push(successors.get(succ).iterator());
+                } else if (onSccStack.contains(succ)) {
+                    lowLinks.put(node, Math.min(lowLinks.get(node), succIndex));
+                }
+            } else {
+                stack.pop();
+                succStack.pop();
+                int lowLink = lowLinks.get(node);
+                if (!stack.isEmpty()) {
+                    Pointer parent = stack.peek();
+                    lowLinks.put(parent, Math.min(lowLinks.get(parent), lowLink));
+                }
+                if (lowLink == indexes.get(node)) {
+                    List<Pointer> scc = new ArrayList<>();
+                    Pointer p;
+                    do {
+                        p = sccStack.pop();
+                        onSccStack.remove(p);
+                        scc.add(p);
+                    } while (p != node);
+                    if (scc.size() > 1) {
+                        cycles.add(scc);
+                    }
+                }
+            }
+        }
+        return cycles;
     }
 }
@@ -23,11 +23,15 @@
 package pascal.taie.analysis.pta.ci;
 
 import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.IndexerBitSet;
 import pascal.taie.util.collection.Sets;
 
+import javax.annotation.Nullable;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 /**
@@ -35,21 +39,46 @@ import java.util.stream.Stream;
  */
 class PointsToSet implements Iterable<Obj> {
 
-    private final Set<Obj> set = Sets.newHybridSet();
+    private static Supplier<Set<Obj>> setFactory = Sets::newHybridSet;
+
+    private final Set<Obj> set;
 
     /**
      * Constructs an empty points-to set.
      */
     PointsToSet() {
+        this(setFactory.get());
     }
 
     /**
      * Constructs a points-to set containing one object.
      */
     PointsToSet(Obj obj) {
+        this();
         addObject(obj);
     }
 
+    private PointsToSet(Set<Obj> set) {
+        this.set = set;
+    }
+
+    /**
+     * Selects the kind of the points-to sets constructed afterwards.
+     * This should be called before a pointer analysis creates any
+     * points-to sets.
+     *
+     * @param objIndexer if not null, the points-to sets are sparse bitmaps
+     *                   over the indexes of the objects given by it;
+     *                   otherwise, they are hybrid hash sets.
+     */
+    static void setUp(@Nullable Indexer<Obj> objIndexer) {
+        if (objIndexer != null) {
+            setFactory = () -> new IndexerBitSet<>(objIndexer);
+        } else {
+            setFactory = Sets::newHybridSet;
+        }
+    }
+
     /**
      * Adds an object to this set.
      *
@@ -60,6 +89,37 @@ class PointsToSet implements Iterable<Obj> {
         return set.add(obj);
     }
 
+    /**
+     * Adds all objects in given pts to this set.
+     *
+     * @return true if this points-to set changed as a result of the call,
+     * otherwise false.
+     */
+    boolean addAll(PointsToSet pts) {
+        return set.addAll(pts.set);
+    }
+
+    /**
+     * Adds all objects in given pts to this set.
+     *
+     * @return a new set which contains the objects added to this set
+     * by the call, i.e., the difference set of pts and this set
+     * before the call.
+     */
+    PointsToSet addAllDiff(PointsToSet pts) {
+        if (set instanceof IndexerBitSet<Obj> bits
+                && pts.set instanceof IndexerBitSet<Obj> other) {
+            return new PointsToSet(bits.addAllDiff(other));
+        }
+        PointsToSet diff = new PointsToSet();
+        for (Obj obj : pts) {
+            if (addObject(obj)) {
+                diff.addObject(obj);
+            }
+        }
+        return diff;
+    }
+
     /**
      * @return true if this points-to set contains the given object, otherwise false.
      */
@@ -29,8 +29,11 @@ import pascal.taie.analysis.graph.callgraph.CallGraphs;
 import pascal.taie.analysis.graph.callgraph.CallKind;
 import pascal.taie.analysis.graph.callgraph.DefaultCallGraph;
 import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.pta.core.VarSubstitution;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.InvokeExp;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.proginfo.MethodRef;
@@ -43,30 +46,64 @@ import pascal.taie.ir.stmt.StmtVisitor;
 import pascal.taie.ir.stmt.StoreArray;
 import pascal.taie.ir.stmt.StoreField;
 import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.AnalysisException;
 import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 class Solver {
 
     private static final Logger logger = LogManager.getLogger(Solver.class);
 
+    private final AnalysisOptions options;
+
     private final HeapModel heapModel;
 
+    /**
+     * Whether to collapse the cycles in the PFG during the analysis.
+     */
+    private final boolean cycleElimination;
+
     private DefaultCallGraph callGraph;
 
     private PointerFlowGraph pointerFlowGraph;
 
     private WorkList workList;
 
+    /**
+     * Substitution of pointer-equivalent variables, or null if
+     * variable substitution is disabled.
+     */
+    private VarSubstitution varSubstitution;
+
+    /**
+     * The PFG edges that have been checked by lazy cycle detection.
+     */
+    private MultiMap<Pointer, Pointer> checkedEdges;
+
     private StmtProcessor stmtProcessor;
 
     private ClassHierarchy hierarchy;
 
-    Solver(HeapModel heapModel) {
+    /**
+     * Number of pointer/object pairs taken from the work-list. As each entry
+     * only carries the delta of its pointer, every pair is propagated once,
+     * thus if no pointers are merged (by cycle elimination or variable
+     * substitution), this equals the total size of the points-to sets.
+     */
+    private long propagatedObjects;
+
+    Solver(AnalysisOptions options, HeapModel heapModel) {
+        this.options = options;
         this.heapModel = heapModel;
+        this.cycleElimination = options.getBooleanOrDefault(
+                "cycle-elimination", false);
     }
 
     /**
@@ -75,13 +112,22 @@ class Solver {
     void solve() {
         initialize();
         analyze();
+        if (varSubstitution != null) {
+            shareSubstitutedPointsToSets();
+        }
     }
 
     /**
      * Initializes pointer analysis.
      */
     private void initialize() {
+        PointsToSet.setUp(options.getBooleanOrDefault("bitmap-pts", false) ?
+                new ObjIndexer() : null);
         workList = new WorkList();
+        checkedEdges = Maps.newMultiMap();
+        if (options.getBooleanOrDefault("var-substitution", false)) {
+            varSubstitution = new VarSubstitution();
+        }
         pointerFlowGraph = new PointerFlowGraph();
         callGraph = new DefaultCallGraph();
         stmtProcessor = new StmtProcessor();
@@ -96,38 +142,240 @@ class Solver {
      * Processes new reachable method.
      */
     private void addReachable(JMethod method) {
-        // TODO - finish me
+        if (callGraph.addReachableMethod(method)) {
+            method.getIR().forEach(stmt -> stmt.accept(stmtProcessor));
+        }
+    }
+
+    /**
+     * @return the Var node for given variable. If the variable is
+     * substituted by another variable, returns the node of the latter.
+     */
+    private VarPtr getVarPtr(Var var) {
+        if (varSubstitution != null) {
+            var = varSubstitution.getRepresentative(var);
+        }
+        return pointerFlowGraph.getVarPtr(var);
     }
 
     /**
      * Processes statements in new reachable methods.
      */
     private class StmtProcessor implements StmtVisitor<Void> {
-        // TODO - if you choose to implement addReachable()
-        //  via visitor pattern, then finish me
+
+        @Override
+        public Void visit(New stmt) {
+            Obj obj = heapModel.getObj(stmt);
+            propagate(getVarPtr(stmt.getLValue()),
+                    new PointsToSet(obj));
+            return null;
+        }
+
+        @Override
+        public Void visit(Copy stmt) {
+            addPFGEdge(getVarPtr(stmt.getRValue()),
+                    getVarPtr(stmt.getLValue()));
+            return null;
+        }
+
+        @Override
+        public Void visit(LoadField stmt) {
+            if (stmt.isStatic()) {
+                JField field = stmt.getFieldRef().resolve();
+                addPFGEdge(pointerFlowGraph.getStaticField(field),
+                        getVarPtr(stmt.getLValue()));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(StoreField stmt) {
+            if (stmt.isStatic()) {
+                JField field = stmt.getFieldRef().resolve();
+                addPFGEdge(getVarPtr(stmt.getRValue()),
+                        pointerFlowGraph.getStaticField(field));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(Invoke stmt) {
+            if (stmt.isStatic()) {
+                JMethod callee = resolveCallee(null, stmt);
+                if (callee != null) {
+                    processCallEdge(stmt, callee);
+                }
+            }
+            return null;
+        }
     }
 
     /**
      * Adds an edge "source -> target" to the PFG.
      */
     private void addPFGEdge(Pointer source, Pointer target) {
-        // TODO - finish me
+        if (pointerFlowGraph.addEdge(source, target)) {
+            PointsToSet pts = source.getPointsToSet();
+            if (!pts.isEmpty()) {
+                propagate(target, pts);
+            }
+        }
     }
 
     /**
      * Processes work-list entries until the work-list is empty.
+     * Each entry carries only the delta of its pointer, i.e., the objects
+     * added to the points-to set since the pointer was last processed,
+     * thus the objects are never re-propagated along the same PFG edges.
      */
     private void analyze() {
-        // TODO - finish me
+        while (!workList.isEmpty()) {
+            WorkList.Entry entry = workList.pollEntry();
+            Pointer pointer = pointerFlowGraph.getRepresentative(entry.pointer());
+            PointsToSet delta = entry.pointsToSet();
+            propagatedObjects += delta.size();
+            List<Pointer> cycleCandidates = List.of();
+            for (Pointer succ : pointerFlowGraph.getSuccsOf(pointer)) {
+                PointsToSet diff = propagate(succ, delta);
+                if (cycleElimination && diff.isEmpty()
+                        && isCycleCandidate(pointer, succ)) {
+                    if (cycleCandidates.isEmpty()) {
+                        cycleCandidates = new ArrayList<>();
+                    }
+                    cycleCandidates.add(succ);
+                }
+            }
+            for (Pointer member : pointerFlowGraph.getMembers(pointer)) {
+                if (member instanceof VarPtr varPtr) {
+                    processNewObjects(varPtr, delta);
+                }
+            }
+            cycleCandidates.forEach(this::collapseCycles);
+        }
     }
 
     /**
-     * Propagates pointsToSet to pt(pointer) and its PFG successors,
-     * returns the difference set of pointsToSet and pt(pointer).
+     * Propagates pointsToSet to pt(pointer), returns the difference set of
+     * pointsToSet and pt(pointer). The difference set is added to the
+     * work list as (part of) the delta of the pointer, which will be
+     * propagated to the PFG successors of the pointer later.
      */
     private PointsToSet propagate(Pointer pointer, PointsToSet pointsToSet) {
-        // TODO - finish me
-        return null;
+        PointsToSet diff = pointer.getPointsToSet().addAllDiff(pointsToSet);
+        if (!diff.isEmpty()) {
+            workList.addEntry(pointerFlowGraph.getRepresentative(pointer), diff);
+        }
+        return diff;
+    }
+
+    /**
+     * Processes the instance field accesses, array accesses and
+     * instance calls on given variable for its new discovered objects.
+     */
+    private void processNewObjects(VarPtr varPtr, PointsToSet newObjs) {
+        // the statements on the substituted variables are processed
+        // with their representative
+        List<Var> vars = varSubstitution != null ?
+                varSubstitution.getMembers(varPtr.getVar()) :
+                List.of(varPtr.getVar());
+        for (Var var : vars) {
+            for (Obj obj : newObjs) {
+                processInstanceFields(var, obj);
+                processArrays(var, obj);
+                processCall(var, obj);
+            }
+        }
+    }
+
+    /**
+     * Lazy cycle detection: an edge "source -> target" is suspected to be
+     * in a cycle if the propagation along it adds no objects to target and
+     * the two pointers have the same points-to set. Each edge is checked
+     * at most once.
+     */
+    private boolean isCycleCandidate(Pointer source, Pointer target) {
+        PointsToSet sourcePts = source.getPointsToSet();
+        PointsToSet targetPts = target.getPointsToSet();
+        return sourcePts != targetPts // not collapsed into one node yet
+                && !sourcePts.isEmpty()
+                && sourcePts.size() == targetPts.size()
+                && checkedEdges.put(source, target);
+    }
+
+    /**
+     * Collapses the PFG cycles reachable from given pointer.
+     */
+    private void collapseCycles(Pointer from) {
+        for (List<Pointer> cycle : pointerFlowGraph.findCycles(from)) {
+            collapse(cycle);
+        }
+    }
+
+    /**
+     * Collapses a PFG cycle into one node: the pointers in the cycle are
+     * merged into a representative, and share one points-to set which is
+     * the union of their points-to sets.
+     *
+     * @param cycle representatives of the pointers in the cycle.
+     */
+    private void collapse(List<Pointer> cycle) {
+        Pointer rep = cycle.get(0);
+        List<Collection<Pointer>> members = cycle.stream()
+                .map(pointerFlowGraph::getMembers)
+                .toList();
+        PointsToSet merged = new PointsToSet();
+        cycle.forEach(p -> merged.addAll(p.getPointsToSet()));
+        // objects that are newly pointed by the pointers of each node
+        List<PointsToSet> newObjs = cycle.stream()
+                .map(p -> p.getPointsToSet().addAllDiff(merged))
+                .toList();
+        pointerFlowGraph.collapse(rep, cycle);
+        members.forEach(ptrs -> ptrs.forEach(p -> p.setPointsToSet(merged)));
+        for (int i = 0; i < cycle.size(); ++i) {
+            if (!newObjs.get(i).isEmpty()) {
+                for (Pointer member : members.get(i)) {
+                    if (member instanceof VarPtr varPtr) {
+                        processNewObjects(varPtr, newObjs.get(i));
+                    }
+                }
+            }
+        }
+        // the successors of each node may miss the objects of other nodes
+        for (Pointer succ : pointerFlowGraph.getSuccsOf(rep)) {
+            propagate(succ, merged);
+        }
+    }
+
+    /**
+     * Processes instance field stores/loads on a new discovered object
+     * pointed by the base variable.
+     */
+    private void processInstanceFields(Var var, Obj obj) {
+        for (StoreField store : var.getStoreFields()) {
+            JField field = store.getFieldRef().resolve();
+            addPFGEdge(getVarPtr(store.getRValue()),
+                    pointerFlowGraph.getInstanceField(obj, field));
+        }
+        for (LoadField load : var.getLoadFields()) {
+            JField field = load.getFieldRef().resolve();
+            addPFGEdge(pointerFlowGraph.getInstanceField(obj, field),
+                    getVarPtr(load.getLValue()));
+        }
+    }
+
+    /**
+     * Processes array stores/loads on a new discovered array object
+     * pointed by the base variable.
+     */
+    private void processArrays(Var var, Obj array) {
+        for (StoreArray store : var.getStoreArrays()) {
+            addPFGEdge(getVarPtr(store.getRValue()),
+                    pointerFlowGraph.getArrayIndex(array));
+        }
+        for (LoadArray load : var.getLoadArrays()) {
+            addPFGEdge(pointerFlowGraph.getArrayIndex(array),
+                    getVarPtr(load.getLValue()));
+        }
     }
 
     /**
@@ -137,7 +385,59 @@ class Solver {
      * @param recv a new discovered object pointed by the variable.
      */
     private void processCall(Var var, Obj recv) {
-        // TODO - finish me
+        for (Invoke callSite : var.getInvokes()) {
+            JMethod callee = resolveCallee(recv, callSite);
+            if (callee == null) {
+                logger.debug("Failed to resolve {} on {}", callSite, recv);
+                continue;
+            }
+            Var thisVar = callee.getIR().getThis();
+            propagate(getVarPtr(thisVar), new PointsToSet(recv));
+            processCallEdge(callSite, callee);
+        }
+    }
+
+    /**
+     * Adds call edge from callSite to callee, and if the edge is new,
+     * adds the PFG edges for the arguments and return values.
+     */
+    private void processCallEdge(Invoke callSite, JMethod callee) {
+        CallKind kind = CallGraphs.getCallKind(callSite);
+        if (callGraph.addEdge(new Edge<>(kind, callSite, callee))) {
+            addReachable(callee);
+            InvokeExp invokeExp = callSite.getInvokeExp();
+            IR ir = callee.getIR();
+            for (int i = 0; i < invokeExp.getArgCount(); ++i) {
+                addPFGEdge(getVarPtr(invokeExp.getArg(i)),
+                        getVarPtr(ir.getParam(i)));
+            }
+            Var result = callSite.getResult();
+            if (result != null) {
+                VarPtr resultPtr = getVarPtr(result);
+                for (Var ret : ir.getReturnVars()) {
+                    addPFGEdge(getVarPtr(ret), resultPtr);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lets the Var nodes of the substituted variables share the points-to
+     * sets of the nodes of their representatives, so that the results of
+     * the substituted variables are also available.
+     */
+    private void shareSubstitutedPointsToSets() {
+        for (Pointer pointer : List.copyOf(pointerFlowGraph.getPointers())) {
+            if (pointer instanceof VarPtr varPtr) {
+                List<Var> members = varSubstitution.getMembers(varPtr.getVar());
+                for (int i = 1; i < members.size(); ++i) {
+                    pointerFlowGraph.getVarPtr(members.get(i))
+                            .setPointsToSet(varPtr.getPointsToSet());
+                }
+            }
+        }
+        logger.info("{} variables substituted",
+                varSubstitution.getSubstitutedCount());
     }
 
     /**
@@ -153,6 +453,13 @@ class Solver {
         return CallGraphs.resolveCallee(type, callSite);
     }
 
+    /**
+     * @return the number of pointer/object pairs taken from the work-list.
+     */
+    long getPropagatedObjects() {
+        return propagatedObjects;
+    }
+
     CIPTAResult getResult() {
         return new CIPTAResult(pointerFlowGraph, callGraph);
     }
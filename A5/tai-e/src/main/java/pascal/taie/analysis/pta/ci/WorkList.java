@@ -22,21 +22,39 @@
 
 package pascal.taie.analysis.pta.ci;
 
+import pascal.taie.util.collection.Maps;
+
 import java.util.ArrayDeque;
+import java.util.Map;
 import java.util.Queue;
 
 /**
  * Represents work list in pointer analysis.
+ * <p>
+ * The work list keeps, for each pending pointer, the objects which have been
+ * added to its points-to set since the pointer was last processed
+ * (i.e., the delta). Entries of the same pointer are merged, so that each
+ * pointer appears in the work list at most once, and the solver only
+ * propagates the delta of a pointer instead of its whole points-to set.
  */
 class WorkList {
 
-    private final Queue<Entry> entries = new ArrayDeque<>();
+    private final Queue<Pointer> pointers = new ArrayDeque<>();
+
+    private final Map<Pointer, PointsToSet> deltas = Maps.newMap();
 
     /**
-     * Adds an entry to the work list.
+     * Adds an entry to the work list. If the pointer is already in
+     * the work list, the objects are merged into its pending delta.
      */
     void addEntry(Pointer pointer, PointsToSet pointsToSet) {
-        entries.add(new Entry(pointer, pointsToSet));
+        PointsToSet delta = deltas.get(pointer);
+        if (delta == null) {
+            deltas.put(pointer, pointsToSet);
+            pointers.add(pointer);
+        } else {
+            delta.addAll(pointsToSet);
+        }
     }
 
     /**
@@ -44,19 +62,22 @@ class WorkList {
      * if this work list is empty.
      */
     Entry pollEntry() {
-        return entries.poll();
+        Pointer pointer = pointers.poll();
+        return pointer == null ? null :
+                new Entry(pointer, deltas.remove(pointer));
     }
 
     /**
      * @return true if the work list is empty, otherwise false.
      */
     boolean isEmpty() {
-        return entries.isEmpty();
+        return pointers.isEmpty();
     }
 
     /**
      * Represents entries in the work list.
-     * Each entry consists of a pointer and a points-to set.
+     * Each entry consists of a pointer and the objects newly added to
+     * its points-to set since it was last processed.
      */
     record Entry(Pointer pointer, PointsToSet pointsToSet) {
     }
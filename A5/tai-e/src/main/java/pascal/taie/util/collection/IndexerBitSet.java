@@ -0,0 +1,362 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import pascal.taie.util.Indexer;
+
+import javax.annotation.Nullable;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link java.util.Set} implementation backed by a sparse bit vector
+ * over the indexes given by an {@link Indexer}.
+ * <p>
+ * The bit vector is stored as the non-empty 64-bit words only, together
+ * with their word indexes in ascending order, so that a small set of
+ * objects with large indexes takes only a few words. The union and
+ * difference operations with another {@link IndexerBitSet}, e.g.,
+ * {@link #addAll(Collection)} and {@link #addAllDiff(IndexerBitSet)},
+ * are performed word by word by merging the two sorted word arrays,
+ * without hashing or even touching the elements.
+ * Other operations look up the word of an element by binary search.
+ * <p>
+ * The bulk operations above assume that the two sets share the same
+ * indexer, i.e., the same index stands for the same element.
+ *
+ * @param <E> type of elements
+ */
+public class IndexerBitSet<E> extends AbstractSet<E> {
+
+    private static final int[] EMPTY_KEYS = {};
+
+    private static final long[] EMPTY_WORDS = {};
+
+    private final Indexer<E> indexer;
+
+    /**
+     * Word indexes of the non-empty words, in ascending order.
+     */
+    private int[] keys;
+
+    /**
+     * The non-empty words; words[i] is the word at index keys[i].
+     */
+    private long[] words;
+
+    /**
+     * Number of the words in use.
+     */
+    private int nWords;
+
+    /**
+     * Number of the elements in this set.
+     */
+    private int size;
+
+    public IndexerBitSet(Indexer<E> indexer) {
+        this(indexer, EMPTY_KEYS, EMPTY_WORDS, 0, 0);
+    }
+
+    private IndexerBitSet(Indexer<E> indexer, int[] keys, long[] words,
+                          int nWords, int size) {
+        this.indexer = indexer;
+        this.keys = keys;
+        this.words = words;
+        this.nWords = nWords;
+        this.size = size;
+    }
+
+    /**
+     * @return position of the word of given key in {@link #words},
+     * or (-(insertion point) - 1) if the word is absent.
+     */
+    private int find(int key) {
+        return Arrays.binarySearch(keys, 0, nWords, key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+        int index = indexer.getIndex((E) o);
+        int pos = find(index >>> 6);
+        return pos >= 0 && (words[pos] & (1L << index)) != 0;
+    }
+
+    @Override
+    public boolean add(E e) {
+        int index = indexer.getIndex(e);
+        int key = index >>> 6;
+        long bit = 1L << index;
+        int pos = find(key);
+        if (pos >= 0) {
+            if ((words[pos] & bit) != 0) {
+                return false;
+            }
+            words[pos] |= bit;
+        } else {
+            insertWord(-pos - 1, key, bit);
+        }
+        ++size;
+        return true;
+    }
+
+    private void insertWord(int pos, int key, long word) {
+        if (nWords == keys.length) {
+            int capacity = Math.max(4, nWords + (nWords >> 1));
+            keys = Arrays.copyOf(keys, capacity);
+            words = Arrays.copyOf(words, capacity);
+        }
+        System.arraycopy(keys, pos, keys, pos + 1, nWords - pos);
+        System.arraycopy(words, pos, words, pos + 1, nWords - pos);
+        keys[pos] = key;
+        words[pos] = word;
+        ++nWords;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object o) {
+        int index = indexer.getIndex((E) o);
+        long bit = 1L << index;
+        int pos = find(index >>> 6);
+        if (pos < 0 || (words[pos] & bit) == 0) {
+            return false;
+        }
+        words[pos] &= ~bit;
+        if (words[pos] == 0) {
+            System.arraycopy(keys, pos + 1, keys, pos, nWords - pos - 1);
+            System.arraycopy(words, pos + 1, words, pos, nWords - pos - 1);
+            --nWords;
+        }
+        --size;
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean addAll(Collection<? extends E> c) {
+        if (c instanceof IndexerBitSet<?> other) {
+            return union((IndexerBitSet<E>) other, null);
+        }
+        return super.addAll(c);
+    }
+
+    /**
+     * Adds all elements of given set to this set.
+     *
+     * @return a new set which contains the elements added to this set
+     * by the call, i.e., the elements of other that were absent in this set.
+     */
+    public IndexerBitSet<E> addAllDiff(IndexerBitSet<E> other) {
+        IndexerBitSet<E> diff = new IndexerBitSet<>(indexer);
+        union(other, diff);
+        return diff;
+    }
+
+    /**
+     * Unions other into this set word by word.
+     *
+     * @param diff if not null, receives the words of the elements that
+     *             are added to this set. It must be empty.
+     * @return true if this set changed as a result of the call.
+     */
+    private boolean union(IndexerBitSet<E> other, @Nullable IndexerBitSet<E> diff) {
+        // counts the words of other which are absent in this set
+        int missing = 0;
+        for (int i = 0, j = 0; j < other.nWords; ) {
+            if (i == nWords || keys[i] > other.keys[j]) {
+                ++missing;
+                ++j;
+            } else if (keys[i] < other.keys[j]) {
+                ++i;
+            } else {
+                ++i;
+                ++j;
+            }
+        }
+        int[] newKeys = keys;
+        long[] newWords = words;
+        if (missing > 0) {
+            newKeys = new int[nWords + missing];
+            newWords = new long[nWords + missing];
+        }
+        int oldSize = size;
+        int i = nWords - 1, j = other.nWords - 1;
+        int k = nWords + missing - 1;
+        // merges from the end, so that the merge can be done in place
+        // when all words of other are present in this set
+        while (j >= 0) {
+            if (i >= 0 && keys[i] > other.keys[j]) {
+                newKeys[k] = keys[i];
+                newWords[k--] = words[i--];
+            } else if (i >= 0 && keys[i] == other.keys[j]) {
+                long added = other.words[j] & ~words[i];
+                if (added != 0) {
+                    size += Long.bitCount(added);
+                    if (diff != null) {
+                        diff.prependWord(keys[i], added);
+                    }
+                }
+                newKeys[k] = keys[i];
+                newWords[k--] = words[i--] | other.words[j--];
+            } else {
+                long added = other.words[j];
+                size += Long.bitCount(added);
+                if (diff != null) {
+                    diff.prependWord(other.keys[j], added);
+                }
+                newKeys[k] = other.keys[j];
+                newWords[k--] = other.words[j--];
+            }
+        }
+        if (missing > 0) {
+            System.arraycopy(keys, 0, newKeys, 0, i + 1);
+            System.arraycopy(words, 0, newWords, 0, i + 1);
+            keys = newKeys;
+            words = newWords;
+            nWords += missing;
+        }
+        if (diff != null) {
+            diff.compact();
+        }
+        return size != oldSize;
+    }
+
+    /**
+     * Adds a word whose key is less than all keys in this set.
+     * The words are collected from the end of the arrays,
+     * and moved to the front by {@link #compact()}.
+     */
+    private void prependWord(int key, long word) {
+        if (nWords == keys.length) {
+            int capacity = Math.max(4, nWords * 2);
+            int[] newKeys = new int[capacity];
+            long[] newWords = new long[capacity];
+            System.arraycopy(keys, keys.length - nWords, newKeys, capacity - nWords, nWords);
+            System.arraycopy(words, words.length - nWords, newWords, capacity - nWords, nWords);
+            keys = newKeys;
+            words = newWords;
+        }
+        ++nWords;
+        keys[keys.length - nWords] = key;
+        words[words.length - nWords] = word;
+        size += Long.bitCount(word);
+    }
+
+    private void compact() {
+        int from = keys.length - nWords;
+        if (from > 0) {
+            System.arraycopy(keys, from, keys, 0, nWords);
+            System.arraycopy(words, from, words, 0, nWords);
+        }
+    }
+
+    @Override
+    public void clear() {
+        nWords = 0;
+        size = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return a copy of this set.
+     */
+    public IndexerBitSet<E> copy() {
+        return new IndexerBitSet<>(indexer, Arrays.copyOf(keys, nWords),
+                Arrays.copyOf(words, nWords), nWords, size);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+
+            private int next = nextSetBit(0);
+
+            private int last = -1;
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public E next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                last = next;
+                next = nextSetBit(next + 1);
+                return indexer.getObject(last);
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) {
+                    throw new IllegalStateException();
+                }
+                IndexerBitSet.this.remove(indexer.getObject(last));
+                last = -1;
+            }
+        };
+    }
+
+    /**
+     * @return the first index set in this set starting from {@code from},
+     * or -1 if there is no such index.
+     */
+    private int nextSetBit(int from) {
+        if (from < 0) { // overflow of the last index
+            return -1;
+        }
+        int pos = find(from >>> 6);
+        long w;
+        if (pos >= 0) {
+            w = words[pos] & (-1L << from);
+        } else {
+            pos = -pos - 1;
+            w = pos < nWords ? words[pos] : 0;
+        }
+        while (true) {
+            if (w != 0) {
+                return (keys[pos] << 6) + Long.numberOfTrailingZeros(w);
+            }
+            if (++pos >= nWords) {
+                return -1;
+            }
+            w = words[pos];
+        }
+    }
+}
@@ -78,4 +78,23 @@ public class CIPTATest {
     public void testMergeParam() {
         Tests.testCIPTA(DIR, "MergeParam");
     }
+
+    @Test
+    public void testBitmapPointsToSet() {
+        Tests.testCIPTA(DIR, "InstanceField", "bitmap-pts:true");
+        Tests.testCIPTA(DIR, "Array", "bitmap-pts:true");
+    }
+
+    @Test
+    public void testCycleElimination() {
+        Tests.testCIPTA(DIR, "Assign", "cycle-elimination:true");
+        Tests.testCIPTA(DIR, "Call", "cycle-elimination:true");
+    }
+
+    @Test
+    public void testVarSubstitution() {
+        Tests.testCIPTA(DIR, "Assign", "var-substitution:true");
+        Tests.testCIPTA(DIR, "Call", "var-substitution:true");
+        Tests.testCIPTA(DIR, "InstanceField", "var-substitution:true");
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.util.Indexer;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class IndexerBitSetTest {
+
+    private static final Indexer<Integer> indexer = new Indexer<>() {
+
+        @Override
+        public int getIndex(Integer o) {
+            return o;
+        }
+
+        @Override
+        public Integer getObject(int index) {
+            return index;
+        }
+    };
+
+    private static IndexerBitSet<Integer> setOf(Integer... elems) {
+        IndexerBitSet<Integer> set = new IndexerBitSet<>(indexer);
+        set.addAll(List.of(elems));
+        return set;
+    }
+
+    @Test
+    public void testAddContains() {
+        IndexerBitSet<Integer> set = setOf(1, 63, 64, 1000);
+        Assert.assertFalse(set.add(63));
+        Assert.assertTrue(set.add(100_000));
+        Assert.assertEquals(5, set.size());
+        Assert.assertTrue(set.contains(1000));
+        Assert.assertFalse(set.contains(65));
+        Assert.assertEquals(Set.of(1, 63, 64, 1000, 100_000), set);
+    }
+
+    @Test
+    public void testUnion() {
+        IndexerBitSet<Integer> set = setOf(1, 130, 5000);
+        Assert.assertTrue(set.addAll(setOf(2, 130, 70, 9999)));
+        Assert.assertFalse(set.addAll(setOf(1, 70)));
+        Assert.assertEquals(List.of(1, 2, 70, 130, 5000, 9999),
+                List.copyOf(set));
+        Assert.assertEquals(6, set.size());
+    }
+
+    @Test
+    public void testAddAllDiff() {
+        IndexerBitSet<Integer> set = setOf(1, 130, 5000);
+        IndexerBitSet<Integer> diff = set.addAllDiff(setOf(0, 1, 131, 5000, 7000));
+        Assert.assertEquals(List.of(0, 131, 7000), List.copyOf(diff));
+        Assert.assertEquals(3, diff.size());
+        Assert.assertEquals(new TreeSet<>(List.of(0, 1, 130, 131, 5000, 7000)), set);
+        Assert.assertTrue(set.addAllDiff(setOf(130, 7000)).isEmpty());
+    }
+
+    @Test
+    public void testRemove() {
+        IndexerBitSet<Integer> set = setOf(3, 64, 65, 200);
+        set.removeIf(i -> i % 2 == 1);
+        Assert.assertEquals(List.of(64, 200), List.copyOf(set));
+        Assert.assertTrue(set.remove(64));
+        Assert.assertFalse(set.remove(64));
+        Assert.assertEquals(List.of(200), List.copyOf(set));
+    }
+}
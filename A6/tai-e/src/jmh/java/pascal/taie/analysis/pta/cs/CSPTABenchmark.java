@@ -0,0 +1,78 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.cs;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pascal.taie.Main;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.config.AnalysisConfig;
+
+/**
+ * Measures the throughput of context-sensitive pointer analysis with
+ * the available context sensitivity variants. The IRs of the reachable methods
+ * are built by the first run in advance, so that each operation only
+ * measures the solver.
+ */
+@State(Scope.Benchmark)
+public class CSPTABenchmark {
+
+    @Param({"src/test/resources/pta/cspta"})
+    public String classPath;
+
+    @Param({"OneObject", "TwoObject", "TwoType", "TwoCall", "Synthetic"})
+    public String program;
+
+    /**
+     * The context-insensitive selector is measured as the baseline
+     * of the k-limiting selectors.
+     */
+    @Param({"ci", "2-obj", "2-type"})
+    public String cs;
+
+    private CSPTA cspta;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String cp = program.equals("Synthetic") ? "../../benchmarks" : classPath;
+        Main.buildWorld("-pp", "-cp", cp, "-m", program);
+        cspta = new CSPTA(new AnalysisConfig(CSPTA.ID,
+                "cs", cs,
+                "implicit-entries", false,
+                "only-app", true,
+                "merge-string-constants", false,
+                "merge-string-objects", false,
+                "merge-string-builders", false,
+                "merge-exception-objects", false));
+        cspta.analyze();
+    }
+
+    @Benchmark
+    public PointerAnalysisResult analyze() {
+        return cspta.analyze();
+    }
+}
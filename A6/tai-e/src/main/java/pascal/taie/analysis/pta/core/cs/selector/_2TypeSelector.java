@@ -43,19 +43,26 @@ public class _2TypeSelector implements ContextSelector {
 
     @Override
     public Context selectContext(CSCallSite callSite, JMethod callee) {
-        // TODO - finish me
-        return null;
+        return callSite.getContext();
     }
 
     @Override
     public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
-        // TODO - finish me
-        return null;
+        // keeps the last element of the receiver's heap context,
+        // and appends the type containing the allocation site of the receiver object
+        Context recvContext = recv.getContext();
+        int length = recvContext.getLength();
+        Type elem = recv.getObject().getContainerType();
+        return length == 0 ? ListContext.make(elem) :
+                ListContext.make(recvContext.getElementAt(length - 1), elem);
     }
 
     @Override
     public Context selectHeapContext(CSMethod method, Obj obj) {
-        // TODO - finish me
-        return null;
+        // 1-limited heap contexts
+        Context context = method.getContext();
+        int length = context.getLength();
+        return length == 0 ? getEmptyContext() :
+                ListContext.make(context.getElementAt(length - 1));
     }
 }
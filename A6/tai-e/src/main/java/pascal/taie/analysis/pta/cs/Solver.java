@@ -30,6 +30,7 @@ import pascal.taie.analysis.graph.callgraph.CallKind;
 import pascal.taie.analysis.graph.callgraph.Edge;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.PointerAnalysisResultImpl;
+import pascal.taie.analysis.pta.core.VarSubstitution;
 import pascal.taie.analysis.pta.core.cs.CSCallGraph;
 import pascal.taie.analysis.pta.core.cs.context.Context;
 import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
@@ -38,6 +39,7 @@ import pascal.taie.analysis.pta.core.cs.element.CSManager;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.ConcurrentCSManager;
 import pascal.taie.analysis.pta.core.cs.element.InstanceField;
 import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
@@ -48,6 +50,7 @@ import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.analysis.pta.pts.PointsToSetFactory;
 import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.InvokeExp;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Copy;
@@ -61,6 +64,17 @@ import pascal.taie.ir.stmt.StoreField;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.type.Type;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 class Solver {
 
@@ -72,6 +86,21 @@ class Solver {
 
     private final ContextSelector contextSelector;
 
+    /**
+     * Whether to collapse the cycles in the PFG during the analysis.
+     */
+    private final boolean cycleElimination;
+
+    /**
+     * Whether to solve the analysis by multiple threads.
+     */
+    private final boolean parallel;
+
+    /**
+     * Number of threads used by parallel solving.
+     */
+    private final int threads;
+
     private CSManager csManager;
 
     private CSCallGraph callGraph;
@@ -80,25 +109,83 @@ class Solver {
 
     private WorkList workList;
 
+    /**
+     * Substitution of pointer-equivalent variables, or null if
+     * variable substitution is disabled.
+     */
+    private VarSubstitution varSubstitution;
+
+    /**
+     * The pool which runs the tasks of parallel solving, or null if
+     * the analysis is not being solved in parallel.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * The first failure of the tasks of parallel solving.
+     */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * The PFG edges that have been checked by lazy cycle detection.
+     */
+    private MultiMap<Pointer, Pointer> checkedEdges;
+
     private PointerAnalysisResult result;
 
+    /**
+     * Number of pointer/object pairs taken from the work-list. As each entry
+     * only carries the delta of its pointer, every pair is propagated once,
+     * thus if no pointers are merged (by cycle elimination or variable
+     * substitution), this equals the total size of the points-to sets.
+     */
+    private final LongAdder propagatedObjects = new LongAdder();
+
     Solver(AnalysisOptions options, HeapModel heapModel,
            ContextSelector contextSelector) {
         this.options = options;
         this.heapModel = heapModel;
         this.contextSelector = contextSelector;
+        this.parallel = options.getBooleanOrDefault("parallel", false);
+        // option "threads" may be absent or non-positive, which means
+        // using all available processors
+        this.threads = options.get("threads") instanceof Integer n && n > 0 ?
+                n : Runtime.getRuntime().availableProcessors();
+        boolean cycleElimination = options.getBooleanOrDefault(
+                "cycle-elimination", false);
+        if (parallel && cycleElimination) {
+            logger.warn("Cycle elimination is not supported by" +
+                    " parallel solving, ignored");
+        }
+        if (parallel && options.getBooleanOrDefault("bitmap-pts", false)) {
+            logger.warn("Bitmap points-to sets are not supported by" +
+                    " parallel solving, ignored");
+        }
+        this.cycleElimination = cycleElimination && !parallel;
     }
 
     void solve() {
         initialize();
-        analyze();
+        if (parallel) {
+            analyzeInParallel();
+        } else {
+            analyze();
+        }
+        if (varSubstitution != null) {
+            shareSubstitutedPointsToSets();
+        }
     }
 
     private void initialize() {
-        csManager = new MapBasedCSManager();
-        callGraph = new CSCallGraph(csManager);
-        pointerFlowGraph = new PointerFlowGraph();
+        csManager = parallel ? new ConcurrentCSManager() : new MapBasedCSManager();
+        PointsToSetFactory.setUp(options, csManager.getObjectIndexer());
+        callGraph = new CSCallGraph(csManager, parallel);
+        pointerFlowGraph = new PointerFlowGraph(parallel);
         workList = new WorkList();
+        checkedEdges = Maps.newMultiMap();
+        if (options.getBooleanOrDefault("var-substitution", false)) {
+            varSubstitution = new VarSubstitution();
+        }
         // process program entry, i.e., main method
         Context defContext = contextSelector.getEmptyContext();
         JMethod main = World.get().getMainMethod();
@@ -111,7 +198,36 @@ class Solver {
      * Processes new reachable context-sensitive method.
      */
     private void addReachable(CSMethod csMethod) {
-        // TODO - finish me
+        if (callGraph.addReachableMethod(csMethod)) {
+            StmtProcessor stmtProcessor = new StmtProcessor(csMethod);
+            csMethod.getMethod().getIR()
+                    .forEach(stmt -> stmt.accept(stmtProcessor));
+        }
+    }
+
+    /**
+     * @return the CSVar for given variable in given context. If the variable
+     * is substituted by another variable, returns the CSVar of the latter.
+     */
+    private CSVar getCSVar(Context context, Var var) {
+        if (varSubstitution != null) {
+            var = varSubstitution.getRepresentative(var);
+        }
+        return csManager.getCSVar(context, var);
+    }
+
+    /**
+     * @return the abstract object allocated by given new statement.
+     * The heap model is not thread-safe, thus it is accessed exclusively
+     * in parallel solving.
+     */
+    private Obj getObj(New stmt) {
+        if (parallel) {
+            synchronized (heapModel) {
+                return heapModel.getObj(stmt);
+            }
+        }
+        return heapModel.getObj(stmt);
     }
 
     /**
@@ -128,31 +244,323 @@ class Solver {
             this.context = csMethod.getContext();
         }
 
-        // TODO - if you choose to implement addReachable()
-        //  via visitor pattern, then finish me
+        @Override
+        public Void visit(New stmt) {
+            Obj obj = getObj(stmt);
+            Context heapContext = contextSelector.selectHeapContext(csMethod, obj);
+            CSObj csObj = csManager.getCSObj(heapContext, obj);
+            propagate(getCSVar(context, stmt.getLValue()),
+                    PointsToSetFactory.make(csObj));
+            return null;
+        }
+
+        @Override
+        public Void visit(Copy stmt) {
+            addPFGEdge(getCSVar(context, stmt.getRValue()),
+                    getCSVar(context, stmt.getLValue()));
+            return null;
+        }
+
+        @Override
+        public Void visit(LoadField stmt) {
+            if (stmt.isStatic()) {
+                JField field = stmt.getFieldRef().resolve();
+                addPFGEdge(csManager.getStaticField(field),
+                        getCSVar(context, stmt.getLValue()));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(StoreField stmt) {
+            if (stmt.isStatic()) {
+                JField field = stmt.getFieldRef().resolve();
+                addPFGEdge(getCSVar(context, stmt.getRValue()),
+                        csManager.getStaticField(field));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(Invoke stmt) {
+            if (stmt.isStatic()) {
+                JMethod callee = resolveCallee(null, stmt);
+                if (callee != null) {
+                    CSCallSite csCallSite = csManager.getCSCallSite(context, stmt);
+                    Context calleeContext = contextSelector.selectContext(
+                            csCallSite, callee);
+                    processCallEdge(csCallSite,
+                            csManager.getCSMethod(calleeContext, callee));
+                }
+            }
+            return null;
+        }
     }
 
     /**
      * Adds an edge "source -> target" to the PFG.
      */
     private void addPFGEdge(Pointer source, Pointer target) {
-        // TODO - finish me
+        if (pointerFlowGraph.addEdge(source, target)) {
+            PointsToSet pts = source.getPointsToSet();
+            if (!pts.isEmpty()) {
+                propagate(target, pts);
+            }
+        }
     }
 
     /**
      * Processes work-list entries until the work-list is empty.
+     * Each entry carries only the delta of its pointer, i.e., the objects
+     * added to the points-to set since the pointer was last processed,
+     * thus the objects are never re-propagated along the same PFG edges.
      */
     private void analyze() {
-        // TODO - finish me
+        while (!workList.isEmpty()) {
+            WorkList.Entry entry = workList.pollEntry();
+            processEntry(entry.pointer(), entry.pointsToSet());
+        }
+    }
+
+    /**
+     * Parallel version of {@link #analyze()}. Each work-list entry is
+     * processed by a task of a {@link ForkJoinPool}, and the entries
+     * produced by a task are forked to the local queue of the thread
+     * running it. Thus, each thread mostly works on its own entries,
+     * and idle threads steal entries from the queues of the others.
+     * The analysis finishes when the pool is quiescent.
+     * <p>
+     * The points-to sets and the graphs only grow, and the fixed point
+     * does not depend on the order of processing the entries, thus the
+     * results are the same as the ones of {@link #analyze()}.
+     */
+    private void analyzeInParallel() {
+        pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new RootTask());
+        } finally {
+            pool.shutdown();
+            pool = null;
+        }
+        Throwable e = failure.get();
+        if (e != null) {
+            throw new AnalysisException("Failed to solve pointer analysis", e);
+        }
+    }
+
+    /**
+     * Forks the tasks for the work-list entries produced by initialization,
+     * and helps to run the tasks until the pool is quiescent, i.e.,
+     * all entries derived from them are processed.
+     */
+    private class RootTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute() {
+            while (!workList.isEmpty()) {
+                WorkList.Entry entry = workList.pollEntry();
+                new EntryTask(entry.pointer(), entry.pointsToSet()).fork();
+            }
+            helpQuiesce();
+        }
+    }
+
+    /**
+     * Processes a work-list entry in parallel solving. The tasks are not
+     * joined, thus the first failure is recorded and the remaining
+     * tasks are skipped.
+     */
+    private class EntryTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Pointer pointer;
+
+        private final PointsToSet delta;
+
+        private EntryTask(Pointer pointer, PointsToSet delta) {
+            this.pointer = pointer;
+            this.delta = delta;
+        }
+
+        @Override
+        protected void compute() {
+            if (failure.get() == null) {
+                try {
+                    processEntry(pointer, delta);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        }
     }
 
     /**
-     * Propagates pointsToSet to pt(pointer) and its PFG successors,
-     * returns the difference set of pointsToSet and pt(pointer).
+     * Propagates the delta of given pointer to its PFG successors,
+     * and processes the statements on the pointer for the new objects.
+     */
+    private void processEntry(Pointer entryPointer, PointsToSet delta) {
+        propagatedObjects.add(delta.size());
+        Pointer pointer = pointerFlowGraph.getRepresentative(entryPointer);
+        List<Pointer> cycleCandidates = List.of();
+        for (Pointer succ : pointerFlowGraph.getSuccsOf(pointer)) {
+            PointsToSet diff = propagate(succ, delta);
+            if (cycleElimination && diff.isEmpty()
+                    && isCycleCandidate(pointer, succ)) {
+                if (cycleCandidates.isEmpty()) {
+                    cycleCandidates = new ArrayList<>();
+                }
+                cycleCandidates.add(succ);
+            }
+        }
+        for (Pointer member : pointerFlowGraph.getMembers(pointer)) {
+            if (member instanceof CSVar csVar) {
+                processNewObjects(csVar, delta);
+            }
+        }
+        cycleCandidates.forEach(this::collapseCycles);
+    }
+
+    /**
+     * Propagates pointsToSet to pt(pointer), returns the difference set of
+     * pointsToSet and pt(pointer). The difference set is added to the
+     * work list as (part of) the delta of the pointer, which will be
+     * propagated to the PFG successors of the pointer later.
+     * In parallel solving, the difference set is processed by a new task.
      */
     private PointsToSet propagate(Pointer pointer, PointsToSet pointsToSet) {
-        // TODO - finish me
-        return null;
+        PointsToSet diff = pointer.getPointsToSet().addAllDiff(pointsToSet);
+        if (!diff.isEmpty()) {
+            Pointer rep = pointerFlowGraph.getRepresentative(pointer);
+            if (pool != null) {
+                new EntryTask(rep, diff).fork();
+            } else {
+                workList.addEntry(rep, diff);
+            }
+        }
+        return diff;
+    }
+
+    /**
+     * Processes the instance field accesses, array accesses and
+     * instance calls on given variable for its new discovered objects.
+     */
+    private void processNewObjects(CSVar csVar, PointsToSet newObjs) {
+        if (varSubstitution == null) {
+            processNewObjectsOf(csVar, newObjs);
+        } else {
+            // the statements on the substituted variables are processed
+            // with their representative
+            Context context = csVar.getContext();
+            for (Var var : varSubstitution.getMembers(csVar.getVar())) {
+                processNewObjectsOf(csManager.getCSVar(context, var), newObjs);
+            }
+        }
+    }
+
+    private void processNewObjectsOf(CSVar csVar, PointsToSet newObjs) {
+        for (CSObj csObj : newObjs) {
+            processInstanceFields(csVar, csObj);
+            processArrays(csVar, csObj);
+            processCall(csVar, csObj);
+        }
+    }
+
+    /**
+     * Lazy cycle detection: an edge "source -> target" is suspected to be
+     * in a cycle if the propagation along it adds no objects to target and
+     * the two pointers have the same points-to set. Each edge is checked
+     * at most once.
+     */
+    private boolean isCycleCandidate(Pointer source, Pointer target) {
+        PointsToSet sourcePts = source.getPointsToSet();
+        PointsToSet targetPts = target.getPointsToSet();
+        return sourcePts != targetPts // not collapsed into one node yet
+                && !sourcePts.isEmpty()
+                && sourcePts.size() == targetPts.size()
+                && checkedEdges.put(source, target);
+    }
+
+    /**
+     * Collapses the PFG cycles reachable from given pointer.
+     */
+    private void collapseCycles(Pointer from) {
+        for (List<Pointer> cycle : pointerFlowGraph.findCycles(from)) {
+            collapse(cycle);
+        }
+    }
+
+    /**
+     * Collapses a PFG cycle into one node: the pointers in the cycle are
+     * merged into a representative, and share one points-to set which is
+     * the union of their points-to sets.
+     *
+     * @param cycle representatives of the pointers in the cycle.
+     */
+    private void collapse(List<Pointer> cycle) {
+        Pointer rep = cycle.get(0);
+        List<Collection<Pointer>> members = cycle.stream()
+                .map(pointerFlowGraph::getMembers)
+                .toList();
+        PointsToSet merged = PointsToSetFactory.make();
+        cycle.forEach(p -> merged.addAll(p.getPointsToSet()));
+        // objects that are newly pointed by the pointers of each node
+        List<PointsToSet> newObjs = cycle.stream()
+                .map(p -> p.getPointsToSet().addAllDiff(merged))
+                .toList();
+        pointerFlowGraph.collapse(rep, cycle);
+        members.forEach(ptrs -> ptrs.forEach(p -> p.setPointsToSet(merged)));
+        for (int i = 0; i < cycle.size(); ++i) {
+            if (!newObjs.get(i).isEmpty()) {
+                for (Pointer member : members.get(i)) {
+                    if (member instanceof CSVar csVar) {
+                        processNewObjects(csVar, newObjs.get(i));
+                    }
+                }
+            }
+        }
+        // the successors of each node may miss the objects of other nodes
+        for (Pointer succ : pointerFlowGraph.getSuccsOf(rep)) {
+            propagate(succ, merged);
+        }
+    }
+
+    /**
+     * Processes instance field stores/loads on a new discovered object
+     * pointed by the base variable.
+     */
+    private void processInstanceFields(CSVar base, CSObj csObj) {
+        Context context = base.getContext();
+        Var var = base.getVar();
+        for (StoreField store : var.getStoreFields()) {
+            JField field = store.getFieldRef().resolve();
+            addPFGEdge(getCSVar(context, store.getRValue()),
+                    csManager.getInstanceField(csObj, field));
+        }
+        for (LoadField load : var.getLoadFields()) {
+            JField field = load.getFieldRef().resolve();
+            addPFGEdge(csManager.getInstanceField(csObj, field),
+                    getCSVar(context, load.getLValue()));
+        }
+    }
+
+    /**
+     * Processes array stores/loads on a new discovered array object
+     * pointed by the base variable.
+     */
+    private void processArrays(CSVar base, CSObj array) {
+        Context context = base.getContext();
+        Var var = base.getVar();
+        for (StoreArray store : var.getStoreArrays()) {
+            addPFGEdge(getCSVar(context, store.getRValue()),
+                    csManager.getArrayIndex(array));
+        }
+        for (LoadArray load : var.getLoadArrays()) {
+            addPFGEdge(csManager.getArrayIndex(array),
+                    getCSVar(context, load.getLValue()));
+        }
     }
 
     /**
@@ -162,7 +570,66 @@ class Solver {
      * @param recvObj set of new discovered objects pointed by the variable.
      */
     private void processCall(CSVar recv, CSObj recvObj) {
-        // TODO - finish me
+        for (Invoke callSite : recv.getVar().getInvokes()) {
+            JMethod callee = resolveCallee(recvObj, callSite);
+            if (callee == null) {
+                logger.debug("Failed to resolve {} on {}", callSite, recvObj);
+                continue;
+            }
+            CSCallSite csCallSite = csManager.getCSCallSite(
+                    recv.getContext(), callSite);
+            Context calleeContext = contextSelector.selectContext(
+                    csCallSite, recvObj, callee);
+            Var thisVar = callee.getIR().getThis();
+            propagate(getCSVar(calleeContext, thisVar),
+                    PointsToSetFactory.make(recvObj));
+            processCallEdge(csCallSite,
+                    csManager.getCSMethod(calleeContext, callee));
+        }
+    }
+
+    /**
+     * Adds call edge from csCallSite to csCallee, and if the edge is new,
+     * adds the PFG edges for the arguments and return values.
+     */
+    private void processCallEdge(CSCallSite csCallSite, CSMethod csCallee) {
+        Invoke callSite = csCallSite.getCallSite();
+        CallKind kind = CallGraphs.getCallKind(callSite);
+        if (callGraph.addEdge(new Edge<>(kind, csCallSite, csCallee))) {
+            addReachable(csCallee);
+            Context callerContext = csCallSite.getContext();
+            Context calleeContext = csCallee.getContext();
+            InvokeExp invokeExp = callSite.getInvokeExp();
+            IR ir = csCallee.getMethod().getIR();
+            for (int i = 0; i < invokeExp.getArgCount(); ++i) {
+                addPFGEdge(getCSVar(callerContext, invokeExp.getArg(i)),
+                        getCSVar(calleeContext, ir.getParam(i)));
+            }
+            Var result = callSite.getResult();
+            if (result != null) {
+                CSVar csResult = getCSVar(callerContext, result);
+                for (Var ret : ir.getReturnVars()) {
+                    addPFGEdge(getCSVar(calleeContext, ret), csResult);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lets the CSVars of the substituted variables share the points-to sets
+     * of the CSVars of their representatives, so that the results of
+     * the substituted variables are also available.
+     */
+    private void shareSubstitutedPointsToSets() {
+        for (CSVar csVar : List.copyOf(csManager.getCSVars())) {
+            List<Var> members = varSubstitution.getMembers(csVar.getVar());
+            for (int i = 1; i < members.size(); ++i) {
+                csManager.getCSVar(csVar.getContext(), members.get(i))
+                        .setPointsToSet(csVar.getPointsToSet());
+            }
+        }
+        logger.info("{} variables substituted",
+                varSubstitution.getSubstitutedCount());
     }
 
     /**
@@ -178,6 +645,13 @@ class Solver {
         return CallGraphs.resolveCallee(type, callSite);
     }
 
+    /**
+     * @return the number of pointer/object pairs taken from the work-list.
+     */
+    long getPropagatedObjects() {
+        return propagatedObjects.sum();
+    }
+
     PointerAnalysisResult getResult() {
         if (result == null) {
             result = new PointerAnalysisResultImpl(csManager, callGraph);
@@ -0,0 +1,454 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.language.classes;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.ir.proginfo.FieldRef;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.language.type.ArrayType;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class ClassHierarchyImpl implements ClassHierarchy {
+
+    private static final Logger logger = LogManager.getLogger(ClassHierarchyImpl.class);
+
+    private JClassLoader defaultLoader;
+
+    private JClassLoader bootstrapLoader;
+
+    private final Map<String, JClassLoader> loaders = Maps.newSmallMap();
+
+    private JClass JavaLangObject;
+
+    /**
+     * Map from each interface to its direct subinterfaces.
+     */
+    private final MultiMap<JClass, JClass> directSubinterfaces = Maps.newMultiMap();
+
+    /**
+     * Map from each interface to its direct implementors.
+     */
+    private final MultiMap<JClass, JClass> directImplementors = Maps.newMultiMap();
+
+    /**
+     * Map from each class to its direct subclasses.
+     */
+    private final MultiMap<JClass, JClass> directSubclasses = Maps.newMultiMap();
+
+    /**
+     * Map from each class to its direct inner classes.
+     */
+    private final MultiMap<JClass, JClass> directInnerClasses = Maps.newMultiMap();
+
+    /**
+     * Caches the results of method dispatch. The cache is concurrent
+     * and bounded, as dispatch is queried by the (possibly parallel)
+     * call graph builders and pointer analyses on every virtual call.
+     */
+    private final DispatchCache dispatchCache = new DispatchCache(
+            (c, subsig) -> lookupMethod(c, subsig, false));
+
+    /**
+     * Index of the subtype relation, which is built on demand and
+     * dropped when new classes are added.
+     */
+    private volatile SubtypeIndex subtypeIndex;
+
+    @Override
+    public void setDefaultClassLoader(JClassLoader loader) {
+        this.defaultLoader = loader;
+        loaders.put("default", loader);
+    }
+
+    @Override
+    public JClassLoader getDefaultClassLoader() {
+        return defaultLoader;
+    }
+
+    @Override
+    public void setBootstrapClassLoader(JClassLoader loader) {
+        this.bootstrapLoader = loader;
+        loaders.put("bootstrap", loader);
+    }
+
+    @Override
+    public JClassLoader getBootstrapClassLoader() {
+        return bootstrapLoader;
+    }
+
+    @Override
+    public Collection<JClassLoader> getClassLoaders() {
+        return loaders.values()
+                .stream()
+                .distinct()
+                .toList();
+    }
+
+    @Override
+    public void addClass(JClass jclass) {
+        subtypeIndex = null;
+        if (jclass.isInterface()) {
+            // add direct subinterfaces
+            jclass.getInterfaces().forEach(iface ->
+                    directSubinterfaces.put(iface, jclass));
+        } else {
+            // add direct implementors
+            jclass.getInterfaces().forEach(iface ->
+                    directImplementors.put(iface, jclass));
+            // add direct subclasses
+            JClass superClass = jclass.getSuperClass();
+            if (superClass != null) {
+                directSubclasses.put(superClass, jclass);
+            }
+        }
+        // add direct inner classes
+        JClass outerClass = jclass.getOuterClass();
+        if (outerClass != null) {
+            directInnerClasses.put(outerClass, jclass);
+        }
+    }
+
+    @Override
+    public Stream<JClass> allClasses() {
+        return loaders.values()
+                .stream()
+                .distinct()
+                .map(JClassLoader::getLoadedClasses)
+                .flatMap(Collection::stream);
+    }
+
+    @Override
+    public Stream<JClass> applicationClasses() {
+        return allClasses().filter(JClass::isApplication);
+    }
+
+    @Override
+    public @Nullable
+    JClass getClass(JClassLoader loader, String name) {
+        return loader.loadClass(name);
+    }
+
+    @Override
+    public @Nullable
+    JClass getClass(String name) {
+        return getClass(getDefaultClassLoader(), name);
+    }
+
+    @Override
+    public @Nullable
+    JMethod getMethod(String methodSig) {
+        String className = StringReps.getClassNameOf(methodSig);
+        JClass jclass = getClass(className);
+        if (jclass != null) {
+            Subsignature subsig = Subsignature.get(
+                    StringReps.getSubsignatureOf(methodSig));
+            return jclass.getDeclaredMethod(subsig);
+        }
+        return null;
+    }
+
+    @Override
+    public @Nullable
+    JField getField(String fieldSig) {
+        String className = StringReps.getClassNameOf(fieldSig);
+        JClass jclass = getClass(className);
+        if (jclass != null) {
+            String fieldName = StringReps.getFieldNameOf(fieldSig);
+            return jclass.getDeclaredField(fieldName);
+        }
+        return null;
+    }
+
+    @Override
+    public @Nullable
+    JClass getJREClass(String name) {
+        return getClass(getBootstrapClassLoader(), name);
+    }
+
+    @Override
+    public @Nullable
+    JMethod getJREMethod(String methodSig) {
+        String className = StringReps.getClassNameOf(methodSig);
+        JClass jclass = getJREClass(className);
+        if (jclass != null) {
+            Subsignature subsig = Subsignature.get(
+                    StringReps.getSubsignatureOf(methodSig));
+            return jclass.getDeclaredMethod(subsig);
+        }
+        return null;
+    }
+
+    @Override
+    public @Nullable
+    JField getJREField(String fieldSig) {
+        String className = StringReps.getClassNameOf(fieldSig);
+        JClass jclass = getJREClass(className);
+        if (jclass != null) {
+            String fieldName = StringReps.getFieldNameOf(fieldSig);
+            return jclass.getDeclaredField(fieldName);
+        }
+        return null;
+    }
+
+    @Override
+    public @Nullable
+    JMethod resolveMethod(MethodRef methodRef) {
+        JClass declaringClass = methodRef.getDeclaringClass();
+        JMethod method = lookupMethod(declaringClass,
+                methodRef.getSubsignature(), true);
+        if (method != null) {
+            return method;
+        } else if (methodRef.isPolymorphicSignature()) {
+            return declaringClass.getDeclaredMethod(methodRef.getName());
+        }
+        return null;
+    }
+
+    @Override
+    public @Nullable
+    JField resolveField(FieldRef fieldRef) {
+        return resolveField(fieldRef.getDeclaringClass(),
+                fieldRef.getName(), fieldRef.getType());
+    }
+
+    private JField resolveField(JClass jclass, String name, Type type) {
+        JField field = jclass.getDeclaredField(name);
+        if (field != null && field.getType().equals(type)) {
+            return field;
+        }
+        for (JClass iface : jclass.getInterfaces()) {
+            field = resolveField(iface, name, type);
+            if (field != null) {
+                return field;
+            }
+        }
+        if (jclass.getSuperClass() != null) {
+            return resolveField(jclass.getSuperClass(), name, type);
+        }
+        return null;
+    }
+
+    @Override
+    public @Nullable
+    JMethod dispatch(Type receiverType, MethodRef methodRef) {
+        JClass cls;
+        if (receiverType instanceof ClassType) {
+            cls = ((ClassType) receiverType).getJClass();
+        } else if (receiverType instanceof ArrayType) {
+            cls = getJREClass(ClassNames.OBJECT);
+        } else {
+            throw new AnalysisException(receiverType + " cannot be dispatched");
+        }
+        return dispatch(cls, methodRef);
+    }
+
+    @Override
+    public @Nullable
+    JMethod dispatch(JClass receiverClass, MethodRef methodRef) {
+        Subsignature subsignature = methodRef.getSubsignature();
+        JMethod target = dispatchCache.get(receiverClass, subsignature);
+        if (target == null) {
+            logger.debug("Failed to dispatch {} on {}", subsignature, receiverClass);
+        }
+        return target;
+    }
+
+    private JMethod lookupMethod(JClass jclass, Subsignature subsignature,
+                                 boolean allowAbstract) {
+        for (JClass c = jclass; c != null; c = c.getSuperClass()) {
+            JMethod method = c.getDeclaredMethod(subsignature);
+            if (method != null && (allowAbstract || !method.isAbstract())) {
+                return method;
+            }
+        }
+        for (JClass c = jclass; c != null; c = c.getSuperClass()) {
+            for (JClass iface : c.getInterfaces()) {
+                JMethod method = lookupMethodFromSuperinterfaces(
+                        iface, subsignature, allowAbstract);
+                if (method != null) {
+                    return method;
+                }
+            }
+        }
+        return null;
+    }
+
+    private JMethod lookupMethodFromSuperinterfaces(
+            JClass jclass, Subsignature subsignature, boolean allowAbstract) {
+        JMethod method = jclass.getDeclaredMethod(subsignature);
+        if (method != null && (allowAbstract || !method.isAbstract())) {
+            return method;
+        }
+        for (JClass iface : jclass.getInterfaces()) {
+            method = lookupMethodFromSuperinterfaces(
+                    iface, subsignature, allowAbstract);
+            if (method != null) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isSubclass(JClass superclass, JClass subclass) {
+        SubtypeIndex index = subtypeIndex;
+        if (index != null &&
+                index.contains(superclass) && index.contains(subclass)) {
+            return index.isSubtype(superclass, subclass);
+        }
+        if (superclass.equals(subclass)) {
+            return true;
+        } else if (superclass == getObjectClass()) {
+            return true;
+        } else if (subclass.isInterface()) {
+            return superclass.isInterface() &&
+                    isSubinterface(superclass, subclass);
+        } else {
+            return isSubclass0(superclass, subclass);
+        }
+    }
+
+    private JClass getObjectClass() {
+        if (JavaLangObject == null) {
+            JClassLoader loader = bootstrapLoader != null ?
+                    bootstrapLoader : defaultLoader;
+            JavaLangObject = loader.loadClass(ClassNames.OBJECT);
+        }
+        return JavaLangObject;
+    }
+
+    /**
+     * Private helper method for checking whether an interface is
+     * a subinterface of another interface.
+     */
+    private boolean isSubinterface(JClass superinterface, JClass subinterface) {
+        if (subinterface.equals(superinterface)) {
+            return true;
+        }
+        for (JClass iface : subinterface.getInterfaces()) {
+            if (isSubinterface(superinterface, iface)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Private helper method for checking whether a non-interface class
+     * is a subclass of another class or interface.
+     */
+    private boolean isSubclass0(JClass superclass, JClass subclass) {
+        boolean isInterface = superclass.isInterface();
+        for (JClass c = subclass; c != null; c = c.getSuperClass()) {
+            if (c.equals(superclass)) {
+                return true;
+            }
+            if (isInterface) {
+                for (JClass iface : c.getInterfaces()) {
+                    if (isSubclass0(superclass, iface)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Collection<JClass> getAllSubclassesOf(JClass jclass, boolean selfInclude) {
+        Set<JClass> subclasses = Sets.newHybridSet();
+        SubtypeIndex index = subtypeIndex;
+        if (index != null && index.contains(jclass)) {
+            subclasses.addAll(index.getAllSubtypesOf(jclass));
+            if (!selfInclude) {
+                subclasses.remove(jclass);
+            }
+        } else {
+            getAllSubclassesOf0(jclass, subclasses, selfInclude);
+        }
+        return subclasses;
+    }
+
+    private void getAllSubclassesOf0(JClass jclass, Set<JClass> subclasses,
+                                     boolean selfInclude) {
+        if (selfInclude) {
+            subclasses.add(jclass);
+        }
+        if (jclass.isInterface()) {
+            getDirectSubinterfacesOf(jclass).forEach(c ->
+                    getAllSubclassesOf0(c, subclasses, true));
+            getDirectImplementorsOf(jclass).forEach(c ->
+                    getAllSubclassesOf0(c, subclasses, true));
+        } else {
+            getDirectSubclassesOf(jclass).forEach(c ->
+                    getAllSubclassesOf0(c, subclasses, true));
+        }
+    }
+
+    @Override
+    public Collection<JClass> getDirectSubinterfacesOf(JClass jclass) {
+        return directSubinterfaces.get(jclass);
+    }
+
+    @Override
+    public Collection<JClass> getDirectImplementorsOf(JClass jclass) {
+        return directImplementors.get(jclass);
+    }
+
+    @Override
+    public Collection<JClass> getDirectSubclassesOf(JClass jclass) {
+        return directSubclasses.get(jclass);
+    }
+
+    @Override
+    public Collection<JClass> getDirectInnerClassesOf(JClass jclass) {
+        return directInnerClasses.get(jclass);
+    }
+
+    @Override
+    public SubtypeIndex getSubtypeIndex() {
+        SubtypeIndex index = subtypeIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = subtypeIndex;
+                if (index == null) {
+                    subtypeIndex = index = new SubtypeIndex(
+                            allClasses().toList());
+                }
+            }
+        }
+        return index;
+    }
+}
@@ -60,7 +60,11 @@ public class JMethod extends ClassMember {
      */
     private final Object methodSource;
 
-    private IR ir;
+    /**
+     * IR of this method, which is built lazily on the first call to
+     * {@link #getIR()}. Volatile for safe publication to other threads.
+     */
+    private volatile IR ir;
 
     public JMethod(JClass declaringClass, String name, Set<Modifier> modifiers,
                    List<Type> paramTypes, Type returnType, List<ClassType> exceptions,
@@ -148,19 +152,35 @@ public class JMethod extends ClassMember {
         return methodSource;
     }
 
+    /**
+     * @return the IR of this method. The IR is built on the first call,
+     * and this method is safe to be called concurrently: the IR of each
+     * method is built only once, and the threads calling this method
+     * on different methods do not block each other.
+     */
     public IR getIR() {
-        if (ir == null) {
-            if (isAbstract()) {
-                throw new AnalysisException("Abstract method " + this +
-                        " has no method body");
-            }
-            if (isNative()) {
-                ir = World.get().getNativeModel().buildNativeIR(this);
-            } else {
-                ir = World.get().getIRBuilder().buildIR(this);
+        IR result = ir;
+        if (result == null) {
+            synchronized (this) {
+                result = ir;
+                if (result == null) {
+                    ir = result = buildIR();
+                }
             }
         }
-        return ir;
+        return result;
+    }
+
+    private IR buildIR() {
+        if (isAbstract()) {
+            throw new AnalysisException("Abstract method " + this +
+                    " has no method body");
+        }
+        if (isNative()) {
+            return World.get().getNativeModel().buildNativeIR(this);
+        } else {
+            return World.get().getIRBuilder().buildIR(this);
+        }
     }
 
     /**
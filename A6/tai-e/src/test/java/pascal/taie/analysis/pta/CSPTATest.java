@@ -93,4 +93,32 @@ public class CSPTATest {
     public void testArray() {
         Tests.testCSPTA(DIR, "Array");
     }
+
+    @Test
+    public void testBitmapPointsToSet() {
+        Tests.testCSPTA(DIR, "InstanceField", "bitmap-pts:true");
+        Tests.testCSPTA(DIR, "Array", "bitmap-pts:true");
+    }
+
+    @Test
+    public void testCycleElimination() {
+        Tests.testCSPTA(DIR, "Assign", "cycle-elimination:true");
+        Tests.testCSPTA(DIR, "Call", "cycle-elimination:true");
+    }
+
+    @Test
+    public void testVarSubstitution() {
+        Tests.testCSPTA(DIR, "Assign", "var-substitution:true");
+        Tests.testCSPTA(DIR, "Call", "var-substitution:true");
+        Tests.testCSPTA(DIR, "InstanceField", "var-substitution:true");
+    }
+
+    @Test
+    public void testParallel() {
+        Tests.testCSPTA(DIR, "Assign", "parallel:true");
+        Tests.testCSPTA(DIR, "Call", "parallel:true");
+        Tests.testCSPTA(DIR, "InstanceField", "parallel:true");
+        Tests.testCSPTA(DIR, "Array", "parallel:true");
+        Tests.testCSPTA(DIR, "StaticField", "parallel:true");
+    }
 }
@@ -0,0 +1,61 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.ListContext;
+import pascal.taie.analysis.pta.core.heap.MockObj;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.Sets;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+public class ConcurrentCSManagerTest {
+
+    @Test
+    public void testGetCSObj() {
+        CSManager csManager = new ConcurrentCSManager();
+        Context context = ListContext.make();
+        List<Obj> objs = IntStream.range(0, 1000)
+                .mapToObj(i -> (Obj) new MockObj("Test", i, null))
+                .toList();
+        // each object is obtained by multiple threads concurrently
+        IntStream.range(0, objs.size() * 4)
+                .parallel()
+                .forEach(i -> csManager.getCSObj(context, objs.get(i % objs.size())));
+        Assert.assertEquals(objs.size(), csManager.getObjects().size());
+        Indexer<CSObj> indexer = csManager.getObjectIndexer();
+        Set<Integer> indexes = Sets.newSet();
+        for (Obj obj : objs) {
+            CSObj csObj = csManager.getCSObj(context, obj);
+            Assert.assertSame(csObj, indexer.getObject(indexer.getIndex(csObj)));
+            indexes.add(indexer.getIndex(csObj));
+        }
+        Assert.assertEquals(objs.size(), indexes.size());
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.cs;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.Tests;
+
+public class DeltaPropagationTest {
+
+    private static final String DIR = "cspta";
+
+    /**
+     * Checks the results of given program against the expected ones,
+     * then solves it again, and checks that each pointer/object pair is
+     * propagated only once, i.e., the number of the pairs taken from
+     * the work-list equals the total size of the points-to sets.
+     */
+    private static void test(String main) {
+        Tests.testCSPTA(DIR, main);
+        Solver solver = SolverTests.solve();
+        long size = SolverTests.getPointers(solver.getResult())
+                .mapToLong(p -> p.getPointsToSet().size())
+                .sum();
+        Assert.assertTrue(size > 0);
+        Assert.assertEquals(size, solver.getPropagatedObjects());
+    }
+
+    @Test
+    public void testNew() {
+        test("New");
+    }
+
+    @Test
+    public void testAssign() {
+        test("Assign");
+    }
+
+    @Test
+    public void testStoreLoad() {
+        test("StoreLoad");
+    }
+
+    @Test
+    public void testCall() {
+        test("Call");
+    }
+
+    @Test
+    public void testInstanceField() {
+        test("InstanceField");
+    }
+
+    @Test
+    public void testArray() {
+        test("Array");
+    }
+
+    @Test
+    public void testStaticField() {
+        test("StaticField");
+    }
+}
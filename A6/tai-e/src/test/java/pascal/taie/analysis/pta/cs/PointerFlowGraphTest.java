@@ -0,0 +1,114 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.cs;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.language.type.Type;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+public class PointerFlowGraphTest {
+
+    private static class Node implements Pointer {
+
+        private final String name;
+
+        private Node(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public PointsToSet getPointsToSet() {
+            return null;
+        }
+
+        @Override
+        public void setPointsToSet(PointsToSet pointsToSet) {
+        }
+
+        @Override
+        public Type getType() {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    @Test
+    public void testCollapse() {
+        Node a = new Node("a"), b = new Node("b"), c = new Node("c"),
+                d = new Node("d"), e = new Node("e");
+        // a -> b -> c -> a, c -> d, d -> e -> d
+        PointerFlowGraph pfg = new PointerFlowGraph();
+        pfg.addEdge(a, b);
+        pfg.addEdge(b, c);
+        pfg.addEdge(c, a);
+        pfg.addEdge(c, d);
+        pfg.addEdge(d, e);
+        pfg.addEdge(e, d);
+        List<List<Pointer>> cycles = pfg.findCycles(b);
+        Assert.assertEquals(2, cycles.size());
+        Assert.assertEquals(Set.of(d, e), Set.copyOf(cycles.get(0)));
+        Assert.assertEquals(Set.of(a, b, c), Set.copyOf(cycles.get(1)));
+
+        pfg.collapse(a, cycles.get(1));
+        Assert.assertSame(a, pfg.getRepresentative(c));
+        Assert.assertEquals(Set.of(a, b, c), Set.copyOf(pfg.getMembers(a)));
+        Assert.assertEquals(Set.of(d), pfg.getSuccsOf(b));
+        Assert.assertFalse(pfg.addEdge(c, b));
+
+        pfg.collapse(d, cycles.get(0));
+        Assert.assertTrue(pfg.getSuccsOf(e).isEmpty());
+        Assert.assertTrue(pfg.addEdge(e, b));
+        cycles = pfg.findCycles(c);
+        Assert.assertEquals(1, cycles.size());
+        Assert.assertEquals(Set.of(a, d), Set.copyOf(cycles.get(0)));
+    }
+
+    @Test
+    public void testConcurrentAddEdge() {
+        int n = 100;
+        List<Node> nodes = IntStream.range(0, n)
+                .mapToObj(i -> new Node("n" + i))
+                .toList();
+        PointerFlowGraph pfg = new PointerFlowGraph(true);
+        // each edge is added by multiple threads, and only one of them succeeds
+        long added = IntStream.range(0, n * n * 4)
+                .parallel()
+                .filter(i -> {
+                    int edge = i % (n * n);
+                    return pfg.addEdge(nodes.get(edge / n), nodes.get(edge % n));
+                })
+                .count();
+        Assert.assertEquals(n * (n - 1), added); // self-loops are skipped
+        nodes.forEach(node -> Assert.assertEquals(n - 1, pfg.getSuccsOf(node).size()));
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.cs;
+
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.cs.selector.CISelector;
+import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
+import pascal.taie.config.AnalysisOptions;
+
+import java.util.Collection;
+import java.util.stream.Stream;
+
+/**
+ * Static utility methods for the tests of {@link Solver}.
+ */
+final class SolverTests {
+
+    private SolverTests() {
+    }
+
+    /**
+     * Solves the program of current world context-insensitively
+     * with given extra options.
+     *
+     * @param extraOptions extra options in key-value pairs
+     * @return the solver which has finished solving.
+     */
+    static Solver solve(Object... extraOptions) {
+        AnalysisOptions options = Tests.getPTAOptions(CSPTA.ID,
+                Stream.concat(Stream.of("cs", "ci"), Stream.of(extraOptions))
+                        .toArray());
+        Solver solver = new Solver(options,
+                new AllocationSiteBasedModel(options), new CISelector());
+        solver.solve();
+        return solver;
+    }
+
+    /**
+     * @return all pointers in given result.
+     */
+    static Stream<Pointer> getPointers(PointerAnalysisResult result) {
+        return Stream.<Collection<? extends Pointer>>of(
+                        result.getCSVars(),
+                        result.getInstanceFields(),
+                        result.getArrayIndexes(),
+                        result.getStaticFields())
+                .flatMap(Collection::stream);
+    }
+}
@@ -23,7 +23,9 @@
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
 import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.ArithmeticExp;
@@ -40,13 +42,41 @@ import pascal.taie.language.type.PrimitiveType;
 import pascal.taie.language.type.Type;
 import pascal.taie.util.AnalysisException;
 
+import javax.annotation.Nullable;
+
 public class ConstantPropagation extends
         AbstractDataflowAnalysis<Stmt, CPFact> {
 
     public static final String ID = "constprop";
 
+    /**
+     * Whether solves this analysis by the sparse solver, which propagates
+     * values along def-use chains instead of copying facts at every node.
+     *
+     * @see SparseCPSolver
+     */
+    private final boolean sparse;
+
+    /**
+     * Whether uses {@link PackedCPFact} as the facts, which avoids
+     * allocating objects when transferring and meeting the facts.
+     */
+    private final boolean packed;
+
     public ConstantPropagation(AnalysisConfig config) {
         super(config);
+        sparse = getOptions().getBooleanOrDefault("sparse", false);
+        packed = getOptions().getBooleanOrDefault("packed", false);
+    }
+
+    @Override
+    public DataflowResult<Stmt, CPFact> analyze(IR ir) {
+        if (sparse) {
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            return new SparseCPSolver(this, cfg).solve();
+        } else {
+            return super.analyze(ir);
+        }
     }
 
     @Override
@@ -56,33 +86,84 @@ public class ConstantPropagation extends
 
     @Override
     public CPFact newBoundaryFact(CFG<Stmt> cfg) {
-        // TODO - finish me
-        return null;
+        // the parameters may hold any values
+        CPFact fact = newInitialFact(cfg);
+        cfg.getIR().getParams()
+                .stream()
+                .filter(ConstantPropagation::canHoldInt)
+                .forEach(p -> fact.update(p, Value.getNAC()));
+        return fact;
     }
 
     @Override
     public CPFact newInitialFact() {
-        // TODO - finish me
-        return null;
+        return new CPFact();
+    }
+
+    @Override
+    public CPFact newInitialFact(CFG<Stmt> cfg) {
+        return packed ? new PackedCPFact(cfg.getIR()) : newInitialFact();
     }
 
     @Override
     public void meetInto(CPFact fact, CPFact target) {
-        // TODO - finish me
+        if (fact instanceof PackedCPFact packedFact &&
+                target instanceof PackedCPFact packedTarget) {
+            packedTarget.meet(packedFact);
+        } else {
+            fact.forEach((var, value) ->
+                    target.update(var, meetValue(value, target.get(var))));
+        }
     }
 
     /**
      * Meets two Values.
      */
     public Value meetValue(Value v1, Value v2) {
-        // TODO - finish me
-        return null;
+        if (v1.isNAC() || v2.isNAC()) {
+            return Value.getNAC();
+        } else if (v1.isUndef()) {
+            return v2;
+        } else if (v2.isUndef()) {
+            return v1;
+        } else {
+            return v1.equals(v2) ? v1 : Value.getNAC();
+        }
     }
 
     @Override
     public boolean transferNode(Stmt stmt, CPFact in, CPFact out) {
-        // TODO - finish me
-        return false;
+        Var lhs = getDefinedVar(stmt);
+        if (in instanceof PackedCPFact packedIn &&
+                out instanceof PackedCPFact packedOut) {
+            // transfers the packed values without copying IN fact
+            long value = lhs == null ? Value.PACKED_UNDEF : evaluatePacked(
+                    ((DefinitionStmt<?, ?>) stmt).getRValue(), in);
+            return packedOut.copyFrom(packedIn, lhs, value);
+        }
+        if (lhs != null) {
+            CPFact newOut = in.copy();
+            newOut.update(lhs, evaluate(((DefinitionStmt<?, ?>) stmt).getRValue(), in));
+            return out.copyFrom(newOut);
+        } else {
+            return out.copyFrom(in);
+        }
+    }
+
+    /**
+     * @return the variable defined by given statement if its value is
+     * tracked by this analysis, i.e., the statement is a definition
+     * statement whose left-hand side is a variable which can hold
+     * integer value; otherwise, returns null.
+     */
+    @Nullable
+    static Var getDefinedVar(Stmt stmt) {
+        if (stmt instanceof DefinitionStmt<?, ?> defStmt &&
+                defStmt.getLValue() instanceof Var var &&
+                canHoldInt(var)) {
+            return var;
+        }
+        return null;
     }
 
     /**
@@ -111,7 +192,85 @@ public class ConstantPropagation extends
      * @return the resulting {@link Value}
      */
     public static Value evaluate(Exp exp, CPFact in) {
-        // TODO - finish me
-        return null;
+        return Value.unpack(evaluatePacked(exp, in));
+    }
+
+    /**
+     * Evaluates the packed value of given expression.
+     * This method does not allocate objects if {@code in}
+     * is a {@link PackedCPFact}.
+     *
+     * @see Value#pack(Value)
+     */
+    static long evaluatePacked(Exp exp, CPFact in) {
+        if (exp instanceof IntLiteral literal) {
+            return Value.packConstant(literal.getValue());
+        } else if (exp instanceof Var var) {
+            return canHoldInt(var) ? getPacked(in, var) : Value.PACKED_NAC;
+        } else if (exp instanceof BinaryExp binary) {
+            Var op1 = binary.getOperand1(), op2 = binary.getOperand2();
+            if (!canHoldInt(op1) || !canHoldInt(op2)) {
+                return Value.PACKED_NAC;
+            }
+            long v1 = getPacked(in, op1), v2 = getPacked(in, op2);
+            if (Value.isPackedConstant(v2) && Value.unpackConstant(v2) == 0 &&
+                    binary instanceof ArithmeticExp arith &&
+                    (arith.getOperator() == ArithmeticExp.Op.DIV ||
+                            arith.getOperator() == ArithmeticExp.Op.REM)) {
+                // division by zero never produces a value
+                return Value.PACKED_UNDEF;
+            }
+            if (Value.isPackedConstant(v1) && Value.isPackedConstant(v2)) {
+                return Value.packConstant(evaluate(binary.getOperator(),
+                        Value.unpackConstant(v1), Value.unpackConstant(v2)));
+            } else if (v1 == Value.PACKED_NAC || v2 == Value.PACKED_NAC) {
+                return Value.PACKED_NAC;
+            } else {
+                return Value.PACKED_UNDEF;
+            }
+        }
+        // other expressions, e.g., field loads and method calls,
+        // are conservatively treated as NAC
+        return Value.PACKED_NAC;
+    }
+
+    private static long getPacked(CPFact fact, Var var) {
+        return fact instanceof PackedCPFact packedFact ?
+                packedFact.getPacked(var) : Value.pack(fact.get(var));
+    }
+
+    private static int evaluate(BinaryExp.Op op, int i1, int i2) {
+        if (op instanceof ArithmeticExp.Op arithOp) {
+            return switch (arithOp) {
+                case ADD -> i1 + i2;
+                case SUB -> i1 - i2;
+                case MUL -> i1 * i2;
+                case DIV -> i1 / i2;
+                case REM -> i1 % i2;
+            };
+        } else if (op instanceof ConditionExp.Op condOp) {
+            boolean result = switch (condOp) {
+                case EQ -> i1 == i2;
+                case NE -> i1 != i2;
+                case LT -> i1 < i2;
+                case GT -> i1 > i2;
+                case LE -> i1 <= i2;
+                case GE -> i1 >= i2;
+            };
+            return result ? 1 : 0;
+        } else if (op instanceof ShiftExp.Op shiftOp) {
+            return switch (shiftOp) {
+                case SHL -> i1 << i2;
+                case SHR -> i1 >> i2;
+                case USHR -> i1 >>> i2;
+            };
+        } else if (op instanceof BitwiseExp.Op bitOp) {
+            return switch (bitOp) {
+                case OR -> i1 | i2;
+                case AND -> i1 & i2;
+                case XOR -> i1 ^ i2;
+            };
+        }
+        throw new AnalysisException("Unexpected binary operator: " + op);
     }
 }
@@ -121,9 +121,28 @@ public abstract class AbstractInterDataflowAnalysis<Method, Node, Fact>
     public Object analyze() {
         icfg = World.get().getResult(ICFGBuilder.ID);
         initialize();
-        solver = new InterSolver<>(this, icfg);
-        DataflowResult<Node, Fact> result = solver.solve();
+        DataflowResult<Node, Fact> result = solve();
         finish();
         return result;
     }
+
+    /**
+     * Solves this analysis on {@link #icfg}. By default, the analysis is
+     * solved by {@link InterSolver}, which solves the SCCs of the call graph
+     * in parallel if option {@code parallel} is enabled; if the concrete
+     * analysis solves itself in another way, then it can overwrite this method.
+     * If {@link #icfg} is built lazily (option {@code lazy} of the ICFG builder),
+     * the solver only visits the nodes reachable from the entry methods,
+     * and the option {@code parallel} is ignored.
+     * <p>
+     * In parallel solving, the transfer functions are called concurrently
+     * on the nodes of different methods, thus they must not modify the facts
+     * of the nodes in other methods or keep mutable state in the analysis.
+     */
+    protected DataflowResult<Node, Fact> solve() {
+        int parallelism = getOptions().getBooleanOrDefault("parallel", false) ?
+                Runtime.getRuntime().availableProcessors() : 1;
+        solver = new InterSolver<>(this, icfg, parallelism);
+        return solver.solve();
+    }
 }
@@ -0,0 +1,151 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Pair;
+
+import java.util.Set;
+
+/**
+ * Index of the loads and stores of fields and arrays which may access
+ * the same memory locations, built from the results of pointer analysis.
+ * <p>
+ * The loads and stores are first grouped by the locations they access,
+ * i.e., (abstract object, field) for instance fields, abstract object for
+ * arrays, and field for static fields, and then the loads and stores in
+ * the same group are linked with each other. Only the accesses whose
+ * values can hold int values are indexed, as the others are irrelevant
+ * to constant propagation.
+ * <p>
+ * A load and a store of arrays are linked if their bases may point to
+ * the same object; whether their indexes may be the same is decided
+ * by the data-flow facts during the solving.
+ */
+class AliasIndex {
+
+    /**
+     * Map from each load to the stores which may write the location it reads.
+     */
+    private final MultiMap<Stmt, Stmt> loadToStores = Maps.newMultiMap();
+
+    /**
+     * Map from each store to the loads which may read the location it writes.
+     */
+    private final MultiMap<Stmt, Stmt> storeToLoads = Maps.newMultiMap();
+
+    AliasIndex(PointerAnalysisResult pta) {
+        MultiMap<Pair<Obj, JField>, Stmt> fieldLoads = Maps.newMultiMap();
+        MultiMap<Pair<Obj, JField>, Stmt> fieldStores = Maps.newMultiMap();
+        MultiMap<Obj, Stmt> arrayLoads = Maps.newMultiMap();
+        MultiMap<Obj, Stmt> arrayStores = Maps.newMultiMap();
+        for (Var var : pta.getVars()) {
+            if (var.getLoadFields().isEmpty() && var.getStoreFields().isEmpty() &&
+                    var.getLoadArrays().isEmpty() && var.getStoreArrays().isEmpty()) {
+                continue;
+            }
+            for (Obj obj : pta.getPointsToSet(var)) {
+                for (LoadField load : var.getLoadFields()) {
+                    if (ConstantPropagation.canHoldInt(load.getLValue())) {
+                        JField field = load.getFieldRef().resolve();
+                        fieldLoads.put(new Pair<>(obj, field), load);
+                    }
+                }
+                for (StoreField store : var.getStoreFields()) {
+                    if (ConstantPropagation.canHoldInt(store.getRValue())) {
+                        JField field = store.getFieldRef().resolve();
+                        fieldStores.put(new Pair<>(obj, field), store);
+                    }
+                }
+                for (LoadArray load : var.getLoadArrays()) {
+                    if (ConstantPropagation.canHoldInt(load.getLValue())) {
+                        arrayLoads.put(obj, load);
+                    }
+                }
+                for (StoreArray store : var.getStoreArrays()) {
+                    if (ConstantPropagation.canHoldInt(store.getRValue())) {
+                        arrayStores.put(obj, store);
+                    }
+                }
+            }
+        }
+        MultiMap<JField, Stmt> staticLoads = Maps.newMultiMap();
+        MultiMap<JField, Stmt> staticStores = Maps.newMultiMap();
+        pta.getCallGraph().reachableMethods()
+                .filter(m -> !m.isAbstract())
+                .map(JMethod::getIR)
+                .forEach(ir -> ir.forEach(stmt -> {
+                    if (stmt instanceof LoadField load && load.isStatic() &&
+                            ConstantPropagation.canHoldInt(load.getLValue())) {
+                        staticLoads.put(load.getFieldRef().resolve(), load);
+                    } else if (stmt instanceof StoreField store && store.isStatic() &&
+                            ConstantPropagation.canHoldInt(store.getRValue())) {
+                        staticStores.put(store.getFieldRef().resolve(), store);
+                    }
+                }));
+        link(fieldLoads, fieldStores);
+        link(arrayLoads, arrayStores);
+        link(staticLoads, staticStores);
+    }
+
+    /**
+     * Links the loads and the stores which access the same locations.
+     */
+    private <K> void link(MultiMap<K, Stmt> loads, MultiMap<K, Stmt> stores) {
+        loads.forEachSet((location, locationLoads) -> {
+            Set<Stmt> locationStores = stores.get(location);
+            for (Stmt load : locationLoads) {
+                for (Stmt store : locationStores) {
+                    loadToStores.put(load, store);
+                    storeToLoads.put(store, load);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the stores which may write the location read by given load.
+     */
+    Set<Stmt> getStoresOf(Stmt load) {
+        return loadToStores.get(load);
+    }
+
+    /**
+     * @return the loads which may read the location written by given store.
+     */
+    Set<Stmt> getLoadsOf(Stmt store) {
+        return storeToLoads.get(store);
+    }
+}
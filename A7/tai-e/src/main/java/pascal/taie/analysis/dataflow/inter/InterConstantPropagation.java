@@ -25,6 +25,8 @@ package pascal.taie.analysis.dataflow.inter;
 import pascal.taie.World;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.analysis.graph.icfg.CallEdge;
@@ -34,14 +36,26 @@ import pascal.taie.analysis.graph.icfg.ReturnEdge;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.ArrayAccess;
 import pascal.taie.ir.exp.InvokeExp;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
 import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
 import pascal.taie.language.classes.JMethod;
 
 /**
  * Implementation of interprocedural constant propagation for int values.
+ * <p>
+ * If option {@code alias-aware} is enabled, the values of the fields and
+ * array elements are propagated from the stores to the loads which may
+ * access the same locations according to the results of pointer analysis.
+ * The aliasing loads and stores are looked up in an {@link AliasIndex}
+ * built once before the solving, and when the value stored by a store
+ * changes, only the loads aliased with the store are processed again.
  */
 public class InterConstantPropagation extends
         AbstractInterDataflowAnalysis<JMethod, Stmt, CPFact> {
@@ -50,16 +64,34 @@ public class InterConstantPropagation extends
 
     private final ConstantPropagation cp;
 
+    private final boolean aliasAware;
+
+    private AliasIndex aliasIndex;
+
     public InterConstantPropagation(AnalysisConfig config) {
         super(config);
         cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
+        aliasAware = getOptions().getBooleanOrDefault("alias-aware", false);
     }
 
     @Override
     protected void initialize() {
-        String ptaId = getOptions().getString("pta");
-        PointerAnalysisResult pta = World.get().getResult(ptaId);
-        // You can do initialization work here
+        if (aliasAware) {
+            String ptaId = getOptions().getString("pta");
+            PointerAnalysisResult pta = World.get().getResult(ptaId);
+            aliasIndex = new AliasIndex(pta);
+        }
+    }
+
+    @Override
+    protected DataflowResult<Stmt, CPFact> solve() {
+        if (aliasAware) {
+            // the loads depend on the stores in other methods, which are
+            // not connected by ICFG edges, thus we always solve sequentially
+            solver = new InterSolver<>(this, icfg);
+            return solver.solve();
+        }
+        return super.solve();
     }
 
     @Override
@@ -85,37 +117,140 @@ public class InterConstantPropagation extends
 
     @Override
     protected boolean transferCallNode(Stmt stmt, CPFact in, CPFact out) {
-        // TODO - finish me
-        return false;
+        // the effects of the call are handled by the edge transfers
+        return out.copyFrom(in);
     }
 
     @Override
     protected boolean transferNonCallNode(Stmt stmt, CPFact in, CPFact out) {
-        // TODO - finish me
-        return false;
+        if (aliasAware) {
+            if (stmt instanceof LoadField || stmt instanceof LoadArray) {
+                return transferLoad(stmt, in, out);
+            } else if (stmt instanceof StoreField || stmt instanceof StoreArray) {
+                return transferStore(stmt, in, out);
+            }
+        }
+        return cp.transferNode(stmt, in, out);
+    }
+
+    /**
+     * Transfer function for the loads of fields and arrays, which
+     * meets the values written by the aliased stores.
+     */
+    private boolean transferLoad(Stmt stmt, CPFact in, CPFact out) {
+        Var lhs = stmt instanceof LoadField load ?
+                load.getLValue() : ((LoadArray) stmt).getLValue();
+        if (!ConstantPropagation.canHoldInt(lhs)) {
+            return out.copyFrom(in);
+        }
+        DataflowResult<Stmt, CPFact> result = solver.getResult();
+        Value value = Value.getUndef();
+        for (Stmt store : aliasIndex.getStoresOf(stmt)) {
+            CPFact storeFact = result.getOutFact(store);
+            if (storeFact == null) {
+                // the store is not in the ICFG, e.g., its method
+                // is out of the scope of the analysis
+                continue;
+            }
+            if (store instanceof StoreField storeField) {
+                value = cp.meetValue(value, storeFact.get(storeField.getRValue()));
+            } else {
+                StoreArray storeArray = (StoreArray) store;
+                Value loadIndex = in.get(((LoadArray) stmt).getArrayAccess().getIndex());
+                Value storeIndex = storeFact.get(storeArray.getArrayAccess().getIndex());
+                if (mayAlias(loadIndex, storeIndex)) {
+                    value = cp.meetValue(value, storeFact.get(storeArray.getRValue()));
+                }
+            }
+        }
+        CPFact newOut = in.copy();
+        newOut.update(lhs, value);
+        return out.copyFrom(newOut);
+    }
+
+    /**
+     * @return true if the array indexes of given values may be the same.
+     */
+    private static boolean mayAlias(Value index1, Value index2) {
+        if (index1.isUndef() || index2.isUndef()) {
+            return false;
+        }
+        if (index1.isConstant() && index2.isConstant()) {
+            return index1.getConstant() == index2.getConstant();
+        }
+        return true;
+    }
+
+    /**
+     * Transfer function for the stores of fields and arrays. If the stored
+     * value (or the array index) changes, the aliased loads are added
+     * to the work-list to be processed again.
+     */
+    private boolean transferStore(Stmt stmt, CPFact in, CPFact out) {
+        Var rhs;
+        Var index;
+        if (stmt instanceof StoreField store) {
+            rhs = store.getRValue();
+            index = null;
+        } else {
+            ArrayAccess access = ((StoreArray) stmt).getArrayAccess();
+            rhs = ((StoreArray) stmt).getRValue();
+            index = access.getIndex();
+        }
+        Value oldValue = out.get(rhs);
+        Value oldIndex = index == null ? null : out.get(index);
+        boolean changed = cp.transferNode(stmt, in, out);
+        if (changed && (!oldValue.equals(out.get(rhs)) ||
+                (index != null && !oldIndex.equals(out.get(index))))) {
+            for (Stmt load : aliasIndex.getLoadsOf(stmt)) {
+                solver.addToWorkList(load);
+            }
+        }
+        return changed;
     }
 
     @Override
     protected CPFact transferNormalEdge(NormalEdge<Stmt> edge, CPFact out) {
-        // TODO - finish me
-        return null;
+        return out;
     }
 
     @Override
     protected CPFact transferCallToReturnEdge(CallToReturnEdge<Stmt> edge, CPFact out) {
-        // TODO - finish me
-        return null;
+        Var lhs = ((Invoke) edge.getSource()).getResult();
+        if (lhs == null) {
+            return out;
+        }
+        // the value of LHS variable is given by the return edges
+        CPFact result = out.copy();
+        result.remove(lhs);
+        return result;
     }
 
     @Override
     protected CPFact transferCallEdge(CallEdge<Stmt> edge, CPFact callSiteOut) {
-        // TODO - finish me
-        return null;
+        InvokeExp invokeExp = ((Invoke) edge.getSource()).getInvokeExp();
+        IR calleeIR = edge.getCallee().getIR();
+        CPFact result = newInitialFact();
+        for (int i = 0; i < invokeExp.getArgCount(); ++i) {
+            Var param = calleeIR.getParam(i);
+            if (ConstantPropagation.canHoldInt(param)) {
+                result.update(param, callSiteOut.get(invokeExp.getArg(i)));
+            }
+        }
+        return result;
     }
 
     @Override
     protected CPFact transferReturnEdge(ReturnEdge<Stmt> edge, CPFact returnOut) {
-        // TODO - finish me
-        return null;
+        CPFact result = newInitialFact();
+        Var lhs = ((Invoke) edge.getCallSite()).getResult();
+        if (lhs != null && ConstantPropagation.canHoldInt(lhs)) {
+            Value value = Value.getUndef();
+            for (Var returnVar : edge.getReturnVars()) {
+                value = cp.meetValue(value, returnOut.get(returnVar));
+            }
+            result.update(lhs, value);
+        }
+        return result;
     }
 }
@@ -0,0 +1,298 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.MergedNode;
+import pascal.taie.util.graph.MergedSCCGraph;
+import pascal.taie.util.graph.SimpleGraph;
+import pascal.taie.util.graph.TopoSorter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Processing order of the nodes of an ICFG for inter-procedural solvers.
+ * <p>
+ * The order given by {@link #byComponents} groups the methods by the
+ * strongly connected components (SCCs) of the call graph, and the SCCs
+ * are sorted in topological order, i.e., callers come before callees
+ * (except for recursive calls inside an SCC). The nodes are then placed
+ * SCC by SCC, and the nodes of each method are placed in reverse postorder
+ * of the method's control-flow graph. The nodes of each SCC are contiguous,
+ * so that the solvers can solve the SCCs separately.
+ * <p>
+ * The orders are designed for forward analyses; backward analyses
+ * use the reverse of them.
+ *
+ * @param <Method> type of ICFG methods
+ * @param <Node>   type of ICFG nodes
+ */
+class InterNodeOrder<Method, Node> {
+
+    /**
+     * The nodes sorted by processing order.
+     */
+    private final List<Node> nodes;
+
+    /**
+     * Map from each node to its position in {@link #nodes}.
+     */
+    private final Map<Node, Integer> positions;
+
+    /**
+     * The SCCs of the call graph, sorted by processing order.
+     * Each SCC contains the methods in it.
+     */
+    private final List<List<Method>> components;
+
+    /**
+     * The nodes of each SCC are placed contiguously in {@link #nodes}.
+     * The nodes of the i-th SCC are at positions from
+     * {@code componentStarts[i]} (inclusive) to
+     * {@code componentStarts[i + 1]} (exclusive).
+     */
+    private final int[] componentStarts;
+
+    private InterNodeOrder(List<Node> nodes, List<List<Method>> components,
+                           int[] componentStarts) {
+        this.nodes = nodes;
+        this.components = components;
+        this.componentStarts = componentStarts;
+        this.positions = Maps.newMap(nodes.size());
+        for (int i = 0; i < nodes.size(); ++i) {
+            positions.put(nodes.get(i), i);
+        }
+    }
+
+    /**
+     * Computes the processing order of the nodes in given ICFG, in which
+     * the nodes of each SCC of the call graph are contiguous.
+     *
+     * @param forward true for forward analyses, otherwise false.
+     */
+    static <Method, Node> InterNodeOrder<Method, Node> byComponents(
+            ICFG<Method, Node> icfg, boolean forward) {
+        Map<Method, List<Node>> methodNodes = groupByMethod(icfg);
+        List<List<Method>> components = computeComponents(icfg, methodNodes.keySet());
+        List<Node> order = new ArrayList<>(icfg.getNumberOfNodes());
+        int[] starts = new int[components.size() + 1];
+        for (int i = 0; i < components.size(); ++i) {
+            starts[i] = order.size();
+            for (Method method : components.get(i)) {
+                order.addAll(computeReversePostOrder(
+                        icfg, method, methodNodes.get(method)));
+            }
+        }
+        starts[components.size()] = order.size();
+        if (!forward) {
+            Collections.reverse(order);
+            Collections.reverse(components);
+            int[] reversedStarts = new int[starts.length];
+            for (int i = 0; i < starts.length; ++i) {
+                reversedStarts[i] = order.size() - starts[starts.length - 1 - i];
+            }
+            starts = reversedStarts;
+        }
+        return new InterNodeOrder<>(order, components, starts);
+    }
+
+    /**
+     * @return the order given by {@link ICFG#getNodes()}, in which all
+     * methods are placed in a single SCC. This is useful for measuring
+     * the effect of the SCC-based order.
+     */
+    static <Method, Node> InterNodeOrder<Method, Node> unordered(
+            ICFG<Method, Node> icfg) {
+        List<Method> methods = new ArrayList<>(groupByMethod(icfg).keySet());
+        return new InterNodeOrder<>(new ArrayList<>(icfg.getNodes()),
+                List.of(methods), new int[]{0, icfg.getNumberOfNodes()});
+    }
+
+    /**
+     * @return the position of given node in this order.
+     */
+    int getPosition(Node node) {
+        return positions.get(node);
+    }
+
+    /**
+     * @return the node at given position in this order.
+     */
+    Node getNode(int position) {
+        return nodes.get(position);
+    }
+
+    /**
+     * @return the number of nodes in this order.
+     */
+    int size() {
+        return nodes.size();
+    }
+
+    /**
+     * @return the SCCs of the call graph sorted by this order.
+     */
+    List<List<Method>> getComponents() {
+        return components;
+    }
+
+    /**
+     * @return the position of the first node of the i-th SCC.
+     */
+    int getComponentStart(int i) {
+        return componentStarts[i];
+    }
+
+    /**
+     * @return the position after the last node of the i-th SCC.
+     */
+    int getComponentEnd(int i) {
+        return componentStarts[i + 1];
+    }
+
+    /**
+     * @return the index of the SCC which contains given node.
+     */
+    int getComponentOf(Node node) {
+        int i = Arrays.binarySearch(componentStarts, getPosition(node));
+        // if the position is not a start, binarySearch returns
+        // -(insertion point) - 1, and the SCC is the one before
+        // the insertion point. Empty SCCs (if any) share the start
+        // with the next SCC, so we skip them.
+        if (i < 0) {
+            return -i - 2;
+        }
+        while (componentStarts[i + 1] == componentStarts[i]) {
+            ++i;
+        }
+        return i;
+    }
+
+    /**
+     * @return map from each method to its nodes, which preserves the order
+     * given by {@link ICFG#getNodes()}.
+     */
+    private static <Method, Node> Map<Method, List<Node>> groupByMethod(
+            ICFG<Method, Node> icfg) {
+        Map<Method, List<Node>> methodNodes = new LinkedHashMap<>();
+        for (Node node : icfg) {
+            methodNodes.computeIfAbsent(icfg.getContainingMethodOf(node),
+                    unused -> new ArrayList<>()).add(node);
+        }
+        return methodNodes;
+    }
+
+    /**
+     * Computes the SCCs of the call graph in the ICFG, and sorts them
+     * in topological order.
+     */
+    private static <Method, Node> List<List<Method>> computeComponents(
+            ICFG<Method, Node> icfg, Set<Method> methods) {
+        SimpleGraph<Method> callGraph = new SimpleGraph<>();
+        for (Method method : methods) {
+            callGraph.addNode(method);
+        }
+        for (Node node : icfg) {
+            if (icfg.isCallSite(node)) {
+                Method caller = icfg.getContainingMethodOf(node);
+                for (Method callee : icfg.getCalleesOf(node)) {
+                    if (methods.contains(callee)) {
+                        callGraph.addEdge(caller, callee);
+                    }
+                }
+            }
+        }
+        MergedSCCGraph<Method> sccGraph = new MergedSCCGraph<>(callGraph);
+        return new TopoSorter<>(sccGraph)
+                .get()
+                .stream()
+                .map(MergedNode::getNodes)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Computes reverse postorder of the nodes of given method with respect to
+     * the intra-procedural edges. The traversal starts from the entry of
+     * the method, and then from the nodes unreachable from the entry (if any),
+     * so that the result covers all nodes of the method.
+     */
+    private static <Method, Node> List<Node> computeReversePostOrder(
+            ICFG<Method, Node> icfg, Method method, List<Node> nodes) {
+        List<Node> postOrder = new ArrayList<>(nodes.size());
+        Set<Node> visited = Sets.newSet(nodes.size());
+        dfs(icfg, icfg.getEntryOf(method), visited, postOrder);
+        for (Node node : nodes) {
+            if (!visited.contains(node)) {
+                dfs(icfg, node, visited, postOrder);
+            }
+        }
+        Collections.reverse(postOrder);
+        return postOrder;
+    }
+
+    /**
+     * Iterative depth-first traversal along the intra-procedural edges
+     * of the ICFG, i.e., {@link CallEdge}s and {@link ReturnEdge}s
+     * are not followed.
+     */
+    private static <Method, Node> void dfs(ICFG<Method, Node> icfg, Node root,
+                                           Set<Node> visited, List<Node> postOrder) {
+        Deque<Node> stack = new ArrayDeque<>();
+        Deque<Iterator<ICFGEdge<Node>>> edgeStack = new ArrayDeque<>();
+        visited.add(root);
+        stack.push(root);
+        edgeStack.push(icfg.getOutEdgesOf(root).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<ICFGEdge<Node>> edges = edgeStack.peek();
+            if (edges.hasNext()) {
+                ICFGEdge<Node> edge = edges.next();
+                if (edge instanceof CallEdge || edge instanceof ReturnEdge) {
+                    continue;
+                }
+                Node succ = edge.getTarget();
+                if (visited.add(succ)) {
+                    stack.push(succ);
+                    edgeStack.push(icfg.getOutEdgesOf(succ).iterator());
+                }
+            } else {
+                postOrder.add(stack.pop());
+                edgeStack.pop();
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * Work-list of ICFG nodes which always polls the pending node that comes
+ * first in a given {@link InterNodeOrder}. Each node is contained in
+ * the work-list at most once. A work-list may cover only a range of
+ * the order, e.g., the nodes of an SCC, and then it can only contain
+ * the nodes in the range.
+ *
+ * @param <Node> type of ICFG nodes
+ */
+class InterWorkList<Node> {
+
+    private final InterNodeOrder<?, Node> order;
+
+    /**
+     * Position of the first node in the range covered by this work-list.
+     */
+    private final int from;
+
+    /**
+     * Number of nodes in the range covered by this work-list.
+     */
+    private final int size;
+
+    /**
+     * Positions (relative to {@link #from}) of the pending nodes.
+     */
+    private final BitSet pending;
+
+    /**
+     * All positions before this one are not pending, so that polling
+     * does not need to scan the bits from the beginning every time.
+     */
+    private int lowest = 0;
+
+    InterWorkList(InterNodeOrder<?, Node> order) {
+        this(order, 0, order.size());
+    }
+
+    /**
+     * Creates a work-list which covers the nodes at positions from
+     * {@code from} (inclusive) to {@code to} (exclusive) in given order.
+     */
+    InterWorkList(InterNodeOrder<?, Node> order, int from, int to) {
+        this.order = order;
+        this.from = from;
+        this.size = to - from;
+        this.pending = new BitSet(size);
+    }
+
+    /**
+     * Adds a node to this work-list.
+     */
+    void add(Node node) {
+        int pos = order.getPosition(node) - from;
+        assert 0 <= pos && pos < size : node + " is out of range";
+        pending.set(pos);
+        lowest = Math.min(lowest, pos);
+    }
+
+    /**
+     * Adds all given nodes to this work-list.
+     */
+    void addAll(Collection<Node> nodes) {
+        nodes.forEach(this::add);
+    }
+
+    /**
+     * Retrieves and removes the first pending node in the order.
+     *
+     * @return the first pending node, or null if this work-list is empty.
+     */
+    Node poll() {
+        int pos = pending.nextSetBit(lowest);
+        if (pos < 0) {
+            lowest = size;
+            return null;
+        }
+        pending.clear(pos);
+        lowest = pos + 1;
+        return order.getNode(from + pos);
+    }
+
+    boolean isEmpty() {
+        return pending.isEmpty();
+    }
+}
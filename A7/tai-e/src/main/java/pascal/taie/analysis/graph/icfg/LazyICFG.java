@@ -0,0 +1,258 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.icfg;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.collection.Views;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ICFG which is built on demand.
+ * <p>
+ * The ICFG is built method by method. The CFG of a method is obtained
+ * when the method is first queried (e.g., by {@link #getEntryOf(JMethod)}),
+ * and the edges of the method are built when the edges of its nodes are
+ * first queried. The edges of a method consist of its intra-procedural edges,
+ * and the call and return edges of its call sites. Since the in-edges
+ * of an entry and the out-edges of an exit are the call and return edges
+ * of the callers, querying them also builds the edges of the caller methods.
+ * Thus, the methods which are never reached by the client (e.g., a data-flow
+ * solver which starts from the entry methods) are never built, and neither
+ * are their IRs.
+ * <p>
+ * As the ICFG grows during the queries, {@link #getNodes()} and
+ * {@link #hasNode(Stmt)} only cover the nodes of the methods whose CFGs
+ * have been obtained. The nodes given to the other queries must be
+ * obtained from this ICFG. This class is not thread-safe.
+ */
+public class LazyICFG extends AbstractICFG<JMethod, Stmt> {
+
+    private static final Logger logger = LogManager.getLogger(LazyICFG.class);
+
+    private final MultiMap<Stmt, ICFGEdge<Stmt>> inEdges = Maps.newMultiMap();
+
+    private final MultiMap<Stmt, ICFGEdge<Stmt>> outEdges = Maps.newMultiMap();
+
+    /**
+     * Map from each node to the CFG containing it.
+     */
+    private final Map<Stmt, CFG<Stmt>> stmtToCFG = new LinkedHashMap<>();
+
+    private final Map<JMethod, CFG<Stmt>> methodToCFG = Maps.newMap();
+
+    /**
+     * Methods whose CFGs are absent.
+     */
+    private final Set<JMethod> absentMethods = Sets.newSet();
+
+    /**
+     * Methods whose edges have been built.
+     */
+    private final Set<JMethod> builtMethods = Sets.newSet();
+
+    LazyICFG(CallGraph<Stmt, JMethod> callGraph) {
+        super(callGraph);
+    }
+
+    @Override
+    public Set<ICFGEdge<Stmt>> getInEdgesOf(Stmt stmt) {
+        JMethod method = getContainingMethodOf(stmt);
+        buildEdges(method);
+        if (stmt == getEntryOf(method)) {
+            buildCallers(method);
+        }
+        return inEdges.get(stmt);
+    }
+
+    @Override
+    public Set<ICFGEdge<Stmt>> getOutEdgesOf(Stmt stmt) {
+        JMethod method = getContainingMethodOf(stmt);
+        buildEdges(method);
+        if (stmt == getExitOf(method)) {
+            buildCallers(method);
+        }
+        return outEdges.get(stmt);
+    }
+
+    @Override
+    public Stmt getEntryOf(JMethod method) {
+        return getCFG(method).getEntry();
+    }
+
+    @Override
+    public Stmt getExitOf(JMethod method) {
+        return getCFG(method).getExit();
+    }
+
+    @Override
+    public Set<Stmt> getReturnSitesOf(Stmt callSite) {
+        assert isCallSite(callSite);
+        return stmtToCFG.get(callSite).getSuccsOf(callSite);
+    }
+
+    @Override
+    public JMethod getContainingMethodOf(Stmt stmt) {
+        return stmtToCFG.get(stmt).getMethod();
+    }
+
+    @Override
+    public boolean isCallSite(Stmt stmt) {
+        return stmt instanceof Invoke;
+    }
+
+    @Override
+    public boolean hasNode(Stmt node) {
+        return stmtToCFG.containsKey(node);
+    }
+
+    @Override
+    public boolean hasEdge(Stmt source, Stmt target) {
+        return getOutEdgesOf(source)
+                .stream()
+                .anyMatch(edge -> edge.getTarget().equals(target));
+    }
+
+    @Override
+    public Set<Stmt> getPredsOf(Stmt stmt) {
+        return Views.toMappedSet(getInEdgesOf(stmt), ICFGEdge::getSource);
+    }
+
+    @Override
+    public Set<Stmt> getSuccsOf(Stmt stmt) {
+        return Views.toMappedSet(getOutEdgesOf(stmt), ICFGEdge::getTarget);
+    }
+
+    @Override
+    public Set<Stmt> getNodes() {
+        return Collections.unmodifiableSet(stmtToCFG.keySet());
+    }
+
+    /**
+     * @return the CFG of given method, or null if the CFG is absent.
+     * The nodes of the CFG are added to this ICFG on the first call.
+     */
+    private CFG<Stmt> getCFG(JMethod method) {
+        CFG<Stmt> cfg = methodToCFG.get(method);
+        if (cfg == null && !absentMethods.contains(method)) {
+            cfg = ICFGBuilder.getCFGOf(method);
+            if (cfg == null) {
+                absentMethods.add(method);
+            } else {
+                methodToCFG.put(method, cfg);
+                for (Stmt stmt : cfg) {
+                    stmtToCFG.put(stmt, cfg);
+                }
+            }
+        }
+        return cfg;
+    }
+
+    /**
+     * Builds the intra-procedural edges of given method, and the call
+     * and return edges of the call sites in the method.
+     */
+    private void buildEdges(JMethod method) {
+        if (!builtMethods.add(method)) {
+            return;
+        }
+        CFG<Stmt> cfg = getCFG(method);
+        if (cfg == null) {
+            logger.warn("CFG of {} is absent, try to fix this by adding option -scope=reachable",
+                    method);
+            return;
+        }
+        for (Stmt stmt : cfg) {
+            for (Edge<Stmt> cfgEdge : cfg.getOutEdgesOf(stmt)) {
+                ICFGEdge<Stmt> edge = isCallSite(stmt) ?
+                        new CallToReturnEdge<>(cfgEdge) : new NormalEdge<>(cfgEdge);
+                addEdge(edge);
+            }
+            if (isCallSite(stmt)) {
+                for (JMethod callee : getCalleesOf(stmt)) {
+                    buildCallEdges(stmt, callee);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the call edge from given call site to given callee, and
+     * the return edges from the callee to the return sites of the call site.
+     */
+    private void buildCallEdges(Stmt callSite, JMethod callee) {
+        CFG<Stmt> calleeCFG = getCFG(callee);
+        if (calleeCFG == null) {
+            logger.warn("CFG of {} is missing", callee);
+            return;
+        }
+        addEdge(new CallEdge<>(callSite, calleeCFG.getEntry(), callee));
+        Stmt exit = calleeCFG.getExit();
+        Set<Var> retVars = Sets.newHybridSet();
+        Set<ClassType> exceptions = Sets.newHybridSet();
+        for (Edge<Stmt> cfgEdge : calleeCFG.getInEdgesOf(exit)) {
+            if (cfgEdge.getKind() == Edge.Kind.RETURN) {
+                Var retVar = ((Return) cfgEdge.getSource()).getValue();
+                if (retVar != null) {
+                    retVars.add(retVar);
+                }
+            }
+            if (cfgEdge.isExceptional()) {
+                exceptions.addAll(cfgEdge.getExceptions());
+            }
+        }
+        for (Stmt retSite : getReturnSitesOf(callSite)) {
+            addEdge(new ReturnEdge<>(exit, retSite, callSite, retVars, exceptions));
+        }
+    }
+
+    /**
+     * Builds the edges of the methods which call given method.
+     */
+    private void buildCallers(JMethod method) {
+        for (Stmt callSite : getCallersOf(method)) {
+            buildEdges(callGraph.getContainerOf(callSite));
+        }
+    }
+
+    private void addEdge(ICFGEdge<Stmt> edge) {
+        outEdges.put(edge.getSource(), edge);
+        inEdges.put(edge.getTarget(), edge);
+    }
+}
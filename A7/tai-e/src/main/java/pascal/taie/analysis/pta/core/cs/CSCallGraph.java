@@ -45,8 +45,23 @@ public class CSCallGraph extends AbstractCallGraph<CSCallSite, CSMethod> {
 
     private final CSManager csManager;
 
+    /**
+     * Whether this call graph can be modified by multiple threads concurrently.
+     */
+    private final boolean concurrent;
+
     public CSCallGraph(CSManager csManager) {
+        this(csManager, false);
+    }
+
+    /**
+     * @param concurrent whether this call graph can be modified
+     *                   by multiple threads concurrently.
+     */
+    public CSCallGraph(CSManager csManager, boolean concurrent) {
+        super(concurrent);
         this.csManager = csManager;
+        this.concurrent = concurrent;
     }
 
     /**
@@ -80,8 +95,24 @@ public class CSCallGraph extends AbstractCallGraph<CSCallSite, CSMethod> {
      * otherwise false.
      */
     public boolean addEdge(Edge<CSCallSite, CSMethod> edge) {
-        if (edge.getCallSite().addEdge(edge)) {
-            edge.getCallee().addEdge(edge);
+        CSCallSite csCallSite = edge.getCallSite();
+        CSMethod csCallee = edge.getCallee();
+        if (concurrent) {
+            // the edges of call sites and methods are not kept in
+            // concurrent sets, thus they are updated exclusively
+            boolean added;
+            synchronized (csCallSite) {
+                added = csCallSite.addEdge(edge);
+            }
+            if (added) {
+                synchronized (csCallee) {
+                    csCallee.addEdge(edge);
+                }
+            }
+            return added;
+        }
+        if (csCallSite.addEdge(edge)) {
+            csCallee.addEdge(edge);
             return true;
         } else {
             return false;
@@ -22,6 +22,7 @@
 
 package pascal.taie.analysis.pta.cs;
 
+import pascal.taie.World;
 import pascal.taie.analysis.ProgramAnalysis;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.core.cs.selector.CISelector;
@@ -50,6 +51,11 @@ public class CSPTA extends ProgramAnalysis {
     @Override
     public PointerAnalysisResult analyze() {
         AnalysisOptions options = getOptions();
+        if (options.getBooleanOrDefault("subtype-index", false)) {
+            // builds the index up front, then the type tests during
+            // the analysis (e.g., type filtering) are answered by it
+            World.get().getClassHierarchy().getSubtypeIndex();
+        }
         Solver solver = new Solver(options,
                 new AllocationSiteBasedModel(options),
                 getContextSelector(options.getString("cs")));
@@ -0,0 +1,212 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * A {@link MultiMap} which supports concurrent updates and retrievals.
+ * <p>
+ * The keys are stored in a {@link java.util.concurrent.ConcurrentHashMap},
+ * and each update is performed atomically by locking the bin of the key
+ * (i.e., via {@link ConcurrentMap#compute}), so updates on different keys
+ * do not block each other. Retrievals do not lock, thus the sets of values
+ * should be safe for concurrent reads during updates; the default sets
+ * are concurrent sets. Other sets (e.g., ordered sets) are fine only if
+ * the values of each key are put at once, e.g., by
+ * {@link #putAll(Object, Collection)}, before they are read.
+ * <p>
+ * Like {@link java.util.concurrent.ConcurrentHashMap}, the iterators and
+ * {@link #size()} reflect the state of the map at some point at or since
+ * their creation.
+ */
+public class ConcurrentMultiMap<K, V> extends AbstractMultiMap<K, V> {
+
+    private final ConcurrentMap<K, Set<V>> map = Maps.newConcurrentMap();
+
+    private final Supplier<Set<V>> setFactory;
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    public ConcurrentMultiMap() {
+        this(Sets::newConcurrentSet);
+    }
+
+    public ConcurrentMultiMap(Supplier<Set<V>> setFactory) {
+        this.setFactory = setFactory;
+    }
+
+    @Override
+    public boolean contains(K key, V value) {
+        return get(key).contains(value);
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public Set<V> get(K key) {
+        Objects.requireNonNull(key, NULL_KEY);
+        Set<V> values = map.get(key);
+        return values == null ? Collections.emptySet() :
+                Collections.unmodifiableSet(values);
+    }
+
+    @Override
+    public boolean put(K key, V value) {
+        Objects.requireNonNull(key, NULL_KEY);
+        Objects.requireNonNull(value, NULL_VALUE);
+        boolean[] changed = {false};
+        map.compute(key, (k, values) -> {
+            if (values == null) {
+                values = setFactory.get();
+            }
+            changed[0] = values.add(value);
+            return values;
+        });
+        if (changed[0]) {
+            size.incrementAndGet();
+        }
+        return changed[0];
+    }
+
+    @Override
+    public boolean putAll(K key, Collection<? extends V> values) {
+        Objects.requireNonNull(key, NULL_KEY);
+        Objects.requireNonNull(values);
+        if (values.isEmpty()) {
+            return false;
+        }
+        int[] added = {0};
+        map.compute(key, (k, set) -> {
+            if (set == null) {
+                set = setFactory.get();
+            }
+            for (V value : values) {
+                if (set.add(Objects.requireNonNull(value, NULL_VALUE))) {
+                    ++added[0];
+                }
+            }
+            return set;
+        });
+        if (added[0] > 0) {
+            size.addAndGet(added[0]);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean putAll(MultiMap<K, V> multiMap) {
+        Objects.requireNonNull(multiMap);
+        boolean[] changed = {false};
+        multiMap.forEachSet((key, values) -> changed[0] |= putAll(key, values));
+        return changed[0];
+    }
+
+    @Override
+    public boolean remove(K key, V value) {
+        boolean[] changed = {false};
+        map.computeIfPresent(key, (k, values) -> {
+            changed[0] = values.remove(value);
+            return values.isEmpty() ? null : values;
+        });
+        if (changed[0]) {
+            size.decrementAndGet();
+        }
+        return changed[0];
+    }
+
+    @Override
+    public boolean removeAll(K key) {
+        Set<V> values = map.remove(key);
+        if (values != null) {
+            size.addAndGet(-values.size());
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean removeAll(K key, Collection<? extends V> values) {
+        int[] removed = {0};
+        map.computeIfPresent(key, (k, set) -> {
+            int oldSize = set.size();
+            set.removeAll(values);
+            removed[0] = oldSize - set.size();
+            return set.isEmpty() ? null : set;
+        });
+        if (removed[0] > 0) {
+            size.addAndGet(-removed[0]);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return Collections.unmodifiableSet(map.keySet());
+    }
+
+    @Override
+    protected Iterator<Map.Entry<K, V>> entryIterator() {
+        return map.entrySet()
+                .stream()
+                .flatMap(e -> e.getValue()
+                        .stream()
+                        .map(v -> (Map.Entry<K, V>) new ImmutableMapEntry<>(e.getKey(), v)))
+                .iterator();
+    }
+
+    @Override
+    public void forEachSet(BiConsumer<K, Set<V>> action) {
+        map.forEach(action);
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+        size.set(0);
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public int hashCode() {
+        return map.hashCode();
+    }
+}
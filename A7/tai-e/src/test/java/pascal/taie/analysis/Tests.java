@@ -26,6 +26,9 @@ import org.junit.Assert;
 import pascal.taie.Main;
 import pascal.taie.World;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.PlanConfig;
 
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -33,6 +36,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Static utility methods for testing.
@@ -95,6 +99,24 @@ public final class Tests {
         }
     }
 
+    /**
+     * Returns the configuration of an analysis with the options given
+     * in the last run, e.g., by {@link #test}, so that the analysis
+     * can be created again and solved by other solvers.
+     *
+     * @param id ID of the analysis
+     */
+    public static AnalysisConfig getConfig(String id) {
+        return PlanConfig.readConfigs(World.get().getOptions())
+                .stream()
+                .filter(config -> config.getId().equals(id))
+                .findFirst()
+                .map(config -> new AnalysisConfig(
+                        id, null, null, List.of(), config.getOptions()))
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Analysis \"" + id + "\" is not in the last run"));
+    }
+
     public static void testPTA(String dir, String main, String... opts) {
         doTestPTA("pta", dir, main, opts);
     }
@@ -107,6 +129,27 @@ public final class Tests {
         doTestPTA("cspta", dir, main, opts);
     }
 
+    /**
+     * Returns the options of a pointer analysis for the tests which create
+     * and run its solver directly. As these options are not completed by
+     * the analysis configuration file, all options read by the solver
+     * are given here, and the objects are never merged.
+     *
+     * @param id           ID of the pointer analysis
+     * @param extraOptions extra options in key-value pairs
+     */
+    public static AnalysisOptions getPTAOptions(String id, Object... extraOptions) {
+        Object[] kvs = Stream.concat(Stream.of(
+                        "implicit-entries", false,
+                        "only-app", true,
+                        "merge-string-constants", false,
+                        "merge-string-objects", false,
+                        "merge-string-builders", false,
+                        "merge-exception-objects", false),
+                Stream.of(extraOptions)).toArray();
+        return new AnalysisConfig(id, kvs).getOptions();
+    }
+
     private static void doTestPTA(
             String id, String dir, String main, String... opts) {
         List<String> args = new ArrayList<>();
@@ -0,0 +1,124 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+
+import java.util.List;
+import java.util.Set;
+
+public class AliasRequeueTest {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/alias";
+
+    /**
+     * Checks the results of given program against the expected ones,
+     * then solves it again, and records the loads added to the work-list
+     * when processing each store.
+     */
+    private static MultiMap<Stmt, Stmt> solve(String main) {
+        Tests.test(main, CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:true;pta:cspta",
+                "-a", "cspta=cs:ci", "-a", "cg=algorithm:cspta");
+        MultiMap<Stmt, Stmt> requeued = Maps.newMultiMap();
+        InterConstantPropagation analysis = new InterConstantPropagation(
+                Tests.getConfig(InterConstantPropagation.ID)) {
+
+            private Stmt current;
+
+            @Override
+            protected boolean transferNonCallNode(
+                    Stmt stmt, CPFact in, CPFact out) {
+                current = stmt;
+                return super.transferNonCallNode(stmt, in, out);
+            }
+
+            @Override
+            protected DataflowResult<Stmt, CPFact> solve() {
+                solver = new InterSolver<>(this, icfg) {
+                    @Override
+                    void addToWorkList(Stmt node) {
+                        requeued.put(current, node);
+                        super.addToWorkList(node);
+                    }
+                };
+                return solver.solve();
+            }
+        };
+        analysis.analyze();
+        return requeued;
+    }
+
+    private static <T extends Stmt> List<T> getStmts(
+            String className, Class<T> stmtClass) {
+        JMethod main = World.get().getClassHierarchy()
+                .getClass(className)
+                .getDeclaredMethod("main");
+        return main.getIR().stmts()
+                .filter(stmtClass::isInstance)
+                .map(stmtClass::cast)
+                .toList();
+    }
+
+    /**
+     * a1.f and a2.f are different locations, thus the store to each of
+     * them re-queues only the load of the same location.
+     */
+    @Test
+    public void testInstanceField() {
+        MultiMap<Stmt, Stmt> requeued = solve("InstanceField");
+        List<StoreField> stores = getStmts("InstanceField", StoreField.class);
+        List<LoadField> loads = getStmts("InstanceField", LoadField.class);
+        Assert.assertEquals(2, stores.size());
+        Assert.assertEquals(2, loads.size());
+        Assert.assertEquals(Set.of(stores.get(0), stores.get(1)), requeued.keySet());
+        Assert.assertEquals(Set.of(loads.get(0)), requeued.get(stores.get(0)));
+        Assert.assertEquals(Set.of(loads.get(1)), requeued.get(stores.get(1)));
+    }
+
+    /**
+     * Both stores write a.f, thus each of them re-queues the load of a.f.
+     */
+    @Test
+    public void testMultiStores() {
+        MultiMap<Stmt, Stmt> requeued = solve("MultiStores");
+        List<StoreField> stores = getStmts("MultiStores", StoreField.class);
+        List<LoadField> loads = getStmts("MultiStores", LoadField.class);
+        Assert.assertEquals(2, stores.size());
+        Assert.assertEquals(1, loads.size());
+        Assert.assertEquals(Set.copyOf(stores), requeued.keySet());
+        stores.forEach(store -> Assert.assertEquals(
+                Set.of(loads.get(0)), requeued.get(store)));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.cs;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.Main;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+public class ParallelSolverTest {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/alias";
+
+    /**
+     * Builds the world for given program, then solves it sequentially
+     * and in parallel, and checks that the two solvers compute the same
+     * points-to sets for all pointers. The parallel solver always uses
+     * multiple threads, regardless of the processors of the machine.
+     */
+    private static void test(String main) {
+        Main.main(new String[]{"-pp", "-cp", CLASS_PATH, "-m", main,
+                "-a", CSPTA.ID + "=cs:ci"});
+        Map<String, Set<String>> expected = solve();
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected, solve("parallel", true, "threads", 4));
+    }
+
+    /**
+     * Solves the program of current world with given extra options.
+     *
+     * @return the points-to sets of the pointers, keyed and sorted
+     * by their string representations, so that the results of
+     * different solvers can be compared.
+     */
+    private static Map<String, Set<String>> solve(Object... extraOptions) {
+        Map<String, Set<String>> pts = new TreeMap<>();
+        SolverTests.getPointers(SolverTests.solve(extraOptions).getResult())
+                .forEach(p -> {
+                    Set<String> objs = new TreeSet<>();
+                    p.getPointsToSet().forEach(o -> objs.add(o.toString()));
+                    pts.put(p.toString(), objs);
+                });
+        return pts;
+    }
+
+    @Test
+    public void testArrayLoops() {
+        test("ArrayLoops");
+    }
+
+    @Test
+    public void testInterprocedural2() {
+        test("Interprocedural2");
+    }
+
+    @Test
+    public void testObjSens() {
+        test("ObjSens");
+    }
+
+    @Test
+    public void testStaticFieldMultiStores() {
+        test("StaticFieldMultiStores");
+    }
+}
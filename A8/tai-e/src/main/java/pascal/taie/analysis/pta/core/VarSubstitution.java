@@ -0,0 +1,276 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core;
+
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Offline variable substitution for pointer analysis, which finds the
+ * variables that are guaranteed to have the same points-to set by hash-based
+ * value numbering (HVN) on the copy statements of each method, so that
+ * the solver can represent each group of such variables by a single pointer.
+ * <p>
+ * A variable whose definitions are all copies, e.g., {@code x = y},
+ * can only point to the objects of its copy sources, thus it is labeled
+ * by the labels of its sources (the variables in a copy cycle share one label),
+ * while each variable that may receive objects in other ways
+ * (e.g., new/load/invoke statements and parameters) gets a fresh label.
+ * The variables with the same label point to the same objects.
+ * For example, given {@code a = new T(); b = a; c = b;},
+ * {@code b} and {@code c} are substituted by {@code a}.
+ * <p>
+ * The substitution is computed per method on the first query of any
+ * of its variables, which does not depend on points-to information,
+ * thus it can be queried at any time of the analysis. The variables that
+ * may receive objects in other ways are never substituted, so the solver
+ * can still use their own pointers for, e.g., parameters and call results.
+ */
+public class VarSubstitution {
+
+    /**
+     * Label of the variables that never point to any objects.
+     */
+    private static final int EMPTY = 0;
+
+    private final Predicate<Var> hasExtraSources;
+
+    /**
+     * Map from each method to the substituted variables in it
+     * and their representatives.
+     */
+    private final Map<JMethod, Map<Var, Var>> reps = Maps.newMap();
+
+    /**
+     * Map from each representative to the variables substituted by it.
+     */
+    private final Map<Var, List<Var>> substituted = Maps.newMap();
+
+    private int substitutedCount = 0;
+
+    public VarSubstitution() {
+        this(v -> false);
+    }
+
+    /**
+     * @param hasExtraSources the variables that may receive objects from
+     *                        the analysis other than via the statements,
+     *                        which are never substituted.
+     */
+    public VarSubstitution(Predicate<Var> hasExtraSources) {
+        this.hasExtraSources = hasExtraSources;
+    }
+
+    /**
+     * @return the variable that represents given variable, i.e., given
+     * variable itself if it is not substituted.
+     */
+    public Var getRepresentative(Var var) {
+        return getReps(var.getMethod()).getOrDefault(var, var);
+    }
+
+    /**
+     * @return the variables represented by given representative,
+     * including the representative itself.
+     */
+    public List<Var> getMembers(Var rep) {
+        getReps(rep.getMethod());
+        List<Var> vars = substituted.get(rep);
+        if (vars == null) {
+            return List.of(rep);
+        } else {
+            List<Var> members = new ArrayList<>(vars.size() + 1);
+            members.add(rep);
+            members.addAll(vars);
+            return members;
+        }
+    }
+
+    /**
+     * @return the number of substituted variables in the methods
+     * processed so far.
+     */
+    public int getSubstitutedCount() {
+        return substitutedCount;
+    }
+
+    private Map<Var, Var> getReps(JMethod method) {
+        Map<Var, Var> result = reps.get(method);
+        if (result == null) {
+            result = substitute(method.getIR());
+            reps.put(method, result);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the substitution of the variables in given IR.
+     */
+    private Map<Var, Var> substitute(IR ir) {
+        // collect copy sources of each variable, and the variables
+        // that receive objects in other ways
+        Map<Var, List<Var>> copySources = Maps.newMap();
+        Set<Var> sources = Sets.newSet();
+        if (ir.getThis() != null) {
+            sources.add(ir.getThis());
+        }
+        sources.addAll(ir.getParams());
+        for (Stmt stmt : ir) {
+            if (stmt instanceof Copy copy) {
+                copySources.computeIfAbsent(copy.getLValue(),
+                        v -> new ArrayList<>()).add(copy.getRValue());
+            } else {
+                stmt.getDef().ifPresent(def -> {
+                    if (def instanceof Var var) {
+                        sources.add(var);
+                    }
+                });
+            }
+        }
+        ir.getVars().stream().filter(hasExtraSources).forEach(sources::add);
+        // label the variables
+        Map<Var, Integer> labels = Maps.newMap();
+        Map<Set<Integer>, Integer> unionLabels = Maps.newMap();
+        int[] nextLabel = { EMPTY + 1 };
+        sources.forEach(v -> labels.put(v, nextLabel[0]++));
+        for (Var var : ir.getVars()) {
+            if (!labels.containsKey(var)) {
+                for (List<Var> scc : computeSCCs(var, copySources, labels)) {
+                    Set<Integer> sourceLabels = Sets.newSet();
+                    for (Var v : scc) {
+                        for (Var source : copySources.getOrDefault(v, List.of())) {
+                            Integer label = labels.get(source);
+                            // labels of the variables in scc have not been set
+                            if (label != null && label != EMPTY) {
+                                sourceLabels.add(label);
+                            }
+                        }
+                    }
+                    int label;
+                    if (sourceLabels.isEmpty()) {
+                        label = EMPTY;
+                    } else if (sourceLabels.size() == 1) {
+                        label = sourceLabels.iterator().next();
+                    } else {
+                        label = unionLabels.computeIfAbsent(
+                                sourceLabels, l -> nextLabel[0]++);
+                    }
+                    scc.forEach(v -> labels.put(v, label));
+                }
+            }
+        }
+        // select representatives, a variable with fresh label represents
+        // the variables sharing its label
+        Map<Integer, Var> labelReps = Maps.newMap();
+        sources.forEach(v -> labelReps.put(labels.get(v), v));
+        Map<Var, Var> result = Maps.newMap();
+        for (Var var : ir.getVars()) {
+            Var rep = labelReps.computeIfAbsent(labels.get(var), l -> var);
+            if (rep != var) {
+                result.put(var, rep);
+                substituted.computeIfAbsent(rep, v -> new ArrayList<>()).add(var);
+            }
+        }
+        substitutedCount += result.size();
+        return result;
+    }
+
+    /**
+     * Computes the strongly connected components of the copy graph that
+     * are reachable from given variable and not labeled, by Tarjan's
+     * algorithm. The copy graph has an edge from each variable to each of
+     * its copy sources, thus each component is returned after
+     * all components that it depends on.
+     */
+    private static List<List<Var>> computeSCCs(
+            Var from, Map<Var, List<Var>> copySources, Map<Var, Integer> labels) {
+        List<List<Var>> sccs = new ArrayList<>();
+        Map<Var, Integer> indexes = Maps.newMap();
+        Map<Var, Integer> lowLinks = Maps.newMap();
+        Deque<Var> sccStack = new ArrayDeque<>();
+        Set<Var> onSccStack = Sets.newSet();
+        Deque<Var> stack = new ArrayDeque<>();
+        Deque<Iterator<Var>> succStack = new ArrayDeque<>();
+        indexes.put(from, 0);
+        lowLinks.put(from, 0);
+        sccStack.push(from);
+        onSccStack.add(from);
+        stack.push(from);
+        succStack.push(copySources.getOrDefault(from, List.of()).iterator());
+        while (!stack.isEmpty()) {
+            Var node = stack.peek();
+            Iterator<Var> succs = succStack.peek();
+            if (succs.hasNext()) {
+                Var succ = succs.next();
+                if (labels.containsKey(succ)) {
+                    continue;
+                }
+                Integer succIndex = indexes.get(succ);
+                if (succIndex == null) {
+                    int index = indexes.size();
+                    indexes.put(succ, index);
+                    lowLinks.put(succ, index);
+                    sccStack.push(succ);
+                    onSccStack.add(succ);
+                    stack.push(succ);
+                    succStack.push(copySources.getOrDefault(succ, List.of()).iterator());
+                } else if (onSccStack.contains(succ)) {
+                    lowLinks.put(node, Math.min(lowLinks.get(node), succIndex));
+                }
+            } else {
+                stack.pop();
+                succStack.pop();
+                int lowLink = lowLinks.get(node);
+                if (!stack.isEmpty()) {
+                    Var parent = stack.peek();
+                    lowLinks.put(parent, Math.min(lowLinks.get(parent), lowLink));
+                }
+                if (lowLink == indexes.get(node)) {
+                    List<Var> scc = new ArrayList<>();
+                    Var v;
+                    do {
+                        v = sccStack.pop();
+                        onSccStack.remove(v);
+                        scc.add(v);
+                    } while (v != node);
+                    sccs.add(scc);
+                }
+            }
+        }
+        return sccs;
+    }
+}
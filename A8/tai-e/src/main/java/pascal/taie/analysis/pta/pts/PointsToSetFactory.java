@@ -23,9 +23,10 @@
 package pascal.taie.analysis.pta.pts;
 
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.util.Indexer;
 import pascal.taie.util.collection.Sets;
 
-import java.util.Set;
 import java.util.function.Supplier;
 
 /**
@@ -33,10 +34,30 @@ import java.util.function.Supplier;
  */
 public class PointsToSetFactory {
 
-    private static final Supplier<Set<CSObj>> setFactory = Sets::newHybridSet;
+    private static final Supplier<PointsToSet> hybridSetFactory =
+            () -> new DelegatePointsToSet(Sets.newHybridSet());
+
+    private static Supplier<PointsToSet> factory = hybridSetFactory;
+
+    /**
+     * Selects the kind of points-to sets made by this factory.
+     * This should be called before a pointer analysis creates any
+     * points-to sets.
+     * <p>
+     * If option "bitmap-pts" is true, the points-to sets are sparse
+     * bitmaps over the indexes of the objects given by objIndexer,
+     * otherwise they are hybrid hash sets.
+     */
+    public static void setUp(AnalysisOptions options, Indexer<CSObj> objIndexer) {
+        if (options.getBooleanOrDefault("bitmap-pts", false)) {
+            factory = () -> new BitmapPointsToSet(objIndexer);
+        } else {
+            factory = hybridSetFactory;
+        }
+    }
 
     public static PointsToSet make() {
-        return new DelegatePointsToSet(setFactory.get());
+        return factory.get();
     }
 
     /**
@@ -0,0 +1,2961 @@
+/*
+ * A synthetic program for benchmarking, which is larger than the test
+ * programs and contains typical constructs that the analyses deal with,
+ * e.g., loops, branches, switches, virtual calls, fields and arrays.
+ * It is shared by the benchmarks of all assignments (see src/jmh in them).
+ */
+
+interface Shape {
+    int area(int scale);
+
+    Shape next();
+
+    void link(Shape shape);
+}
+
+class Cell {
+    Object item;
+    Cell next;
+}
+
+class Container {
+    Cell head;
+    int size;
+
+    void add(Object item) {
+        Cell cell = new Cell();
+        cell.item = item;
+        cell.next = head;
+        head = cell;
+        size = size + 1;
+    }
+
+    Object get(int i) {
+        Cell cell = head;
+        while (i > 0 && cell != null) {
+            cell = cell.next;
+            i = i - 1;
+        }
+        return cell == null ? null : cell.item;
+    }
+}
+
+class Shape0 implements Shape {
+    Shape nxt;
+    int width;
+
+    public Shape next() {
+        return nxt;
+    }
+
+    public void link(Shape shape) {
+        nxt = shape;
+    }
+
+    public int area(int scale) {
+        int a = 2;
+        int b = scale * 2;
+        for (int i = 0; i < scale; i++) {
+            if (i % 4 == 0) {
+                a = a + b;
+            } else {
+                b = b - 2;
+            }
+        }
+        width = a;
+        return a * b;
+    }
+}
+
+class Shape1 extends Shape0 {
+    public int area(int scale) {
+        int a = 4;
+        int b = scale * 3;
+        for (int i = 0; i < scale; i++) {
+            if (i % 2 == 0) {
+                a = a + b;
+            } else {
+                b = b - 3;
+            }
+        }
+        width = a;
+        return a * b;
+    }
+}
+
+class Shape2 extends Shape0 {
+    public int area(int scale) {
+        int a = 2;
+        int b = scale * 2;
+        for (int i = 0; i < scale; i++) {
+            if (i % 4 == 0) {
+                a = a + b;
+            } else {
+                b = b - 2;
+            }
+        }
+        width = a;
+        return a * b;
+    }
+}
+
+class Shape3 implements Shape {
+    Shape nxt;
+    int width;
+
+    public Shape next() {
+        return nxt;
+    }
+
+    public void link(Shape shape) {
+        nxt = shape;
+    }
+
+    public int area(int scale) {
+        int a = 1;
+        int b = scale * 2;
+        for (int i = 0; i < scale; i++) {
+            if (i % 2 == 0) {
+                a = a + b;
+            } else {
+                b = b - 1;
+            }
+        }
+        width = a;
+        return a * b;
+    }
+}
+
+class Shape4 extends Shape3 {
+    public int area(int scale) {
+        int a = 4;
+        int b = scale * 2;
+        for (int i = 0; i < scale; i++) {
+            if (i % 4 == 0) {
+                a = a + b;
+            } else {
+                b = b - 1;
+            }
+        }
+        width = a;
+        return a * b;
+    }
+}
+
+class Shape5 extends Shape3 {
+    public int area(int scale) {
+        int a = 9;
+        int b = scale * 5;
+        for (int i = 0; i < scale; i++) {
+            if (i % 2 == 0) {
+                a = a + b;
+            } else {
+                b = b - 2;
+            }
+        }
+        width = a;
+        return a * b;
+    }
+}
+
+class Shape6 implements Shape {
+    Shape nxt;
+    int width;
+
+    public Shape next() {
+        return nxt;
+    }
+
+    public void link(Shape shape) {
+        nxt = shape;
+    }
+
+    public int area(int scale) {
+        int a = 5;
+        int b = scale * 2;
+        for (int i = 0; i < scale; i++) {
+            if (i % 2 == 0) {
+                a = a + b;
+            } else {
+                b = b - 3;
+            }
+        }
+        width = a;
+        return a * b;
+    }
+}
+
+class Shape7 extends Shape6 {
+    public int area(int scale) {
+        int a = 7;
+        int b = scale * 4;
+        for (int i = 0; i < scale; i++) {
+            if (i % 3 == 0) {
+                a = a + b;
+            } else {
+                b = b - 1;
+            }
+        }
+        width = a;
+        return a * b;
+    }
+}
+
+class Shape8 extends Shape6 {
+    public int area(int scale) {
+        int a = 4;
+        int b = scale * 4;
+        for (int i = 0; i < scale; i++) {
+            if (i % 2 == 0) {
+                a = a + b;
+            } else {
+                b = b - 1;
+            }
+        }
+        width = a;
+        return a * b;
+    }
+}
+
+class Shape9 implements Shape {
+    Shape nxt;
+    int width;
+
+    public Shape next() {
+        return nxt;
+    }
+
+    public void link(Shape shape) {
+        nxt = shape;
+    }
+
+    public int area(int scale) {
+        int a = 7;
+        int b = scale * 2;
+        for (int i = 0; i < scale; i++) {
+            if (i % 3 == 0) {
+                a = a + b;
+            } else {
+                b = b - 2;
+            }
+        }
+        width = a;
+        return a * b;
+    }
+}
+
+class Shape10 extends Shape9 {
+    public int area(int scale) {
+        int a = 5;
+        int b = scale * 2;
+        for (int i = 0; i < scale; i++) {
+            if (i % 4 == 0) {
+                a = a + b;
+            } else {
+                b = b - 2;
+            }
+        }
+        width = a;
+        return a * b;
+    }
+}
+
+class Shape11 extends Shape9 {
+    public int area(int scale) {
+        int a = 9;
+        int b = scale * 2;
+        for (int i = 0; i < scale; i++) {
+            if (i % 3 == 0) {
+                a = a + b;
+            } else {
+                b = b - 1;
+            }
+        }
+        width = a;
+        return a * b;
+    }
+}
+
+public class Synthetic {
+
+    static Container shapes = new Container();
+
+    static Shape make(int k) {
+        switch (k % 12) {
+            case 0:
+                return new Shape0();
+            case 1:
+                return new Shape1();
+            case 2:
+                return new Shape2();
+            case 3:
+                return new Shape3();
+            case 4:
+                return new Shape4();
+            case 5:
+                return new Shape5();
+            case 6:
+                return new Shape6();
+            case 7:
+                return new Shape7();
+            case 8:
+                return new Shape8();
+            case 9:
+                return new Shape9();
+            case 10:
+                return new Shape10();
+            case 11:
+                return new Shape11();
+            default:
+                return null;
+        }
+    }
+
+    static int compute0(int n, Shape shape) {
+        int a = 70;
+        int b = 37;
+        int c = a ^ b;
+        int d = n;
+        int[] values = new int[13];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * c;
+            if (values[i] > d) {
+                d = values[i] | a;
+            } else if (values[i] == 3) {
+                c = c ^ 1;
+            }
+        }
+        while (n > 0) {
+            n = n / 4;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 4;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 0);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(0);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        return a + b + c + d;
+    }
+
+    static int compute1(int n, Shape shape) {
+        int a = 29;
+        int b = 12;
+        int c = a & b;
+        int d = n;
+        int[] values = new int[8];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i & c;
+            if (values[i] > d) {
+                d = values[i] ^ a;
+            } else if (values[i] == 5) {
+                c = c - 3;
+            }
+        }
+        while (n > 2) {
+            n = n / 2;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 1;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 1);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(4);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute0(d % 7, t);
+        return a + b + c + d;
+    }
+
+    static int compute2(int n, Shape shape) {
+        int a = 93;
+        int b = 31;
+        int c = a - b;
+        int d = n;
+        int[] values = new int[11];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i & c;
+            if (values[i] > d) {
+                d = values[i] * a;
+            } else if (values[i] == 10) {
+                c = c ^ 5;
+            }
+        }
+        while (n > 1) {
+            n = n / 4;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 0;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 2);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(1);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute0(d % 9, t);
+        return a + b + c + d;
+    }
+
+    static int compute3(int n, Shape shape) {
+        int a = 40;
+        int b = 51;
+        int c = a * b;
+        int d = n;
+        int[] values = new int[5];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i - c;
+            if (values[i] > d) {
+                d = values[i] | a;
+            } else if (values[i] == 5) {
+                c = c - 6;
+            }
+        }
+        while (n > 3) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 2;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 3);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(2);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute0(d % 4, t);
+        return a + b + c + d;
+    }
+
+    static int compute4(int n, Shape shape) {
+        int a = 95;
+        int b = 71;
+        int c = a | b;
+        int d = n;
+        int[] values = new int[8];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i ^ c;
+            if (values[i] > d) {
+                d = values[i] | a;
+            } else if (values[i] == 6) {
+                c = c | 4;
+            }
+        }
+        while (n > 2) {
+            n = n / 2;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 8;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 4);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(3);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute0(d % 9, t);
+        return a + b + c + d;
+    }
+
+    static int compute5(int n, Shape shape) {
+        int a = 6;
+        int b = 14;
+        int c = a - b;
+        int d = n;
+        int[] values = new int[14];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i - c;
+            if (values[i] > d) {
+                d = values[i] ^ a;
+            } else if (values[i] == 6) {
+                c = c | 1;
+            }
+        }
+        while (n > 3) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 8;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 5);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(2);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute4(d % 9, t);
+        return a + b + c + d;
+    }
+
+    static int compute6(int n, Shape shape) {
+        int a = 1;
+        int b = 87;
+        int c = a ^ b;
+        int d = n;
+        int[] values = new int[5];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i ^ c;
+            if (values[i] > d) {
+                d = values[i] | a;
+            } else if (values[i] == 4) {
+                c = c ^ 3;
+            }
+        }
+        while (n > 0) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 2;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 6);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(3);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute0(d % 8, t);
+        return a + b + c + d;
+    }
+
+    static int compute7(int n, Shape shape) {
+        int a = 92;
+        int b = 33;
+        int c = a | b;
+        int d = n;
+        int[] values = new int[16];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i - c;
+            if (values[i] > d) {
+                d = values[i] | a;
+            } else if (values[i] == 1) {
+                c = c ^ 3;
+            }
+        }
+        while (n > 5) {
+            n = n / 4;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 2;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 7);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(2);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute6(d % 4, t);
+        return a + b + c + d;
+    }
+
+    static int compute8(int n, Shape shape) {
+        int a = 69;
+        int b = 99;
+        int c = a | b;
+        int d = n;
+        int[] values = new int[4];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i | c;
+            if (values[i] > d) {
+                d = values[i] * a;
+            } else if (values[i] == 7) {
+                c = c + 1;
+            }
+        }
+        while (n > 2) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 0;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 8);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(1);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute1(d % 3, t);
+        return a + b + c + d;
+    }
+
+    static int compute9(int n, Shape shape) {
+        int a = 93;
+        int b = 62;
+        int c = a + b;
+        int d = n;
+        int[] values = new int[16];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i | c;
+            if (values[i] > d) {
+                d = values[i] - a;
+            } else if (values[i] == 2) {
+                c = c ^ 4;
+            }
+        }
+        while (n > 4) {
+            n = n / 2;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 8;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 9);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(4);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute6(d % 4, t);
+        return a + b + c + d;
+    }
+
+    static int compute10(int n, Shape shape) {
+        int a = 69;
+        int b = 96;
+        int c = a ^ b;
+        int d = n;
+        int[] values = new int[15];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i - c;
+            if (values[i] > d) {
+                d = values[i] ^ a;
+            } else if (values[i] == 4) {
+                c = c & 6;
+            }
+        }
+        while (n > 5) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 8;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 10);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(3);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute1(d % 4, t);
+        return a + b + c + d;
+    }
+
+    static int compute11(int n, Shape shape) {
+        int a = 28;
+        int b = 8;
+        int c = a * b;
+        int d = n;
+        int[] values = new int[4];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i | c;
+            if (values[i] > d) {
+                d = values[i] | a;
+            } else if (values[i] == 3) {
+                c = c | 2;
+            }
+        }
+        while (n > 0) {
+            n = n / 2;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 3;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 11);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(0);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute0(d % 9, t);
+        return a + b + c + d;
+    }
+
+    static int compute12(int n, Shape shape) {
+        int a = 42;
+        int b = 9;
+        int c = a | b;
+        int d = n;
+        int[] values = new int[7];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * c;
+            if (values[i] > d) {
+                d = values[i] ^ a;
+            } else if (values[i] == 7) {
+                c = c - 5;
+            }
+        }
+        while (n > 1) {
+            n = n / 4;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 3;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 12);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(3);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute6(d % 4, t);
+        return a + b + c + d;
+    }
+
+    static int compute13(int n, Shape shape) {
+        int a = 12;
+        int b = 12;
+        int c = a ^ b;
+        int d = n;
+        int[] values = new int[10];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * c;
+            if (values[i] > d) {
+                d = values[i] & a;
+            } else if (values[i] == 6) {
+                c = c & 7;
+            }
+        }
+        while (n > 5) {
+            n = n / 2;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 0;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 13);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(3);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute11(d % 5, t);
+        return a + b + c + d;
+    }
+
+    static int compute14(int n, Shape shape) {
+        int a = 13;
+        int b = 31;
+        int c = a - b;
+        int d = n;
+        int[] values = new int[7];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i | c;
+            if (values[i] > d) {
+                d = values[i] & a;
+            } else if (values[i] == 2) {
+                c = c & 2;
+            }
+        }
+        while (n > 2) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 1;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 14);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(3);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute12(d % 9, t);
+        return a + b + c + d;
+    }
+
+    static int compute15(int n, Shape shape) {
+        int a = 70;
+        int b = 12;
+        int c = a + b;
+        int d = n;
+        int[] values = new int[14];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i | c;
+            if (values[i] > d) {
+                d = values[i] + a;
+            } else if (values[i] == 1) {
+                c = c - 2;
+            }
+        }
+        while (n > 3) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 3;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 15);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(3);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute14(d % 3, t);
+        return a + b + c + d;
+    }
+
+    static int compute16(int n, Shape shape) {
+        int a = 21;
+        int b = 48;
+        int c = a + b;
+        int d = n;
+        int[] values = new int[10];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * c;
+            if (values[i] > d) {
+                d = values[i] & a;
+            } else if (values[i] == 4) {
+                c = c & 6;
+            }
+        }
+        while (n > 5) {
+            n = n / 4;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 2;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 16);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(1);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute9(d % 4, t);
+        return a + b + c + d;
+    }
+
+    static int compute17(int n, Shape shape) {
+        int a = 7;
+        int b = 74;
+        int c = a ^ b;
+        int d = n;
+        int[] values = new int[12];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + c;
+            if (values[i] > d) {
+                d = values[i] ^ a;
+            } else if (values[i] == 5) {
+                c = c + 1;
+            }
+        }
+        while (n > 4) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 0;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 17);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(4);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute2(d % 9, t);
+        return a + b + c + d;
+    }
+
+    static int compute18(int n, Shape shape) {
+        int a = 23;
+        int b = 8;
+        int c = a | b;
+        int d = n;
+        int[] values = new int[5];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i ^ c;
+            if (values[i] > d) {
+                d = values[i] - a;
+            } else if (values[i] == 6) {
+                c = c + 5;
+            }
+        }
+        while (n > 1) {
+            n = n / 4;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 9;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 18);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(0);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute13(d % 8, t);
+        return a + b + c + d;
+    }
+
+    static int compute19(int n, Shape shape) {
+        int a = 74;
+        int b = 72;
+        int c = a | b;
+        int d = n;
+        int[] values = new int[9];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * c;
+            if (values[i] > d) {
+                d = values[i] - a;
+            } else if (values[i] == 10) {
+                c = c ^ 3;
+            }
+        }
+        while (n > 1) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 2;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 19);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(5);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute9(d % 6, t);
+        return a + b + c + d;
+    }
+
+    static int compute20(int n, Shape shape) {
+        int a = 40;
+        int b = 96;
+        int c = a + b;
+        int d = n;
+        int[] values = new int[4];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i & c;
+            if (values[i] > d) {
+                d = values[i] | a;
+            } else if (values[i] == 9) {
+                c = c + 1;
+            }
+        }
+        while (n > 4) {
+            n = n / 2;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 2;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 20);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(2);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute2(d % 4, t);
+        return a + b + c + d;
+    }
+
+    static int compute21(int n, Shape shape) {
+        int a = 47;
+        int b = 36;
+        int c = a - b;
+        int d = n;
+        int[] values = new int[11];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i | c;
+            if (values[i] > d) {
+                d = values[i] ^ a;
+            } else if (values[i] == 4) {
+                c = c | 7;
+            }
+        }
+        while (n > 5) {
+            n = n / 4;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 8;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 21);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(2);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute3(d % 4, t);
+        return a + b + c + d;
+    }
+
+    static int compute22(int n, Shape shape) {
+        int a = 33;
+        int b = 14;
+        int c = a + b;
+        int d = n;
+        int[] values = new int[15];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i | c;
+            if (values[i] > d) {
+                d = values[i] - a;
+            } else if (values[i] == 4) {
+                c = c * 5;
+            }
+        }
+        while (n > 1) {
+            n = n / 4;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 3;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 22);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(5);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute20(d % 9, t);
+        return a + b + c + d;
+    }
+
+    static int compute23(int n, Shape shape) {
+        int a = 33;
+        int b = 64;
+        int c = a & b;
+        int d = n;
+        int[] values = new int[8];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + c;
+            if (values[i] > d) {
+                d = values[i] + a;
+            } else if (values[i] == 10) {
+                c = c & 7;
+            }
+        }
+        while (n > 2) {
+            n = n / 2;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 5;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 23);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(1);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute20(d % 5, t);
+        return a + b + c + d;
+    }
+
+    static int compute24(int n, Shape shape) {
+        int a = 20;
+        int b = 94;
+        int c = a & b;
+        int d = n;
+        int[] values = new int[12];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i ^ c;
+            if (values[i] > d) {
+                d = values[i] & a;
+            } else if (values[i] == 8) {
+                c = c + 1;
+            }
+        }
+        while (n > 0) {
+            n = n / 4;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 8;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 24);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(0);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute11(d % 7, t);
+        return a + b + c + d;
+    }
+
+    static int compute25(int n, Shape shape) {
+        int a = 70;
+        int b = 18;
+        int c = a & b;
+        int d = n;
+        int[] values = new int[6];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + c;
+            if (values[i] > d) {
+                d = values[i] * a;
+            } else if (values[i] == 5) {
+                c = c + 3;
+            }
+        }
+        while (n > 1) {
+            n = n / 4;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 1;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 25);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(2);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute24(d % 7, t);
+        return a + b + c + d;
+    }
+
+    static int compute26(int n, Shape shape) {
+        int a = 52;
+        int b = 79;
+        int c = a ^ b;
+        int d = n;
+        int[] values = new int[6];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i - c;
+            if (values[i] > d) {
+                d = values[i] - a;
+            } else if (values[i] == 2) {
+                c = c & 1;
+            }
+        }
+        while (n > 1) {
+            n = n / 4;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 6;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 26);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(5);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute23(d % 9, t);
+        return a + b + c + d;
+    }
+
+    static int compute27(int n, Shape shape) {
+        int a = 31;
+        int b = 34;
+        int c = a - b;
+        int d = n;
+        int[] values = new int[16];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i ^ c;
+            if (values[i] > d) {
+                d = values[i] + a;
+            } else if (values[i] == 6) {
+                c = c + 7;
+            }
+        }
+        while (n > 3) {
+            n = n / 2;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 7;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 27);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(2);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute9(d % 9, t);
+        return a + b + c + d;
+    }
+
+    static int compute28(int n, Shape shape) {
+        int a = 29;
+        int b = 28;
+        int c = a + b;
+        int d = n;
+        int[] values = new int[14];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i - c;
+            if (values[i] > d) {
+                d = values[i] & a;
+            } else if (values[i] == 5) {
+                c = c * 7;
+            }
+        }
+        while (n > 0) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 8;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 28);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(3);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute21(d % 9, t);
+        return a + b + c + d;
+    }
+
+    static int compute29(int n, Shape shape) {
+        int a = 68;
+        int b = 42;
+        int c = a + b;
+        int d = n;
+        int[] values = new int[5];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * c;
+            if (values[i] > d) {
+                d = values[i] - a;
+            } else if (values[i] == 9) {
+                c = c * 1;
+            }
+        }
+        while (n > 0) {
+            n = n / 4;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 5;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 29);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(5);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute25(d % 5, t);
+        return a + b + c + d;
+    }
+
+    static int compute30(int n, Shape shape) {
+        int a = 55;
+        int b = 77;
+        int c = a | b;
+        int d = n;
+        int[] values = new int[5];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i & c;
+            if (values[i] > d) {
+                d = values[i] | a;
+            } else if (values[i] == 3) {
+                c = c * 1;
+            }
+        }
+        while (n > 5) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 8;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 30);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(4);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute21(d % 8, t);
+        return a + b + c + d;
+    }
+
+    static int compute31(int n, Shape shape) {
+        int a = 94;
+        int b = 94;
+        int c = a ^ b;
+        int d = n;
+        int[] values = new int[7];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * c;
+            if (values[i] > d) {
+                d = values[i] & a;
+            } else if (values[i] == 1) {
+                c = c ^ 3;
+            }
+        }
+        while (n > 4) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 4;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 31);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(4);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute9(d % 8, t);
+        return a + b + c + d;
+    }
+
+    static int compute32(int n, Shape shape) {
+        int a = 52;
+        int b = 41;
+        int c = a & b;
+        int d = n;
+        int[] values = new int[15];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * c;
+            if (values[i] > d) {
+                d = values[i] | a;
+            } else if (values[i] == 2) {
+                c = c - 4;
+            }
+        }
+        while (n > 5) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 9;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 32);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(4);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute19(d % 6, t);
+        return a + b + c + d;
+    }
+
+    static int compute33(int n, Shape shape) {
+        int a = 70;
+        int b = 0;
+        int c = a * b;
+        int d = n;
+        int[] values = new int[8];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i - c;
+            if (values[i] > d) {
+                d = values[i] & a;
+            } else if (values[i] == 9) {
+                c = c | 6;
+            }
+        }
+        while (n > 2) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 7;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 33);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(5);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute13(d % 7, t);
+        return a + b + c + d;
+    }
+
+    static int compute34(int n, Shape shape) {
+        int a = 60;
+        int b = 94;
+        int c = a - b;
+        int d = n;
+        int[] values = new int[14];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + c;
+            if (values[i] > d) {
+                d = values[i] * a;
+            } else if (values[i] == 8) {
+                c = c ^ 6;
+            }
+        }
+        while (n > 4) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 3;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 34);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(5);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute19(d % 4, t);
+        return a + b + c + d;
+    }
+
+    static int compute35(int n, Shape shape) {
+        int a = 25;
+        int b = 18;
+        int c = a + b;
+        int d = n;
+        int[] values = new int[4];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i - c;
+            if (values[i] > d) {
+                d = values[i] & a;
+            } else if (values[i] == 9) {
+                c = c + 4;
+            }
+        }
+        while (n > 3) {
+            n = n / 4;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 6;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 35);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(3);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute25(d % 4, t);
+        return a + b + c + d;
+    }
+
+    static int compute36(int n, Shape shape) {
+        int a = 18;
+        int b = 83;
+        int c = a ^ b;
+        int d = n;
+        int[] values = new int[4];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + c;
+            if (values[i] > d) {
+                d = values[i] & a;
+            } else if (values[i] == 3) {
+                c = c - 7;
+            }
+        }
+        while (n > 5) {
+            n = n / 4;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 0;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 36);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(4);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute15(d % 9, t);
+        return a + b + c + d;
+    }
+
+    static int compute37(int n, Shape shape) {
+        int a = 15;
+        int b = 58;
+        int c = a - b;
+        int d = n;
+        int[] values = new int[16];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i & c;
+            if (values[i] > d) {
+                d = values[i] ^ a;
+            } else if (values[i] == 8) {
+                c = c | 5;
+            }
+        }
+        while (n > 2) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 8;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 37);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(3);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute10(d % 8, t);
+        return a + b + c + d;
+    }
+
+    static int compute38(int n, Shape shape) {
+        int a = 60;
+        int b = 57;
+        int c = a * b;
+        int d = n;
+        int[] values = new int[16];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i - c;
+            if (values[i] > d) {
+                d = values[i] ^ a;
+            } else if (values[i] == 4) {
+                c = c | 4;
+            }
+        }
+        while (n > 5) {
+            n = n / 2;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 7;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 38);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(0);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute18(d % 4, t);
+        return a + b + c + d;
+    }
+
+    static int compute39(int n, Shape shape) {
+        int a = 34;
+        int b = 42;
+        int c = a * b;
+        int d = n;
+        int[] values = new int[12];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + c;
+            if (values[i] > d) {
+                d = values[i] - a;
+            } else if (values[i] == 2) {
+                c = c - 4;
+            }
+        }
+        while (n > 5) {
+            n = n / 2;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 1;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 39);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(3);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute26(d % 5, t);
+        return a + b + c + d;
+    }
+
+    static int compute40(int n, Shape shape) {
+        int a = 69;
+        int b = 59;
+        int c = a & b;
+        int d = n;
+        int[] values = new int[4];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i - c;
+            if (values[i] > d) {
+                d = values[i] & a;
+            } else if (values[i] == 6) {
+                c = c | 6;
+            }
+        }
+        while (n > 0) {
+            n = n / 4;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 7;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 40);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(0);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute22(d % 5, t);
+        return a + b + c + d;
+    }
+
+    static int compute41(int n, Shape shape) {
+        int a = 96;
+        int b = 49;
+        int c = a & b;
+        int d = n;
+        int[] values = new int[12];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i ^ c;
+            if (values[i] > d) {
+                d = values[i] ^ a;
+            } else if (values[i] == 8) {
+                c = c | 2;
+            }
+        }
+        while (n > 3) {
+            n = n / 2;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 6;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 41);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(3);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute1(d % 6, t);
+        return a + b + c + d;
+    }
+
+    static int compute42(int n, Shape shape) {
+        int a = 43;
+        int b = 85;
+        int c = a ^ b;
+        int d = n;
+        int[] values = new int[16];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i & c;
+            if (values[i] > d) {
+                d = values[i] ^ a;
+            } else if (values[i] == 2) {
+                c = c & 2;
+            }
+        }
+        while (n > 4) {
+            n = n / 4;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 6;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 42);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(4);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute36(d % 8, t);
+        return a + b + c + d;
+    }
+
+    static int compute43(int n, Shape shape) {
+        int a = 3;
+        int b = 10;
+        int c = a ^ b;
+        int d = n;
+        int[] values = new int[10];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i - c;
+            if (values[i] > d) {
+                d = values[i] & a;
+            } else if (values[i] == 2) {
+                c = c + 3;
+            }
+        }
+        while (n > 3) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 7;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 43);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(2);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute21(d % 9, t);
+        return a + b + c + d;
+    }
+
+    static int compute44(int n, Shape shape) {
+        int a = 48;
+        int b = 35;
+        int c = a & b;
+        int d = n;
+        int[] values = new int[8];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + c;
+            if (values[i] > d) {
+                d = values[i] & a;
+            } else if (values[i] == 0) {
+                c = c ^ 5;
+            }
+        }
+        while (n > 0) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 1;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 44);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(5);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute2(d % 9, t);
+        return a + b + c + d;
+    }
+
+    static int compute45(int n, Shape shape) {
+        int a = 3;
+        int b = 31;
+        int c = a - b;
+        int d = n;
+        int[] values = new int[4];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i | c;
+            if (values[i] > d) {
+                d = values[i] - a;
+            } else if (values[i] == 3) {
+                c = c - 4;
+            }
+        }
+        while (n > 5) {
+            n = n / 2;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 7;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 45);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(5);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute16(d % 9, t);
+        return a + b + c + d;
+    }
+
+    static int compute46(int n, Shape shape) {
+        int a = 47;
+        int b = 21;
+        int c = a | b;
+        int d = n;
+        int[] values = new int[13];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i ^ c;
+            if (values[i] > d) {
+                d = values[i] ^ a;
+            } else if (values[i] == 1) {
+                c = c - 3;
+            }
+        }
+        while (n > 0) {
+            n = n / 4;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 4;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 46);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(4);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute43(d % 6, t);
+        return a + b + c + d;
+    }
+
+    static int compute47(int n, Shape shape) {
+        int a = 50;
+        int b = 91;
+        int c = a - b;
+        int d = n;
+        int[] values = new int[5];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i | c;
+            if (values[i] > d) {
+                d = values[i] ^ a;
+            } else if (values[i] == 10) {
+                c = c - 1;
+            }
+        }
+        while (n > 5) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 9;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 47);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(0);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute22(d % 7, t);
+        return a + b + c + d;
+    }
+
+    static int compute48(int n, Shape shape) {
+        int a = 54;
+        int b = 84;
+        int c = a * b;
+        int d = n;
+        int[] values = new int[5];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i | c;
+            if (values[i] > d) {
+                d = values[i] ^ a;
+            } else if (values[i] == 5) {
+                c = c + 7;
+            }
+        }
+        while (n > 3) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 6;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 48);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(2);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute40(d % 9, t);
+        return a + b + c + d;
+    }
+
+    static int compute49(int n, Shape shape) {
+        int a = 58;
+        int b = 90;
+        int c = a - b;
+        int d = n;
+        int[] values = new int[10];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i - c;
+            if (values[i] > d) {
+                d = values[i] ^ a;
+            } else if (values[i] == 8) {
+                c = c ^ 3;
+            }
+        }
+        while (n > 4) {
+            n = n / 4;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 7;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 49);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(3);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute46(d % 7, t);
+        return a + b + c + d;
+    }
+
+    static int compute50(int n, Shape shape) {
+        int a = 34;
+        int b = 41;
+        int c = a - b;
+        int d = n;
+        int[] values = new int[5];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * c;
+            if (values[i] > d) {
+                d = values[i] & a;
+            } else if (values[i] == 3) {
+                c = c & 5;
+            }
+        }
+        while (n > 4) {
+            n = n / 4;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 5;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 50);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(0);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute31(d % 9, t);
+        return a + b + c + d;
+    }
+
+    static int compute51(int n, Shape shape) {
+        int a = 41;
+        int b = 23;
+        int c = a & b;
+        int d = n;
+        int[] values = new int[7];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * c;
+            if (values[i] > d) {
+                d = values[i] * a;
+            } else if (values[i] == 5) {
+                c = c * 5;
+            }
+        }
+        while (n > 5) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 8;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 51);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(1);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute5(d % 4, t);
+        return a + b + c + d;
+    }
+
+    static int compute52(int n, Shape shape) {
+        int a = 92;
+        int b = 52;
+        int c = a & b;
+        int d = n;
+        int[] values = new int[12];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i - c;
+            if (values[i] > d) {
+                d = values[i] ^ a;
+            } else if (values[i] == 7) {
+                c = c ^ 6;
+            }
+        }
+        while (n > 3) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 1;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 52);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(2);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute14(d % 6, t);
+        return a + b + c + d;
+    }
+
+    static int compute53(int n, Shape shape) {
+        int a = 88;
+        int b = 31;
+        int c = a * b;
+        int d = n;
+        int[] values = new int[14];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i | c;
+            if (values[i] > d) {
+                d = values[i] * a;
+            } else if (values[i] == 7) {
+                c = c | 5;
+            }
+        }
+        while (n > 2) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 5;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 53);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(5);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute29(d % 5, t);
+        return a + b + c + d;
+    }
+
+    static int compute54(int n, Shape shape) {
+        int a = 39;
+        int b = 32;
+        int c = a - b;
+        int d = n;
+        int[] values = new int[5];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i ^ c;
+            if (values[i] > d) {
+                d = values[i] - a;
+            } else if (values[i] == 5) {
+                c = c + 6;
+            }
+        }
+        while (n > 4) {
+            n = n / 4;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 3;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 54);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(1);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute47(d % 6, t);
+        return a + b + c + d;
+    }
+
+    static int compute55(int n, Shape shape) {
+        int a = 35;
+        int b = 92;
+        int c = a | b;
+        int d = n;
+        int[] values = new int[16];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i | c;
+            if (values[i] > d) {
+                d = values[i] | a;
+            } else if (values[i] == 4) {
+                c = c + 7;
+            }
+        }
+        while (n > 1) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 5;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 55);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(1);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute19(d % 3, t);
+        return a + b + c + d;
+    }
+
+    static int compute56(int n, Shape shape) {
+        int a = 90;
+        int b = 68;
+        int c = a - b;
+        int d = n;
+        int[] values = new int[8];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + c;
+            if (values[i] > d) {
+                d = values[i] + a;
+            } else if (values[i] == 8) {
+                c = c * 6;
+            }
+        }
+        while (n > 1) {
+            n = n / 4;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 1;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 56);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(0);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute36(d % 5, t);
+        return a + b + c + d;
+    }
+
+    static int compute57(int n, Shape shape) {
+        int a = 60;
+        int b = 61;
+        int c = a & b;
+        int d = n;
+        int[] values = new int[9];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i - c;
+            if (values[i] > d) {
+                d = values[i] + a;
+            } else if (values[i] == 4) {
+                c = c & 1;
+            }
+        }
+        while (n > 0) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 3;
+                    break;
+                case 2:
+                    a = 1;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 57);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(4);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute40(d % 8, t);
+        return a + b + c + d;
+    }
+
+    static int compute58(int n, Shape shape) {
+        int a = 6;
+        int b = 19;
+        int c = a - b;
+        int d = n;
+        int[] values = new int[16];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i | c;
+            if (values[i] > d) {
+                d = values[i] * a;
+            } else if (values[i] == 1) {
+                c = c - 1;
+            }
+        }
+        while (n > 4) {
+            n = n / 3;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 8;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 58);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(3);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute28(d % 6, t);
+        return a + b + c + d;
+    }
+
+    static int compute59(int n, Shape shape) {
+        int a = 38;
+        int b = 75;
+        int c = a & b;
+        int d = n;
+        int[] values = new int[8];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i | c;
+            if (values[i] > d) {
+                d = values[i] | a;
+            } else if (values[i] == 0) {
+                c = c | 6;
+            }
+        }
+        while (n > 0) {
+            n = n / 2;
+            switch (n % 4) {
+                case 0:
+                    a = a + n;
+                    break;
+                case 1:
+                    b = b * 2;
+                    break;
+                case 2:
+                    a = 4;
+                default:
+                    b = a - b;
+            }
+        }
+        Shape s = make(n + 59);
+        if (s != null) {
+            s.link(shape);
+            d = d + s.area(a);
+            shapes.add(s);
+        }
+        Shape t = (Shape) shapes.get(5);
+        if (t != null && t.next() != null) {
+            d = d + t.next().area(b);
+        }
+        d = d + compute5(d % 4, t);
+        return a + b + c + d;
+    }
+
+    public static void main(String[] args) {
+        Shape shape = make(args.length);
+        int sum = 0;
+        sum = sum + compute0(sum % 20, shape);
+        sum = sum + compute1(sum % 16, shape);
+        sum = sum + compute2(sum % 40, shape);
+        sum = sum + compute3(sum % 9, shape);
+        sum = sum + compute4(sum % 15, shape);
+        sum = sum + compute5(sum % 5, shape);
+        sum = sum + compute6(sum % 31, shape);
+        sum = sum + compute7(sum % 33, shape);
+        sum = sum + compute8(sum % 49, shape);
+        sum = sum + compute9(sum % 43, shape);
+        sum = sum + compute10(sum % 35, shape);
+        sum = sum + compute11(sum % 23, shape);
+        sum = sum + compute12(sum % 7, shape);
+        sum = sum + compute13(sum % 19, shape);
+        sum = sum + compute14(sum % 23, shape);
+        sum = sum + compute15(sum % 50, shape);
+        sum = sum + compute16(sum % 23, shape);
+        sum = sum + compute17(sum % 49, shape);
+        sum = sum + compute18(sum % 34, shape);
+        sum = sum + compute19(sum % 9, shape);
+        sum = sum + compute20(sum % 48, shape);
+        sum = sum + compute21(sum % 19, shape);
+        sum = sum + compute22(sum % 21, shape);
+        sum = sum + compute23(sum % 45, shape);
+        sum = sum + compute24(sum % 42, shape);
+        sum = sum + compute25(sum % 47, shape);
+        sum = sum + compute26(sum % 17, shape);
+        sum = sum + compute27(sum % 32, shape);
+        sum = sum + compute28(sum % 12, shape);
+        sum = sum + compute29(sum % 39, shape);
+        sum = sum + compute30(sum % 19, shape);
+        sum = sum + compute31(sum % 46, shape);
+        sum = sum + compute32(sum % 14, shape);
+        sum = sum + compute33(sum % 22, shape);
+        sum = sum + compute34(sum % 14, shape);
+        sum = sum + compute35(sum % 9, shape);
+        sum = sum + compute36(sum % 8, shape);
+        sum = sum + compute37(sum % 15, shape);
+        sum = sum + compute38(sum % 24, shape);
+        sum = sum + compute39(sum % 43, shape);
+        sum = sum + compute40(sum % 41, shape);
+        sum = sum + compute41(sum % 23, shape);
+        sum = sum + compute42(sum % 33, shape);
+        sum = sum + compute43(sum % 12, shape);
+        sum = sum + compute44(sum % 34, shape);
+        sum = sum + compute45(sum % 49, shape);
+        sum = sum + compute46(sum % 24, shape);
+        sum = sum + compute47(sum % 49, shape);
+        sum = sum + compute48(sum % 30, shape);
+        sum = sum + compute49(sum % 22, shape);
+        sum = sum + compute50(sum % 37, shape);
+        sum = sum + compute51(sum % 39, shape);
+        sum = sum + compute52(sum % 36, shape);
+        sum = sum + compute53(sum % 33, shape);
+        sum = sum + compute54(sum % 10, shape);
+        sum = sum + compute55(sum % 43, shape);
+        sum = sum + compute56(sum % 7, shape);
+        sum = sum + compute57(sum % 32, shape);
+        sum = sum + compute58(sum % 25, shape);
+        sum = sum + compute59(sum % 43, shape);
+        shape = make(sum);
+        if (shape != null) {
+            sum = sum + shape.area(sum);
+        }
+    }
+}